@@ -4,14 +4,22 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.client.resources.IResourceManagerReloadListener;
 import net.minecraft.client.resources.SimpleReloadableResourceManager;
+import net.minecraftforge.client.event.TextureStitchEvent;
+import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 
+import com.gtnewhorizons.modularui.api.UIInfos;
 import com.gtnewhorizons.modularui.api.drawable.FallbackableUITexture;
+import com.gtnewhorizons.modularui.api.drawable.GuiHelper;
+import com.gtnewhorizons.modularui.api.drawable.TextRenderer;
 import com.gtnewhorizons.modularui.common.internal.JsonLoader;
+import com.gtnewhorizons.modularui.common.internal.JsonWatcher;
 import com.gtnewhorizons.modularui.common.peripheral.ModularUIPeripheralInputHandler;
+import com.gtnewhorizons.modularui.config.Config;
 import com.gtnewhorizons.modularui.integration.nei.ModularUIContainerObjectHandler;
 
 import codechicken.nei.guihook.GuiContainerManager;
 import cpw.mods.fml.common.event.FMLPreInitializationEvent;
+import cpw.mods.fml.common.eventhandler.SubscribeEvent;
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
 
@@ -30,6 +38,25 @@ public class ClientProxy extends CommonProxy {
         super.postInit();
         ((SimpleReloadableResourceManager) Minecraft.getMinecraft().getResourceManager())
                 .registerReloadListener(new ResourceManagerReloadListener());
+        if (ModularUI.isDevEnv && Config.useJson) {
+            JsonWatcher.start();
+        }
+    }
+
+    @SubscribeEvent
+    public void onTextureStitch(TextureStitchEvent.Post event) {
+        if (event.map.getTextureType() == 0) {
+            GuiHelper.clearFluidRenderCache();
+        }
+    }
+
+    @SubscribeEvent
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        if (event.action == PlayerInteractEvent.Action.RIGHT_CLICK_BLOCK && event.entityPlayer.worldObj.isRemote) {
+            UIInfos.prepareTileUI(
+                    event.entityPlayer,
+                    event.entityPlayer.worldObj.getTileEntity(event.x, event.y, event.z));
+        }
     }
 
     private static class ResourceManagerReloadListener implements IResourceManagerReloadListener {
@@ -39,6 +66,7 @@ public class ClientProxy extends CommonProxy {
             ModularUI.logger.info("Reloading GUIs");
             JsonLoader.loadJson();
             FallbackableUITexture.reload();
+            TextRenderer.clearWidthCache();
         }
     }
 }
@@ -3,11 +3,18 @@ package com.gtnewhorizons.modularui.api;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
+import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.texture.ITextureObject;
+import net.minecraft.client.renderer.texture.TextureManager;
+import net.minecraft.util.ResourceLocation;
 
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
@@ -19,10 +26,27 @@ import cpw.mods.fml.relauncher.SideOnly;
 
 /**
  * Copied from forge 1.12.2-14.23.5.2847 net.minecraft.client.renderer.GlStateManager
+ * <p>
+ * Unlike 1.12, vanilla 1.7.10 calls {@link GL11} directly, so the cached state can't be trusted in general. Capability
+ * toggles and texture binds are only skipped while state tracking is active (see {@link #beginStateTracking()}), and
+ * code that calls into vanilla or other mods renderers while tracking must call {@link #invalidateStateCache()}
+ * afterwards.
  */
 @SideOnly(Side.CLIENT)
 public class GlStateManager {
 
+    private static final List<BooleanState> booleanStates = new ArrayList<>();
+    private static final ClassValue<Boolean> trackedRenderers = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.getName().startsWith("com.gtnewhorizons.modularui.");
+        }
+    };
+    private static boolean stateTracking = false;
+    private static int issuedStateChanges = 0;
+    private static int skippedStateChanges = 0;
+
     private static final FloatBuffer BUF_FLOAT_16 = BufferUtils.createFloatBuffer(16);
     private static final FloatBuffer BUF_FLOAT_4 = BufferUtils.createFloatBuffer(4);
     private static final AlphaState alphaState = new AlphaState();
@@ -45,7 +69,82 @@ public class GlStateManager {
     private static final BooleanState rescaleNormalState;
     private static final ColorMask colorMaskState;
     private static final Color colorState;
-    private static final Stack<double[]> translations = new Stack<>();
+    private static double[][] translations = new double[16][3];
+    private static int translationDepth = 0;
+    private static long[] matrixLevelIds = new long[16];
+    private static int[] matrixLevelTransforms = new int[16];
+    private static long matrixLevelCounter = 0;
+
+    /**
+     * Starts skipping redundant capability toggles and texture binds. The cache is invalidated, so the first call of
+     * each state is always issued.
+     */
+    public static void beginStateTracking() {
+        invalidateStateCache();
+        stateTracking = true;
+    }
+
+    public static void endStateTracking() {
+        stateTracking = false;
+    }
+
+    public static boolean isStateTracking() {
+        return stateTracking;
+    }
+
+    /**
+     * Forgets all cached state. Call this after code that may change GL state without going through this class, like
+     * item rendering, font rendering or {@link GL11#glPopAttrib()}.
+     */
+    public static void invalidateStateCache() {
+        for (BooleanState state : booleanStates) {
+            state.invalidate();
+        }
+        alphaState.func = -1;
+        blendState.srcFactor = -1;
+        blendState.srcFactorAlpha = -1;
+        depthState.depthFunc = -1;
+        activeShadeModel = -1;
+        resetColor();
+        resetTextureBinding();
+    }
+
+    /**
+     * @return if the renderer is part of ModularUI and only changes GL state through this class
+     */
+    public static boolean isTrackedRenderer(Class<?> rendererClass) {
+        return trackedRenderers.get(rendererClass);
+    }
+
+    /**
+     * Invalidates the state cache if the renderer is not part of ModularUI, since it might have called {@link GL11}
+     * directly.
+     */
+    public static void invalidateIfForeign(Object renderer) {
+        if (stateTracking && !isTrackedRenderer(renderer.getClass())) {
+            invalidateStateCache();
+        }
+    }
+
+    /**
+     * Number of GL calls issued through this class since the last {@link #resetStateStatistics()}
+     */
+    public static int getIssuedStateChanges() {
+        return issuedStateChanges;
+    }
+
+    /**
+     * Number of GL calls skipped by this class since the last {@link #resetStateStatistics()}, because they would not
+     * have changed anything
+     */
+    public static int getSkippedStateChanges() {
+        return skippedStateChanges;
+    }
+
+    public static void resetStateStatistics() {
+        issuedStateChanges = 0;
+        skippedStateChanges = 0;
+    }
 
     /**
      * Do not use (see MinecraftForge issue #1637)
@@ -74,6 +173,9 @@ public class GlStateManager {
             alphaState.func = func;
             alphaState.ref = ref;
             GL11.glAlphaFunc(func, ref);
+            issuedStateChanges++;
+        } else {
+            skippedStateChanges++;
         }
     }
 
@@ -133,6 +235,9 @@ public class GlStateManager {
         if (depthFunc != depthState.depthFunc) {
             depthState.depthFunc = depthFunc;
             GL11.glDepthFunc(depthFunc);
+            issuedStateChanges++;
+        } else {
+            skippedStateChanges++;
         }
     }
 
@@ -160,6 +265,9 @@ public class GlStateManager {
             blendState.srcFactor = srcFactor;
             blendState.dstFactor = dstFactor;
             GL11.glBlendFunc(srcFactor, dstFactor);
+            issuedStateChanges++;
+        } else {
+            skippedStateChanges++;
         }
     }
 
@@ -177,6 +285,9 @@ public class GlStateManager {
             blendState.srcFactorAlpha = srcFactorAlpha;
             blendState.dstFactorAlpha = dstFactorAlpha;
             OpenGlHelper.glBlendFunc(srcFactor, dstFactor, srcFactorAlpha, dstFactorAlpha);
+            issuedStateChanges++;
+        } else {
+            skippedStateChanges++;
         }
     }
 
@@ -405,9 +516,35 @@ public class GlStateManager {
     }
 
     public static void bindTexture(int texture) {
-        if (texture != textureState[activeTextureUnit].textureName) {
+        if (!stateTracking || texture != textureState[activeTextureUnit].textureName) {
             textureState[activeTextureUnit].textureName = texture;
             GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+            issuedStateChanges++;
+        } else {
+            skippedStateChanges++;
+        }
+    }
+
+    /**
+     * Binds the texture at the location like {@link TextureManager#bindTexture(ResourceLocation)}, but skips the bind
+     * if it's already bound.
+     */
+    public static void bindTexture(ResourceLocation location) {
+        TextureManager textureManager = Minecraft.getMinecraft().getTextureManager();
+        ITextureObject texture = textureManager.getTexture(location);
+        if (texture == null) {
+            // let vanilla load it
+            textureManager.bindTexture(location);
+            textureState[activeTextureUnit].textureName = textureManager.getTexture(location).getGlTextureId();
+            issuedStateChanges++;
+        } else {
+            bindTexture(texture.getGlTextureId());
+        }
+    }
+
+    public static void resetTextureBinding() {
+        for (TextureState state : textureState) {
+            state.textureName = -1;
         }
     }
 
@@ -442,6 +579,9 @@ public class GlStateManager {
         if (mode != activeShadeModel) {
             activeShadeModel = mode;
             GL11.glShadeModel(mode);
+            issuedStateChanges++;
+        } else {
+            skippedStateChanges++;
         }
     }
 
@@ -498,16 +638,43 @@ public class GlStateManager {
 
     public static void loadIdentity() {
         GL11.glLoadIdentity();
+        markTransformed();
     }
 
     public static void pushMatrix() {
         GL11.glPushMatrix();
-        translations.push(new double[3]);
+        if (translationDepth == translations.length) {
+            translations = Arrays.copyOf(translations, translationDepth * 2);
+            for (int i = translationDepth; i < translations.length; i++) {
+                translations[i] = new double[3];
+            }
+            matrixLevelIds = Arrays.copyOf(matrixLevelIds, translations.length);
+            matrixLevelTransforms = Arrays.copyOf(matrixLevelTransforms, translations.length);
+        }
+        matrixLevelIds[translationDepth] = ++matrixLevelCounter;
+        matrixLevelTransforms[translationDepth] = 0;
+        Arrays.fill(translations[translationDepth++], 0);
     }
 
     public static void popMatrix() {
         GL11.glPopMatrix();
-        translations.pop();
+        if (translationDepth == 0) {
+            throw new EmptyStackException();
+        }
+        translationDepth--;
+    }
+
+    private static void markTransformed() {
+        if (translationDepth > 0) {
+            matrixLevelTransforms[translationDepth - 1]++;
+        }
+    }
+
+    private static double[] peekTranslation() {
+        if (translationDepth == 0) {
+            throw new EmptyStackException();
+        }
+        return translations[translationDepth - 1];
     }
 
     public static void getFloat(int pname, FloatBuffer params) {
@@ -520,19 +687,22 @@ public class GlStateManager {
 
     public static void rotate(float angle, float x, float y, float z) {
         GL11.glRotatef(angle, x, y, z);
+        markTransformed();
     }
 
     public static void scale(float x, float y, float z) {
         GL11.glScalef(x, y, z);
+        markTransformed();
     }
 
     public static void scale(double x, double y, double z) {
         GL11.glScaled(x, y, z);
+        markTransformed();
     }
 
     public static void translate(float x, float y, float z) {
         GL11.glTranslatef(x, y, z);
-        double[] translation = translations.peek();
+        double[] translation = peekTranslation();
         translation[0] += x;
         translation[1] += y;
         translation[2] += z;
@@ -540,7 +710,7 @@ public class GlStateManager {
 
     public static void translate(double x, double y, double z) {
         GL11.glTranslated(x, y, z);
-        double[] translation = translations.peek();
+        double[] translation = peekTranslation();
         translation[0] += x;
         translation[1] += y;
         translation[2] += z;
@@ -548,16 +718,36 @@ public class GlStateManager {
 
     public static double[] getTranslation() {
         double[] ret = new double[3];
-        for (double[] translation : translations) {
-            ret[0] += translation[0];
-            ret[1] += translation[1];
-            ret[2] += translation[2];
-        }
+        getTranslation(ret);
         return ret;
     }
 
+    private static void getTranslation(double[] dest) {
+        dest[0] = 0;
+        dest[1] = 0;
+        dest[2] = 0;
+        for (int i = 0; i < translationDepth; i++) {
+            double[] translation = translations[i];
+            dest[0] += translation[0];
+            dest[1] += translation[1];
+            dest[2] += translation[2];
+        }
+    }
+
     public static void multMatrix(FloatBuffer matrix) {
         GL11.glMultMatrix(matrix);
+        markTransformed();
+    }
+
+    /**
+     * Replaces the current matrix with a column major matrix.
+     */
+    public static void loadMatrix(float[] matrix) {
+        BUF_FLOAT_16.clear();
+        BUF_FLOAT_16.put(matrix, 0, 16);
+        BUF_FLOAT_16.flip();
+        GL11.glLoadMatrix(BUF_FLOAT_16);
+        markTransformed();
     }
 
     public static void rotate(Quaternion quaternionIn) {
@@ -604,6 +794,9 @@ public class GlStateManager {
             colorState.blue = colorBlue;
             colorState.alpha = colorAlpha;
             GL11.glColor4f(colorRed, colorGreen, colorBlue, colorAlpha);
+            issuedStateChanges++;
+        } else {
+            skippedStateChanges++;
         }
     }
 
@@ -787,9 +980,15 @@ public class GlStateManager {
 
         private final int capability;
         private boolean currentState;
+        private boolean known;
 
         public BooleanState(int capabilityIn) {
             this.capability = capabilityIn;
+            booleanStates.add(this);
+        }
+
+        public void invalidate() {
+            this.known = false;
         }
 
         public void setDisabled() {
@@ -801,11 +1000,18 @@ public class GlStateManager {
         }
 
         public void setState(boolean state) {
+            if (stateTracking && this.known && state == this.currentState) {
+                skippedStateChanges++;
+                return;
+            }
             if (state) {
                 GL11.glEnable(this.capability);
             } else {
                 GL11.glDisable(this.capability);
             }
+            this.currentState = state;
+            this.known = true;
+            issuedStateChanges++;
         }
     }
 
@@ -1128,4 +1334,69 @@ public class GlStateManager {
             this.texture2DState = new BooleanState(3553);
         }
     }
+
+    /**
+     * Remembers the model view matrix once and derives the following matrices from it by applying the translations
+     * done through this class in software. The matrix is only read back from the driver again after it was scaled,
+     * rotated or loaded, or after the matrix it was read at has been popped. Transformations done directly through
+     * {@link GL11} are not seen.
+     */
+    @SideOnly(Side.CLIENT)
+    public static class ModelViewTracker {
+
+        private final FloatBuffer buffer = BufferUtils.createFloatBuffer(16);
+        private final float[] base = new float[16];
+        private final double[] origin = new double[3];
+        private final double[] translation = new double[3];
+        private int depth = 0;
+        private long levelId;
+        private int levelTransforms;
+
+        /**
+         * Forces the next {@link #get(float[])} to read the matrix back.
+         */
+        public void invalidate() {
+            depth = 0;
+        }
+
+        /**
+         * Writes the current model view matrix to {@code dest} in column major order.
+         */
+        public void get(float[] dest) {
+            if (!isValid()) {
+                buffer.clear();
+                GL11.glGetFloat(GL11.GL_MODELVIEW_MATRIX, buffer);
+                buffer.get(base);
+                depth = translationDepth;
+                if (depth > 0) {
+                    levelId = matrixLevelIds[depth - 1];
+                    levelTransforms = matrixLevelTransforms[depth - 1];
+                }
+                getTranslation(origin);
+                System.arraycopy(base, 0, dest, 0, 16);
+                return;
+            }
+            getTranslation(translation);
+            float x = (float) (translation[0] - origin[0]);
+            float y = (float) (translation[1] - origin[1]);
+            float z = (float) (translation[2] - origin[2]);
+            System.arraycopy(base, 0, dest, 0, 12);
+            dest[12] = base[0] * x + base[4] * y + base[8] * z + base[12];
+            dest[13] = base[1] * x + base[5] * y + base[9] * z + base[13];
+            dest[14] = base[2] * x + base[6] * y + base[10] * z + base[14];
+            dest[15] = base[3] * x + base[7] * y + base[11] * z + base[15];
+        }
+
+        private boolean isValid() {
+            if (depth == 0 || translationDepth < depth
+                    || matrixLevelIds[depth - 1] != levelId
+                    || matrixLevelTransforms[depth - 1] != levelTransforms) {
+                return false;
+            }
+            for (int i = depth; i < translationDepth; i++) {
+                if (matrixLevelTransforms[i] != 0) return false;
+            }
+            return true;
+        }
+    }
 }
@@ -1,5 +1,10 @@
 package com.gtnewhorizons.modularui.api;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import net.minecraft.client.gui.GuiScreen;
@@ -13,6 +18,7 @@ import com.gtnewhorizons.modularui.api.screen.ITileWithModularUI;
 import com.gtnewhorizons.modularui.api.screen.ModularUIContext;
 import com.gtnewhorizons.modularui.api.screen.ModularWindow;
 import com.gtnewhorizons.modularui.api.screen.UIBuildContext;
+import com.gtnewhorizons.modularui.api.screen.WindowPrototypes;
 import com.gtnewhorizons.modularui.common.builder.UIBuilder;
 import com.gtnewhorizons.modularui.common.builder.UIInfo;
 import com.gtnewhorizons.modularui.common.internal.network.NetworkUtils;
@@ -25,12 +31,27 @@ import cpw.mods.fml.relauncher.SideOnly;
 
 public class UIInfos {
 
+    private static final AtomicInteger BUILDER_ID = new AtomicInteger();
+    private static final Executor WINDOW_BUILDER = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "ModularUI Window Builder #" + BUILDER_ID.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @SideOnly(Side.CLIENT)
+    private static PendingWindow pendingTileWindow;
+
     public static void init() {}
 
     public static final UIInfo<?, ?> TILE_MODULAR_UI = UIBuilder.of().gui(((player, world, x, y, z) -> {
         if (!world.isRemote) return null;
         TileEntity te = world.getTileEntity(x, y, z);
         if (te instanceof ITileWithModularUI) {
+            PendingWindow pending = takePendingTileWindow(te);
+            if (pending != null) {
+                return new ModularGui(
+                        new ModularUIContainer(new ModularUIContext(pending.buildContext, null), pending.window));
+            }
             return ModularUI.createGuiScreen(player, ((ITileWithModularUI) te)::createWindow);
         }
         return null;
@@ -75,11 +96,59 @@ public class UIInfos {
         }
         UIBuildContext buildContext = new UIBuildContext(player);
         ModularWindow window = uiCreator.apply(buildContext);
-        GuiScreen screen = new ModularGui(
-                new ModularUIContainer(new ModularUIContext(buildContext, null, true), window));
+        ModularUIContext context = new ModularUIContext(buildContext, null, true);
+        context.setReopener(() -> openClientUI(player, uiCreator));
+        GuiScreen screen = new ModularGui(new ModularUIContainer(context, window));
         FMLCommonHandler.instance().showGuiScreen(screen);
     }
 
+    /**
+     * Starts building the window of the tile on another thread while the client waits for the server to open the gui.
+     * Called when the player right clicks a block. Does nothing if the tile doesn't allow it, see
+     * {@link ITileWithModularUI#canBuildWindowAsync()}.
+     */
+    @SideOnly(Side.CLIENT)
+    public static void prepareTileUI(EntityPlayer player, TileEntity te) {
+        discardPendingTileWindow();
+        if (!(te instanceof ITileWithModularUI) || !((ITileWithModularUI) te).canBuildWindowAsync()) return;
+        UIBuildContext buildContext = new UIBuildContext(player);
+        pendingTileWindow = new PendingWindow(
+                te,
+                buildContext,
+                CompletableFuture
+                        .supplyAsync(() -> ((ITileWithModularUI) te).createWindow(buildContext), WINDOW_BUILDER));
+    }
+
+    /**
+     * Waits for the window started by {@link #prepareTileUI} if it was started for this tile.
+     *
+     * @return the built window or null if it wasn't started for this tile or failed
+     */
+    @SideOnly(Side.CLIENT)
+    private static PendingWindow takePendingTileWindow(TileEntity te) {
+        PendingWindow pending = pendingTileWindow;
+        if (pending == null || pending.tile != te) {
+            discardPendingTileWindow();
+            return null;
+        }
+        pendingTileWindow = null;
+        try {
+            pending.window = pending.future.join();
+            return pending;
+        } catch (CompletionException e) {
+            ModularUI.logger.error("Failed to build window on another thread, building it again", e.getCause());
+            return null;
+        }
+    }
+
+    @SideOnly(Side.CLIENT)
+    private static void discardPendingTileWindow() {
+        if (pendingTileWindow == null) return;
+        // the server didn't open the gui for this tile, so the window is never initialised
+        pendingTileWindow.future.thenAccept(WindowPrototypes::discard);
+        pendingTileWindow = null;
+    }
+
     /**
      * Call this if you want to draw widgets in other mods' GUI. Don't call if you're using {@link UIInfo#open} or
      * {@link #openClientUI}.
@@ -88,4 +157,19 @@ public class UIInfos {
         UIBuildContext buildContext = new UIBuildContext(player);
         new ModularGui(new ModularUIContainer(new ModularUIContext(buildContext, null, true), window));
     }
+
+    @SideOnly(Side.CLIENT)
+    private static class PendingWindow {
+
+        private final TileEntity tile;
+        private final UIBuildContext buildContext;
+        private final CompletableFuture<ModularWindow> future;
+        private ModularWindow window;
+
+        private PendingWindow(TileEntity tile, UIBuildContext buildContext, CompletableFuture<ModularWindow> future) {
+            this.tile = tile;
+            this.buildContext = buildContext;
+            this.future = future;
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package com.gtnewhorizons.modularui.api.animation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.gtnewhorizons.modularui.config.Config;
+
+/**
+ * Steps all running {@link Interpolator}s of a {@link com.gtnewhorizons.modularui.api.screen.ModularUIContext} by the
+ * wall clock time that passed since the last frame. Animations are only held while they run.
+ */
+public class AnimationScheduler {
+
+    private final List<Interpolator> active = new ArrayList<>();
+    private long lastTime;
+
+    /**
+     * Starts stepping an interpolator. Call {@link Interpolator#forward()} or {@link Interpolator#backwards()}
+     * first. If animations are disabled, the interpolator is finished right away.
+     */
+    public void start(Interpolator interpolator) {
+        if (Config.disableAnimations) {
+            interpolator.finish();
+            return;
+        }
+        if (active.isEmpty()) {
+            lastTime = System.nanoTime();
+        }
+        if (!active.contains(interpolator)) {
+            active.add(interpolator);
+        }
+        if (!interpolator.advance(0)) {
+            active.remove(interpolator);
+        }
+    }
+
+    /**
+     * Called once per frame.
+     */
+    public void update() {
+        if (active.isEmpty()) {
+            return;
+        }
+        long time = System.nanoTime();
+        float delta = (time - lastTime) / 1_000_000f;
+        lastTime = time;
+        int max = Config.maxActiveAnimations;
+        // callbacks may start new animations
+        for (int i = 0; i < active.size(); i++) {
+            Interpolator interpolator = active.get(i);
+            boolean running;
+            if (Config.disableAnimations || (max > 0 && i >= max)) {
+                interpolator.finish();
+                running = false;
+            } else {
+                running = interpolator.advance(delta);
+            }
+            if (!running) {
+                if (i < active.size() && active.get(i) == interpolator) {
+                    active.remove(i--);
+                } else if (active.remove(interpolator)) {
+                    i--;
+                }
+            }
+        }
+    }
+
+    public boolean isAnimating() {
+        return !active.isEmpty();
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Stops all animations without calling their callbacks.
+     */
+    public void clear() {
+        for (Interpolator interpolator : active) {
+            interpolator.stop();
+        }
+        active.clear();
+    }
+}
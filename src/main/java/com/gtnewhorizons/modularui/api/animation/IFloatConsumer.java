@@ -0,0 +1,10 @@
+package com.gtnewhorizons.modularui.api.animation;
+
+/**
+ * Primitive float callback used by {@link Interpolator} to avoid boxing every frame.
+ */
+@FunctionalInterface
+public interface IFloatConsumer {
+
+    void accept(float value);
+}
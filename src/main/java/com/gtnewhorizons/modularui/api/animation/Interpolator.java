@@ -2,17 +2,33 @@ package com.gtnewhorizons.modularui.api.animation;
 
 import java.util.function.Consumer;
 
+/**
+ * Interpolates between two values over a duration in milliseconds. Start it with {@link #forward()} or
+ * {@link #backwards()} and let an {@link AnimationScheduler} step it.
+ */
 public class Interpolator {
 
     private final float from;
     private final float to;
     private final int duration;
     private final IEase ease;
-    private final Consumer<Number> interpolate;
-    private Consumer<Number> callback;
+    private final IFloatConsumer interpolate;
+    private IFloatConsumer callback;
 
     private int runs = 0;
-    private int progress = 0;
+    private float progress = 0;
+
+    /**
+     * Creates an interpolator with primitive callbacks, which do not box the value every frame.
+     */
+    public static Interpolator of(float from, float to, int duration, IEase ease, IFloatConsumer interpolate) {
+        return of(from, to, duration, ease, interpolate, null);
+    }
+
+    public static Interpolator of(float from, float to, int duration, IEase ease, IFloatConsumer interpolate,
+            IFloatConsumer callback) {
+        return new Interpolator(interpolate, callback, from, to, duration, ease);
+    }
 
     public Interpolator(float from, float to, int duration, IEase ease, Consumer<Number> interpolate) {
         this(from, to, duration, ease, interpolate, null);
@@ -20,6 +36,11 @@ public class Interpolator {
 
     public Interpolator(float from, float to, int duration, IEase ease, Consumer<Number> interpolate,
             Consumer<Number> callback) {
+        this(interpolate::accept, callback == null ? null : callback::accept, from, to, duration, ease);
+    }
+
+    private Interpolator(IFloatConsumer interpolate, IFloatConsumer callback, float from, float to, int duration,
+            IEase ease) {
         this.from = from;
         this.to = to;
         this.duration = duration;
@@ -29,10 +50,17 @@ public class Interpolator {
     }
 
     public Interpolator getReversed(int duration, IEase ease) {
-        return new Interpolator(to, from, duration, ease, interpolate, callback);
+        return new Interpolator(interpolate, callback, to, from, duration, ease);
     }
 
     public void setCallback(Consumer<Number> callback) {
+        this.callback = callback == null ? null : callback::accept;
+    }
+
+    /**
+     * Sets a primitive callback which is called when the end is reached.
+     */
+    public void onFinish(IFloatConsumer callback) {
         this.callback = callback;
     }
 
@@ -52,7 +80,7 @@ public class Interpolator {
     }
 
     public boolean isAtStart() {
-        return progress == 0;
+        return progress <= 0;
     }
 
     public boolean isAtEnd() {
@@ -63,26 +91,54 @@ public class Interpolator {
         return runs != 0 && progress > 0 && progress < duration;
     }
 
-    public void update(float partialTicks) {
-        if (runs != 0) {
-            if (runs == -1 && progress <= 0) {
-                progress = 0;
-                if (callback != null) {
-                    callback.accept(ease.interpolate(progress * 1.0f / duration) * (to - from) + from);
-                }
-                stop();
-                return;
-            } else if (runs == 1 && progress >= duration) {
-                progress = duration;
-                if (callback != null) {
-                    callback.accept(ease.interpolate(progress * 1.0f / duration) * (to - from) + from);
-                }
-                stop();
-                return;
-            } else {
-                interpolate.accept(ease.interpolate(progress * 1.0f / duration) * (to - from) + from);
-            }
-            progress += partialTicks * 50 * runs;
+    /**
+     * @return true if this was started and did not reach its end yet
+     */
+    public boolean isActive() {
+        return runs != 0;
+    }
+
+    /**
+     * Steps the animation by the given amount of milliseconds.
+     *
+     * @return true if the animation is still running
+     */
+    public boolean advance(float deltaMs) {
+        if (runs == 0) {
+            return false;
         }
+        progress += deltaMs * runs;
+        if ((runs == 1 && progress >= duration) || (runs == -1 && progress <= 0)) {
+            finish();
+            return false;
+        }
+        interpolate.accept(getValue());
+        return true;
+    }
+
+    /**
+     * Jumps to the end of the current direction and calls the callback.
+     */
+    public void finish() {
+        if (runs == 0) {
+            return;
+        }
+        progress = runs == 1 ? duration : 0;
+        stop();
+        if (callback != null) {
+            callback.accept(getValue());
+        }
+    }
+
+    /**
+     * @deprecated animations are stepped by wall clock time in {@link AnimationScheduler}
+     */
+    @Deprecated
+    public void update(float partialTicks) {
+        advance(partialTicks * 50);
+    }
+
+    private float getValue() {
+        return ease.interpolate(duration <= 0 ? 1f : progress / duration) * (to - from) + from;
     }
 }
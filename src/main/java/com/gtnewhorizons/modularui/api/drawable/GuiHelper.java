@@ -2,7 +2,10 @@ package com.gtnewhorizons.modularui.api.drawable;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.stream.Collectors;
@@ -11,11 +14,11 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.client.gui.ScaledResolution;
-import net.minecraft.client.renderer.OpenGlHelper;
 import net.minecraft.client.renderer.RenderHelper;
 import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumChatFormatting;
 import net.minecraft.util.IIcon;
 import net.minecraftforge.fluids.Fluid;
@@ -33,6 +36,8 @@ import com.gtnewhorizons.modularui.api.math.Pos2d;
 import com.gtnewhorizons.modularui.api.math.Size;
 import com.gtnewhorizons.modularui.api.screen.ModularUIContext;
 import com.gtnewhorizons.modularui.common.internal.wrapper.ModularGui;
+import com.gtnewhorizons.modularui.common.widget.FluidRenderBatch;
+import com.gtnewhorizons.modularui.common.widget.ItemRenderBatch;
 
 import codechicken.lib.gui.GuiDraw;
 import codechicken.nei.guihook.GuiContainerManager;
@@ -44,6 +49,19 @@ import cpw.mods.fml.relauncher.SideOnly;
 public class GuiHelper {
 
     private static final Set<Fluid> errorFluids = new HashSet<>();
+    private static final Map<Fluid, FluidRenderInfo> fluidRenderInfos = new IdentityHashMap<>();
+    private static final int MAX_TAGGED_FLUID_RENDER_INFOS = 256;
+    // least recently used entries are dropped, so fluids with unique tags can't fill up memory
+    private static final Map<TaggedFluid, FluidRenderInfo> taggedFluidRenderInfos = new LinkedHashMap<TaggedFluid, FluidRenderInfo>(
+            16,
+            0.75f,
+            true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TaggedFluid, FluidRenderInfo> eldest) {
+            return size() > MAX_TAGGED_FLUID_RENDER_INFOS;
+        }
+    };
 
     // ==== Screen helpers ====
 
@@ -286,6 +304,7 @@ public class GuiHelper {
         tessellator.setColorRGBA_F(endRed, endGreen, endBlue, endAlpha);
         tessellator.addVertex(right, bottom, zLevel);
         tessellator.draw();
+        GlStateManager.resetColor();
 
         GlStateManager.shadeModel(GL11.GL_FLAT);
         GlStateManager.disableBlend();
@@ -297,42 +316,119 @@ public class GuiHelper {
         if (content == null) {
             return;
         }
-        Fluid fluid = content.getFluid();
-        IIcon fluidStill = fluid.getIcon(content);
-        int fluidColor = fluid.getColor(content);
-
-        if (fluidStill == null) {
-            if (!errorFluids.contains(fluid)) {
-                ModularUI.logger.warn("Fluid `{}` does not have icon!", fluid.getName());
-                errorFluids.add(fluid);
-            }
+        FluidRenderInfo info = getFluidRenderInfo(content);
+        if (info.icon == null) {
             return;
         }
 
         GlStateManager.disableLighting();
         GlStateManager.enableBlend();
-        Minecraft.getMinecraft().renderEngine.bindTexture(TextureMap.locationBlocksTexture);
-
-        float u0 = fluidStill.getMinU(), u1 = fluidStill.getMaxU(), v0 = fluidStill.getMinV(),
-                v1 = fluidStill.getMaxV();
-        float x1 = x0 + width, y1 = y0 + height;
-        float r = Color.getRedF(fluidColor), g = Color.getGreenF(fluidColor), b = Color.getBlueF(fluidColor),
-                a = Color.getAlphaF(fluidColor);
-        a = a == 0f ? 1f : a;
+        GlStateManager.bindTexture(TextureMap.locationBlocksTexture);
 
         Tessellator tessellator = Tessellator.instance;
         tessellator.startDrawingQuads();
-        tessellator.setColorRGBA_F(r, g, b, a);
-        tessellator.setTextureUV(u0, v1);
+        addFluidQuad(tessellator, info, x0, y0, x0 + width, y0 + height, z);
+        tessellator.draw();
+        GlStateManager.resetColor();
+        GlStateManager.disableBlend();
+    }
+
+    /**
+     * Adds a fluid quad to a tessellator which is drawing quads on the block atlas.
+     */
+    public static void addFluidQuad(Tessellator tessellator, FluidRenderInfo info, float x0, float y0, float x1,
+            float y1, float z) {
+        IIcon icon = info.icon;
+        tessellator.setColorRGBA_F(info.red, info.green, info.blue, info.alpha);
+        tessellator.setTextureUV(icon.getMinU(), icon.getMaxV());
         tessellator.addVertex(x0, y1, z);
-        tessellator.setTextureUV(u1, v1);
+        tessellator.setTextureUV(icon.getMaxU(), icon.getMaxV());
         tessellator.addVertex(x1, y1, z);
-        tessellator.setTextureUV(u1, v0);
+        tessellator.setTextureUV(icon.getMaxU(), icon.getMinV());
         tessellator.addVertex(x1, y0, z);
-        tessellator.setTextureUV(u0, v0);
+        tessellator.setTextureUV(icon.getMinU(), icon.getMinV());
         tessellator.addVertex(x0, y0, z);
-        tessellator.draw();
-        GlStateManager.disableBlend();
+    }
+
+    /**
+     * Looks up the still icon and colour of a fluid stack. Results are cached per fluid and tag until the block atlas
+     * is stitched again.
+     */
+    public static FluidRenderInfo getFluidRenderInfo(FluidStack content) {
+        Fluid fluid = content.getFluid();
+        FluidRenderInfo info;
+        if (content.tag == null) {
+            info = fluidRenderInfos.get(fluid);
+            if (info == null) {
+                info = createFluidRenderInfo(content);
+                fluidRenderInfos.put(fluid, info);
+            }
+        } else {
+            info = taggedFluidRenderInfos.get(new TaggedFluid(fluid, content.tag));
+            if (info == null) {
+                info = createFluidRenderInfo(content);
+                // the tag of the stack may change later
+                taggedFluidRenderInfos.put(new TaggedFluid(fluid, (NBTTagCompound) content.tag.copy()), info);
+            }
+        }
+        return info;
+    }
+
+    private static FluidRenderInfo createFluidRenderInfo(FluidStack content) {
+        Fluid fluid = content.getFluid();
+        IIcon fluidStill = fluid.getIcon(content);
+        if (fluidStill == null && !errorFluids.contains(fluid)) {
+            ModularUI.logger.warn("Fluid `{}` does not have icon!", fluid.getName());
+            errorFluids.add(fluid);
+        }
+        return new FluidRenderInfo(fluidStill, fluid.getColor(content));
+    }
+
+    /**
+     * Drops all cached fluid icons and colours. Called when the block atlas is stitched.
+     */
+    public static void clearFluidRenderCache() {
+        fluidRenderInfos.clear();
+        taggedFluidRenderInfos.clear();
+    }
+
+    private static class TaggedFluid {
+
+        private final Fluid fluid;
+        private final NBTTagCompound tag;
+
+        private TaggedFluid(Fluid fluid, NBTTagCompound tag) {
+            this.fluid = fluid;
+            this.tag = tag;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TaggedFluid)) return false;
+            TaggedFluid other = (TaggedFluid) o;
+            return fluid == other.fluid && tag.equals(other.tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(fluid) + tag.hashCode();
+        }
+    }
+
+    public static class FluidRenderInfo {
+
+        public final IIcon icon;
+        public final float red, green, blue, alpha;
+
+        private FluidRenderInfo(IIcon icon, int color) {
+            this.icon = icon;
+            this.red = Color.getRedF(color);
+            this.green = Color.getGreenF(color);
+            this.blue = Color.getBlueF(color);
+            float a = Color.getAlphaF(color);
+            this.alpha = a == 0f ? 1f : a;
+        }
     }
 
     // ==== Scissor helpers ====
@@ -358,6 +454,10 @@ public class GuiHelper {
     }
 
     public static void pushScissorFrame(int x, int y, int width, int height) {
+        // pending items belong to the parent frame
+        FluidRenderBatch.flushCurrent();
+        ItemRenderBatch.flushCurrent();
+        TextRenderBatch.flushCurrent();
         int[] parentScissor = peekFirstScissorOrFullScreen();
         int parentX = parentScissor[0];
         int parentY = parentScissor[1];
@@ -393,6 +493,9 @@ public class GuiHelper {
     }
 
     public static void popScissorFrame() {
+        FluidRenderBatch.flushCurrent();
+        ItemRenderBatch.flushCurrent();
+        TextRenderBatch.flushCurrent();
         scissorFrameStack.pop();
         int[] parentScissor = peekFirstScissorOrFullScreen();
         int parentX = parentScissor[0];
@@ -426,21 +529,26 @@ public class GuiHelper {
         return font;
     }
 
+    /**
+     * Must be called right after {@link net.minecraft.client.renderer.entity.RenderItem#renderItemAndEffectIntoGUI}.
+     * Also invalidates the {@link GlStateManager} cache, since the item renderer bypasses it.
+     */
     public static void afterRenderItemAndEffectIntoGUI(ItemStack stack) {
+        GlStateManager.invalidateStateCache();
         // asked by Forge :shrug:
         // RenderItem#L627
         if (stack.hasEffect(0)) {
-            GL11.glDepthFunc(GL11.GL_EQUAL);
-            GL11.glDisable(GL11.GL_LIGHTING);
-            GL11.glDepthMask(false);
-            GL11.glEnable(GL11.GL_ALPHA_TEST);
-            GL11.glEnable(GL11.GL_BLEND);
-            GL11.glColor4f(0.5F, 0.25F, 0.8F, 1.0F);
-            OpenGlHelper.glBlendFunc(770, 771, 1, 0);
-            GL11.glDepthMask(true);
-            GL11.glEnable(GL11.GL_LIGHTING);
-            GL11.glDepthFunc(GL11.GL_LEQUAL);
-            GL11.glDisable(GL11.GL_BLEND);
+            GlStateManager.depthFunc(GL11.GL_EQUAL);
+            GlStateManager.disableLighting();
+            GlStateManager.depthMask(false);
+            GlStateManager.enableAlpha();
+            GlStateManager.enableBlend();
+            GlStateManager.color(0.5F, 0.25F, 0.8F, 1.0F);
+            GlStateManager.tryBlendFuncSeparate(770, 771, 1, 0);
+            GlStateManager.depthMask(true);
+            GlStateManager.enableLighting();
+            GlStateManager.depthFunc(GL11.GL_LEQUAL);
+            GlStateManager.disableBlend();
         }
     }
 
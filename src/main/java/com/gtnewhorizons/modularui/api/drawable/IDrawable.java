@@ -4,8 +4,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
-import org.lwjgl.opengl.GL11;
-
 import com.google.gson.JsonObject;
 import com.gtnewhorizons.modularui.api.GlStateManager;
 import com.gtnewhorizons.modularui.api.math.Color;
@@ -57,7 +55,7 @@ public interface IDrawable {
 
     @SideOnly(Side.CLIENT)
     static void applyTintColor(int color) {
-        GL11.glColor3ub((byte) ((color >> 16) & 0xFF), (byte) ((color >> 8) & 0xFF), (byte) (color & 0xFF));
+        GlStateManager.color(Color.getRedF(color), Color.getGreenF(color), Color.getBlueF(color), 1f);
     }
 
     /**
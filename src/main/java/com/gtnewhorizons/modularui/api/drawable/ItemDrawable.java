@@ -58,6 +58,7 @@ public class ItemDrawable implements IDrawable {
         GlStateManager.disableRescaleNormal();
         GlStateManager.disableDepth();
         RenderHelper.enableStandardItemLighting();
+        GlStateManager.invalidateStateCache();
         GlStateManager.disableLighting();
         GlStateManager.popMatrix();
     }
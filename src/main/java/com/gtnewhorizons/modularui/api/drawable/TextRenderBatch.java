@@ -0,0 +1,176 @@
+package com.gtnewhorizons.modularui.api.drawable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import net.minecraft.client.gui.FontRenderer;
+
+import org.lwjgl.opengl.GL11;
+
+import com.gtnewhorizons.modularui.api.GlStateManager;
+import com.gtnewhorizons.modularui.api.math.Pos2d;
+import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.widget.Widget;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * Collects text lines of {@link TextRenderer}s which allow batching while a window draws its widgets and draws them in
+ * one state section, grouped by shadow, scale and colour.
+ * <p>
+ * Each line remembers the model view matrix it was submitted with, tracked in software so that the driver is only
+ * asked for it once per batch. The batch is flushed when the window is done
+ * drawing, when a scissor frame is pushed or popped and when a widget is about to draw over a pending line.
+ */
+@SideOnly(Side.CLIENT)
+public class TextRenderBatch {
+
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        if (a.shadow != b.shadow) return a.shadow ? -1 : 1;
+        if (a.scale != b.scale) return Float.compare(a.scale, b.scale);
+        return Integer.compare(a.color, b.color);
+    };
+
+    private static TextRenderBatch current;
+
+    /**
+     * @return the batch text should be submitted to or null if text should be drawn immediately
+     */
+    public static TextRenderBatch getCurrent() {
+        return current;
+    }
+
+    /**
+     * Draws everything the current batch has collected so far.
+     */
+    public static void flushCurrent() {
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    /**
+     * Flushes the current batch if the widget would draw over one of its pending lines.
+     */
+    public static void flushCurrentIfCovered(Widget widget) {
+        if (current != null && current.size > 0) {
+            Pos2d pos = widget.getAbsolutePos();
+            Size size = widget.getSize();
+            if (pos.x < current.maxX && pos.x + size.width > current.minX
+                    && pos.y < current.maxY
+                    && pos.y + size.height > current.minY) {
+                current.flush();
+            }
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<Entry> pending = new ArrayList<>();
+    private final GlStateManager.ModelViewTracker modelView = new GlStateManager.ModelViewTracker();
+    private TextRenderBatch previous;
+    private int size = 0;
+    private float minX, minY, maxX, maxY;
+
+    /**
+     * Makes this the current batch. Must be paired with {@link #end()}.
+     */
+    public void begin() {
+        flushCurrent();
+        this.modelView.invalidate();
+        this.previous = current;
+        current = this;
+    }
+
+    /**
+     * Draws all pending lines and stops collecting.
+     */
+    public void end() {
+        flush();
+        if (current == this) {
+            current = previous;
+        }
+        this.previous = null;
+    }
+
+    /**
+     * Adds a line in the current model view space.
+     *
+     * @param width unscaled width of the text
+     */
+    public void submit(String text, int x, int y, float scale, int color, boolean shadow, int width) {
+        if (size == entries.size()) {
+            entries.add(new Entry());
+        }
+        Entry entry = entries.get(size++);
+        entry.text = text;
+        entry.x = x;
+        entry.y = y;
+        entry.scale = scale;
+        entry.color = color;
+        entry.shadow = shadow;
+        modelView.get(entry.matrix);
+
+        float[] m = entry.matrix;
+        float sx = m[0] * scale, sy = m[5] * scale;
+        float x0 = m[12] + x * sx, y0 = m[13] + y * sy;
+        float x1 = x0 + (width + 1) * sx, y1 = y0 + TextRenderer.getFontRenderer().FONT_HEIGHT * sy;
+        if (size == 1) {
+            minX = x0;
+            minY = y0;
+            maxX = x1;
+            maxY = y1;
+        } else {
+            minX = Math.min(minX, x0);
+            minY = Math.min(minY, y0);
+            maxX = Math.max(maxX, x1);
+            maxY = Math.max(maxY, y1);
+        }
+    }
+
+    /**
+     * Draws all pending lines.
+     */
+    public void flush() {
+        if (size == 0) return;
+        pending.clear();
+        for (int i = 0; i < size; i++) {
+            pending.add(entries.get(i));
+        }
+        pending.sort(ORDER);
+        FontRenderer fontRenderer = TextRenderer.getFontRenderer();
+        GlStateManager.pushMatrix();
+        try {
+            GlStateManager.disableBlend();
+            GlStateManager.disableLighting();
+            for (Entry entry : pending) {
+                GlStateManager.loadMatrix(entry.matrix);
+                GL11.glScalef(entry.scale, entry.scale, 0f);
+                fontRenderer.drawString(entry.text, entry.x, entry.y, entry.color, entry.shadow);
+            }
+        } finally {
+            GlStateManager.popMatrix();
+            // font renderer sets color and binds its own textures
+            GlStateManager.resetColor();
+            GlStateManager.resetTextureBinding();
+            GlStateManager.color(1f, 1f, 1f, 1f);
+            GlStateManager.enableBlend();
+            for (int i = 0; i < size; i++) {
+                entries.get(i).text = null;
+            }
+            pending.clear();
+            size = 0;
+        }
+    }
+
+    private static class Entry {
+
+        private final float[] matrix = new float[16];
+        private String text;
+        private int x, y;
+        private float scale;
+        private int color;
+        private boolean shadow;
+    }
+}
@@ -2,13 +2,14 @@ package com.gtnewhorizons.modularui.api.drawable;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.FontRenderer;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.lwjgl.opengl.GL11;
 
 import com.gtnewhorizons.modularui.api.GlStateManager;
 import com.gtnewhorizons.modularui.api.math.Alignment;
@@ -29,6 +30,16 @@ public class TextRenderer {
     protected int color = Theme.INSTANCE.getText();
     protected boolean simulate;
     protected float lastWidth = 0, lastHeight = 0;
+    protected boolean batched = false;
+
+    private static final int WIDTH_CACHE_SIZE = 2048;
+    private static final Map<String, Integer> widthCache = new LinkedHashMap<String, Integer>(256, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > WIDTH_CACHE_SIZE;
+        }
+    };
 
     public void setAlignment(Alignment alignment, float maxWidth) {
         setAlignment(alignment, maxWidth, -1);
@@ -65,6 +76,14 @@ public class TextRenderer {
         this.simulate = simulate;
     }
 
+    /**
+     * Allows this renderer to submit its lines to the current {@link TextRenderBatch} instead of drawing them right
+     * away. Only enable this if nothing else is drawn on top of the text by the same widget.
+     */
+    public void setBatched(boolean batched) {
+        this.batched = batched;
+    }
+
     public void draw(String text) {
         draw(Collections.singletonList(text));
     }
@@ -107,7 +126,7 @@ public class TextRenderer {
         List<Pair<String, Float>> measuredLines = new ArrayList<>();
         for (String line : lines) {
             for (String subLine : wrapLine(line)) {
-                float width = getFontRenderer().getStringWidth(subLine) * scale;
+                float width = getStringWidth(subLine) * scale;
                 measuredLines.add(Pair.of(subLine, width));
             }
         }
@@ -125,7 +144,7 @@ public class TextRenderer {
         }
         if (maxWidth > 0) {
             for (String line : text) {
-                if (maxWidth < getFontRenderer().getStringWidth(line)) {
+                if (maxWidth < getStringWidth(line)) {
                     return false;
                 }
             }
@@ -171,15 +190,25 @@ public class TextRenderer {
 
     protected float draw(String text, float x, float y) {
         if (simulate) {
-            return getFontRenderer().getStringWidth(text);
+            return getStringWidth(text);
+        }
+        TextRenderBatch batch = batched ? TextRenderBatch.getCurrent() : null;
+        if (batch != null) {
+            int width = getStringWidth(text);
+            int x0 = (int) (x / scale), y0 = (int) (y / scale);
+            batch.submit(text, x0, y0, scale, color, shadow, width);
+            // same as the end position FontRenderer#drawString returns
+            return (x0 + width + (shadow ? 1 : 0)) * scale;
         }
         GlStateManager.disableBlend();
         GlStateManager.pushMatrix();
         GlStateManager.scale(scale, scale, 0f);
-        GL11.glDisable(GL11.GL_LIGHTING);
+        GlStateManager.disableLighting();
         int width = getFontRenderer().drawString(text, (int) (x / scale), (int) (y / scale), color, shadow);
-        GL11.glColor4f(1f, 1f, 1f, 1f);
-        GL11.glEnable(GL11.GL_LIGHTING);
+        // font renderer sets color and binds its own textures
+        GlStateManager.resetColor();
+        GlStateManager.resetTextureBinding();
+        GlStateManager.color(1f, 1f, 1f, 1f);
         GlStateManager.popMatrix();
         GlStateManager.enableBlend();
         return width * scale;
@@ -214,4 +243,24 @@ public class TextRenderer {
     public static FontRenderer getFontRenderer() {
         return Minecraft.getMinecraft().fontRenderer;
     }
+
+    /**
+     * Measures text with the default font renderer. Widths are cached until {@link #clearWidthCache()} is called.
+     */
+    @SideOnly(Side.CLIENT)
+    public static int getStringWidth(String text) {
+        Integer width = widthCache.get(text);
+        if (width == null) {
+            width = getFontRenderer().getStringWidth(text);
+            widthCache.put(text, width);
+        }
+        return width;
+    }
+
+    /**
+     * Called when resources are reloaded, since the font might have changed.
+     */
+    public static void clearWidthCache() {
+        widthCache.clear();
+    }
 }
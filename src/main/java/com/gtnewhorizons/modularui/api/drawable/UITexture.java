@@ -3,14 +3,12 @@ package com.gtnewhorizons.modularui.api.drawable;
 import java.util.HashMap;
 import java.util.Map;
 
-import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.util.ResourceLocation;
 
-import org.lwjgl.opengl.GL11;
-
 import com.google.gson.JsonObject;
 import com.gtnewhorizons.modularui.ModularUI;
+import com.gtnewhorizons.modularui.api.GlStateManager;
 import com.gtnewhorizons.modularui.api.math.GuiArea;
 import com.gtnewhorizons.modularui.api.math.Size;
 import com.gtnewhorizons.modularui.common.internal.JsonHelper;
@@ -145,11 +143,11 @@ public class UITexture implements IDrawable {
     public static void draw(ResourceLocation location, float x0, float y0, float width, float height, float u0,
             float v0, float u1, float v1) {
         float x1 = x0 + width, y1 = y0 + height;
-        Minecraft.getMinecraft().renderEngine.bindTexture(location);
+        GlStateManager.bindTexture(location);
+        GlStateManager.disableLighting();
+        GlStateManager.enableAlpha();
         Tessellator tessellator = Tessellator.instance;
         tessellator.startDrawingQuads();
-        GL11.glDisable(GL11.GL_LIGHTING);
-        GL11.glEnable(GL11.GL_ALPHA_TEST);
         tessellator.setTextureUV(u0, v1);
         tessellator.addVertex(x0, y1, 0.0f);
         tessellator.setTextureUV(u1, v1);
@@ -159,7 +157,6 @@ public class UITexture implements IDrawable {
         tessellator.setTextureUV(u0, v0);
         tessellator.addVertex(x0, y0, 0.0f);
         tessellator.draw();
-        GL11.glEnable(GL11.GL_LIGHTING);
     }
 
     public static UITexture ofJson(JsonObject json) {
@@ -84,6 +84,7 @@ public class Circle implements IDrawable {
             tessellator.addVertex(x, y, 0.0f);
         }
         tessellator.draw();
+        GlStateManager.resetColor();
         GlStateManager.shadeModel(7424);
         GlStateManager.disableBlend();
         GlStateManager.enableAlpha();
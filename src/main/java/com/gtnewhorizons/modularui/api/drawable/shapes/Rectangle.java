@@ -189,6 +189,7 @@ public class Rectangle implements IDrawable {
             tessellator.addVertex(x0, y0 + cornerRadius, 0.0f);
         }
         tessellator.draw();
+        GlStateManager.resetColor();
         GlStateManager.shadeModel(7424);
         GlStateManager.disableBlend();
         GlStateManager.enableAlpha();
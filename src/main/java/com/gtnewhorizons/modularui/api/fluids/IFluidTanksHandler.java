@@ -45,6 +45,41 @@ public interface IFluidTanksHandler {
         return ret;
     }
 
+    /**
+     * @return a tank which already holds the fluid and has space left, otherwise an empty tank which accepts the fluid,
+     *         or -1 if no tank can take it
+     */
+    default int findTankFor(Fluid fluid) {
+        if (fluid == null) return -1;
+        int emptyTank = -1;
+        for (int i = 0; i < getTanks(); i++) {
+            Fluid stored = getFluidInTank(i);
+            if (stored == fluid) {
+                if (getTankStoredAmount(i) < getTankCapacity(i)) return i;
+            } else if (stored == null && emptyTank < 0) {
+                FluidStack filled = fill(i, fluid, 1, true);
+                if (filled != null && filled.amount > 0) {
+                    emptyTank = i;
+                }
+            }
+        }
+        return emptyTank;
+    }
+
+    /**
+     * @return amount of the fluid stored in all tanks
+     */
+    default long totalAmount(Fluid fluid) {
+        if (fluid == null) return 0;
+        long amount = 0;
+        for (int i = 0; i < getTanks(); i++) {
+            if (getFluidInTank(i) == fluid) {
+                amount += getTankStoredAmount(i);
+            }
+        }
+        return amount;
+    }
+
     void setFluidInTank(int tank, Fluid fluid, long amount);
 
     default void setFluidInTank(int tank, Fluid fluid) {
@@ -0,0 +1,147 @@
+package com.gtnewhorizons.modularui.api.fluids;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidStack;
+
+/**
+ * Tanks handler for machines with many tanks. Keeps the tanks indexed by the fluid they hold, so
+ * {@link #findTankFor(Fluid)} and {@link #totalAmount(Fluid)} only look at tanks which hold the fluid or are empty.
+ * <p>
+ * The index is updated by {@link #fill}, {@link #drain} and {@link #setFluidInTank}. Tanks which are changed directly,
+ * for example through {@link #getFluidTank}, must be reported with {@link #markDirty(int)}, or with
+ * {@link #invalidate()} after many changes.
+ */
+public class IndexedFluidTanksHandler extends FluidTanksHandler {
+
+    private final Map<Fluid, BitSet> byFluid = new IdentityHashMap<>();
+    private final BitSet empty = new BitSet();
+    private final Fluid[] indexed;
+    private boolean rebuild = false;
+
+    public IndexedFluidTanksHandler(IFluidTankLong tank) {
+        super(tank);
+        this.indexed = new Fluid[getTanks()];
+        rebuild();
+    }
+
+    public IndexedFluidTanksHandler(int tankAmount, long capacity) {
+        super(tankAmount, capacity);
+        this.indexed = new Fluid[getTanks()];
+        rebuild();
+    }
+
+    @Override
+    public FluidStack fill(int tank, Fluid fluid, long amount, boolean simulate) {
+        FluidStack filled = super.fill(tank, fluid, amount, simulate);
+        if (!simulate) {
+            reindex(tank);
+        }
+        return filled;
+    }
+
+    @Override
+    public FluidStack drain(int tank, long amount, boolean simulate) {
+        FluidStack drained = super.drain(tank, amount, simulate);
+        if (!simulate) {
+            reindex(tank);
+        }
+        return drained;
+    }
+
+    @Override
+    public void setFluidInTank(int tank, Fluid fluid, long amount) {
+        super.setFluidInTank(tank, fluid, amount);
+        reindex(tank);
+    }
+
+    /**
+     * Called after a tank was changed directly. Re-indexes the tank.
+     */
+    public void markDirty(int tank) {
+        if (!rebuild) {
+            reindex(tank);
+        }
+    }
+
+    /**
+     * Called after many tanks were changed directly. The index is rebuilt before the next query.
+     */
+    public void invalidate() {
+        this.rebuild = true;
+    }
+
+    @Override
+    public int findTankFor(Fluid fluid) {
+        if (fluid == null) return -1;
+        refresh();
+        BitSet tanks = byFluid.get(fluid);
+        if (tanks != null) {
+            for (int i = tanks.nextSetBit(0); i >= 0; i = tanks.nextSetBit(i + 1)) {
+                if (getTankStoredAmount(i) < getTankCapacity(i)) return i;
+            }
+        }
+        for (int i = empty.nextSetBit(0); i >= 0; i = empty.nextSetBit(i + 1)) {
+            if (fluids.get(i).fill(fluid, 1, false) > 0) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public long totalAmount(Fluid fluid) {
+        if (fluid == null) return 0;
+        refresh();
+        BitSet tanks = byFluid.get(fluid);
+        if (tanks == null) return 0;
+        long amount = 0;
+        for (int i = tanks.nextSetBit(0); i >= 0; i = tanks.nextSetBit(i + 1)) {
+            amount += getTankStoredAmount(i);
+        }
+        return amount;
+    }
+
+    private void rebuild() {
+        rebuild = false;
+        byFluid.clear();
+        empty.clear();
+        for (int i = 0; i < indexed.length; i++) {
+            index(i, getFluidInTank(i));
+        }
+    }
+
+    private void refresh() {
+        if (rebuild) {
+            rebuild();
+        }
+    }
+
+    private void reindex(int tank) {
+        Fluid fluid = getFluidInTank(tank);
+        Fluid old = indexed[tank];
+        if (fluid == old) return;
+        if (old == null) {
+            empty.clear(tank);
+        } else {
+            BitSet tanks = byFluid.get(old);
+            if (tanks != null) {
+                tanks.clear(tank);
+                if (tanks.isEmpty()) {
+                    byFluid.remove(old);
+                }
+            }
+        }
+        index(tank, fluid);
+    }
+
+    private void index(int tank, Fluid fluid) {
+        indexed[tank] = fluid;
+        if (fluid == null) {
+            empty.set(tank);
+        } else {
+            byFluid.computeIfAbsent(fluid, f -> new BitSet()).set(tank);
+        }
+    }
+}
@@ -59,6 +59,28 @@ public class ListFluidHandler implements IFluidTanksHandler {
         return result.getLeft().getTankStoredAmount(result.getRight());
     }
 
+    @Override
+    public int findTankFor(Fluid fluid) {
+        int offset = 0;
+        for (IFluidTanksHandler fluidHandler : fluidHandlers) {
+            int found = fluidHandler.findTankFor(fluid);
+            if (found >= 0) {
+                return offset + found;
+            }
+            offset += fluidHandler.getTanks();
+        }
+        return -1;
+    }
+
+    @Override
+    public long totalAmount(Fluid fluid) {
+        long amount = 0;
+        for (IFluidTanksHandler fluidHandler : fluidHandlers) {
+            amount += fluidHandler.totalAmount(fluid);
+        }
+        return amount;
+    }
+
     protected Pair<? extends IFluidTanksHandler, Integer> findFluidHandler(int tank) {
         int searching = 0;
         int amountOfTanks;
@@ -0,0 +1,370 @@
+package com.gtnewhorizons.modularui.api.forge;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraftforge.common.util.Constants;
+
+/**
+ * Item handler for very large inventories. Item id, damage and amount of each slot are stored in primitive arrays and
+ * tags in a side table, so empty slots cost only a few bytes.
+ * <p>
+ * {@link #getStackInSlot} materializes a stack on first access and keeps it as a view of the slot, because callers are
+ * allowed to modify the returned stack. Views are written back when the handler is saved and written back and dropped
+ * by {@link #flushViews()}, which is called when a container showing the handler is closed. Bulk reads like
+ * {@link #copyStacks} don't create views.
+ */
+public class CompactItemStackHandler implements IItemHandlerModifiable, INBTSerializable<NBTTagCompound> {
+
+    private int[] ids;
+    private int[] damages;
+    private int[] amounts;
+    private final Map<Integer, NBTTagCompound> tags = new HashMap<>();
+    private final Map<Integer, ItemStack> views = new HashMap<>();
+    private final SlotVersions versions = new SlotVersions();
+
+    public CompactItemStackHandler() {
+        this(1);
+    }
+
+    public CompactItemStackHandler(int size) {
+        setSize(size);
+    }
+
+    public void setSize(int size) {
+        this.ids = new int[size];
+        this.damages = new int[size];
+        this.amounts = new int[size];
+        this.tags.clear();
+        this.views.clear();
+        this.versions.markAllChanged();
+    }
+
+    @Override
+    public int getSlots() {
+        return this.ids.length;
+    }
+
+    @Override
+    public ItemStack getStackInSlot(int slot) {
+        validateSlotIndex(slot);
+        ItemStack view = this.views.get(slot);
+        if (view == null && this.ids[slot] != 0) {
+            view = materialize(slot, this.amounts[slot]);
+            this.views.put(slot, view);
+        }
+        return view;
+    }
+
+    @Override
+    public void setStackInSlot(int slot, ItemStack stack) {
+        validateSlotIndex(slot);
+        write(slot, stack);
+        if (stack != null) {
+            this.views.put(slot, stack);
+        } else {
+            this.views.remove(slot);
+        }
+        onChanged(slot);
+    }
+
+    @Override
+    public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+        if (stack == null) return null;
+        validateSlotIndex(slot);
+        ItemStack view = this.views.get(slot);
+        int existing = 0;
+        if (view != null) {
+            if (!ItemHandlerHelper.canItemStacksStack(stack, view)) return stack;
+            existing = view.stackSize;
+        } else if (this.ids[slot] != 0) {
+            if (!matches(slot, stack)) return stack;
+            existing = this.amounts[slot];
+        }
+
+        int limit = getStackLimit(slot, stack) - existing;
+        if (limit <= 0) return stack;
+        boolean reachedLimit = stack.stackSize > limit;
+        if (!simulate) {
+            int moved = reachedLimit ? limit : stack.stackSize;
+            if (view != null) {
+                view.stackSize += moved;
+                this.amounts[slot] = view.stackSize;
+            } else if (this.ids[slot] != 0) {
+                this.amounts[slot] += moved;
+            } else {
+                write(slot, stack);
+                this.amounts[slot] = moved;
+            }
+            onChanged(slot);
+        }
+        return reachedLimit ? ItemHandlerHelper.copyStackWithSize(stack, stack.stackSize - limit) : null;
+    }
+
+    @Override
+    public ItemStack extractItem(int slot, int amount, boolean simulate) {
+        if (amount == 0) return null;
+        validateSlotIndex(slot);
+        ItemStack view = this.views.get(slot);
+        if (view == null && this.ids[slot] == 0) return null;
+        int existing = view != null ? view.stackSize : this.amounts[slot];
+        ItemStack prototype = view != null ? view : materialize(slot, existing);
+
+        int toExtract = Math.min(amount, prototype.getMaxStackSize());
+        if (existing <= toExtract) {
+            if (!simulate) {
+                write(slot, null);
+                this.views.remove(slot);
+                onChanged(slot);
+            }
+            return prototype;
+        }
+        if (!simulate) {
+            if (view != null) {
+                // same as ItemStackHandler, the old stack is replaced instead of modified
+                this.views.put(slot, ItemHandlerHelper.copyStackWithSize(view, existing - toExtract));
+            }
+            this.amounts[slot] = existing - toExtract;
+            onChanged(slot);
+        }
+        return ItemHandlerHelper.copyStackWithSize(prototype, toExtract);
+    }
+
+    @Override
+    public int getSlotLimit(int slot) {
+        return 64;
+    }
+
+    protected int getStackLimit(int slot, ItemStack stack) {
+        return Math.min(getSlotLimit(slot), stack.getMaxStackSize());
+    }
+
+    @Override
+    public boolean isItemValid(int slot, ItemStack stack) {
+        return true;
+    }
+
+    /**
+     * Doesn't create views, so polling all slots doesn't keep a stack for every slot. Slots without a view are returned
+     * as new stacks, which are not views and must not be modified.
+     */
+    @Override
+    public void forEachStack(int from, int to, StackVisitor visitor) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        for (int i = from; i < to; i++) {
+            visitor.visit(i, peek(i));
+        }
+    }
+
+    /**
+     * Doesn't create views, see {@link #forEachStack}.
+     */
+    @Override
+    public void copyStacks(int from, int to, ItemStack[] dst, int dstPos) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        for (int i = from; i < to; i++) {
+            dst[dstPos + i - from] = peek(i);
+        }
+    }
+
+    private ItemStack peek(int slot) {
+        ItemStack view = this.views.get(slot);
+        if (view != null || this.ids[slot] == 0) return view;
+        return materialize(slot, this.amounts[slot]);
+    }
+
+    @Override
+    public long getSlotVersion(int slot) {
+        return this.versions.get(slot);
+    }
+
+    @Override
+    public Runnable addSlotChangeListener(IntConsumer listener) {
+        return this.versions.addListener(listener);
+    }
+
+    @Override
+    public void collectChangedSlots(int from, int to, long[] known, BitSet changed, int offset) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        this.versions.collectChanged(from, to, known, changed, offset);
+    }
+
+    /**
+     * @return true if the slot is empty, without materializing a stack
+     */
+    public boolean isSlotEmpty(int slot) {
+        validateSlotIndex(slot);
+        ItemStack view = this.views.get(slot);
+        return view != null ? view.stackSize <= 0 : this.ids[slot] == 0;
+    }
+
+    /**
+     * @return amount in the slot, without materializing a stack
+     */
+    public int getAmount(int slot) {
+        validateSlotIndex(slot);
+        ItemStack view = this.views.get(slot);
+        return view != null ? view.stackSize : this.amounts[slot];
+    }
+
+    /**
+     * Writes all materialized stacks back into the arrays and drops them. Stacks returned before are no longer views
+     * of their slot afterwards.
+     */
+    public void flushViews() {
+        writeBackViews();
+        this.views.clear();
+    }
+
+    /**
+     * Writes all materialized stacks back into the arrays. Emptied views are dropped, all others stay attached.
+     */
+    private void writeBackViews() {
+        Iterator<Map.Entry<Integer, ItemStack>> it = this.views.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, ItemStack> entry = it.next();
+            write(entry.getKey(), entry.getValue());
+            if (entry.getValue().stackSize <= 0) {
+                it.remove();
+            }
+        }
+    }
+
+    private boolean matches(int slot, ItemStack stack) {
+        if (Item.getIdFromItem(stack.getItem()) != this.ids[slot] || stack.getItemDamage() != this.damages[slot]) {
+            return false;
+        }
+        NBTTagCompound tag = this.tags.get(slot);
+        return stack.hasTagCompound() ? stack.getTagCompound().equals(tag) : tag == null;
+    }
+
+    private ItemStack materialize(int slot, int amount) {
+        ItemStack stack = new ItemStack(Item.getItemById(this.ids[slot]), amount, this.damages[slot]);
+        stack.setTagCompound(this.tags.get(slot));
+        return stack;
+    }
+
+    private void write(int slot, ItemStack stack) {
+        if (stack == null || stack.stackSize <= 0 || stack.getItem() == null) {
+            this.ids[slot] = 0;
+            this.damages[slot] = 0;
+            this.amounts[slot] = 0;
+            this.tags.remove(slot);
+            return;
+        }
+        this.ids[slot] = Item.getIdFromItem(stack.getItem());
+        this.damages[slot] = stack.getItemDamage();
+        this.amounts[slot] = stack.stackSize;
+        if (stack.hasTagCompound()) {
+            this.tags.put(slot, stack.getTagCompound());
+        } else {
+            this.tags.remove(slot);
+        }
+    }
+
+    private void onChanged(int slot) {
+        this.versions.markChanged(slot);
+        onContentsChanged(slot);
+    }
+
+    /**
+     * Writes all slots as a few int arrays instead of one compound per stack. Stacks handed out before stay views of
+     * their slot.
+     */
+    @Override
+    public NBTTagCompound serializeNBT() {
+        writeBackViews();
+        int size = getSlots();
+        int[] slots = new int[size];
+        int[] ids = new int[size];
+        int[] damages = new int[size];
+        int[] amounts = new int[size];
+        NBTTagList tagList = new NBTTagList();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (this.ids[i] == 0) continue;
+            ids[count] = this.ids[i];
+            damages[count] = this.damages[i];
+            amounts[count] = this.amounts[i];
+            slots[count++] = i;
+            NBTTagCompound tag = this.tags.get(i);
+            if (tag != null) {
+                NBTTagCompound entry = new NBTTagCompound();
+                entry.setInteger("Slot", i);
+                entry.setTag("Tag", tag);
+                tagList.appendTag(entry);
+            }
+        }
+
+        NBTTagCompound nbt = new NBTTagCompound();
+        nbt.setInteger("Size", size);
+        nbt.setIntArray("Slots", Arrays.copyOf(slots, count));
+        nbt.setIntArray("Ids", Arrays.copyOf(ids, count));
+        nbt.setIntArray("Damages", Arrays.copyOf(damages, count));
+        nbt.setIntArray("Amounts", Arrays.copyOf(amounts, count));
+        nbt.setTag("Tags", tagList);
+        return nbt;
+    }
+
+    /**
+     * Also reads the format of {@link ItemStackHandler}, so existing inventories can be migrated.
+     */
+    @Override
+    public void deserializeNBT(NBTTagCompound nbt) {
+        setSize(nbt.hasKey("Size", Constants.NBT.TAG_INT) ? nbt.getInteger("Size") : getSlots());
+        if (nbt.hasKey("Items", Constants.NBT.TAG_LIST)) {
+            NBTTagList tagList = nbt.getTagList("Items", Constants.NBT.TAG_COMPOUND);
+            for (int i = 0; i < tagList.tagCount(); i++) {
+                NBTTagCompound itemTags = tagList.getCompoundTagAt(i);
+                int slot = itemTags.getInteger("Slot");
+                if (slot >= 0 && slot < getSlots()) {
+                    ItemStack loadedStack = ItemStack.loadItemStackFromNBT(itemTags);
+                    if (loadedStack != null && itemTags.hasKey("Count", Constants.NBT.TAG_INT)) {
+                        loadedStack.stackSize = itemTags.getInteger("Count");
+                    }
+                    write(slot, loadedStack);
+                }
+            }
+        } else {
+            int[] slots = nbt.getIntArray("Slots");
+            int[] ids = nbt.getIntArray("Ids");
+            int[] damages = nbt.getIntArray("Damages");
+            int[] amounts = nbt.getIntArray("Amounts");
+            int count = Math.min(Math.min(slots.length, ids.length), Math.min(damages.length, amounts.length));
+            for (int i = 0; i < count; i++) {
+                int slot = slots[i];
+                if (slot < 0 || slot >= getSlots() || Item.getItemById(ids[i]) == null) continue;
+                this.ids[slot] = ids[i];
+                this.damages[slot] = damages[i];
+                this.amounts[slot] = amounts[i];
+            }
+            NBTTagList tagList = nbt.getTagList("Tags", Constants.NBT.TAG_COMPOUND);
+            for (int i = 0; i < tagList.tagCount(); i++) {
+                NBTTagCompound entry = tagList.getCompoundTagAt(i);
+                int slot = entry.getInteger("Slot");
+                if (slot >= 0 && slot < getSlots() && this.ids[slot] != 0) {
+                    this.tags.put(slot, entry.getCompoundTag("Tag"));
+                }
+            }
+        }
+        onLoad();
+    }
+
+    protected void validateSlotIndex(int slot) {
+        if (slot < 0 || slot >= this.ids.length) {
+            throw new RuntimeException("Slot " + slot + " not in valid range - [0," + this.ids.length + ")");
+        }
+    }
+
+    protected void onLoad() {}
+
+    protected void onContentsChanged(int slot) {}
+}
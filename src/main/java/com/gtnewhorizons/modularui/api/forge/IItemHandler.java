@@ -5,7 +5,10 @@ package com.gtnewhorizons.modularui.api.forge;
 //
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 import javax.annotation.Nullable;
 
@@ -14,6 +17,11 @@ import net.minecraft.item.ItemStack;
 
 public interface IItemHandler {
 
+    /**
+     * Returned by {@link #getSlotVersion} if the handler doesn't track changes.
+     */
+    long UNVERSIONED = -1;
+
     int getSlots();
 
     ItemStack getStackInSlot(int var1);
@@ -31,13 +39,75 @@ public interface IItemHandler {
     }
 
     default List<ItemStack> getStacks() {
-        List<ItemStack> ret = new ArrayList<>();
-        for (int i = 0; i < getSlots(); i++) {
-            ret.add(getStackInSlot(i));
-        }
+        ItemStack[] stacks = new ItemStack[getSlots()];
+        copyStacks(0, stacks.length, stacks, 0);
+        List<ItemStack> ret = new ArrayList<>(stacks.length);
+        Collections.addAll(ret, stacks);
         return ret;
     }
 
+    /**
+     * Visits the stacks of all slots in [from, to) in order. Handlers and wrappers override this to skip the per-slot
+     * lookup and bounds checks of {@link #getStackInSlot}. Like all range methods, this throws if the range is not
+     * within [0, {@link #getSlots()}].
+     */
+    default void forEachStack(int from, int to, StackVisitor visitor) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        for (int i = from; i < to; i++) {
+            visitor.visit(i, getStackInSlot(i));
+        }
+    }
+
+    /**
+     * Copies the stacks of all slots in [from, to) into the array starting at dstPos. The stacks are not copied.
+     */
+    default void copyStacks(int from, int to, ItemStack[] dst, int dstPos) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        for (int i = from; i < to; i++) {
+            dst[dstPos + i - from] = getStackInSlot(i);
+        }
+    }
+
+    /**
+     * Compares the versions of all slots in [from, to) with the known versions at offset + slot - from. Sets the bit of
+     * every slot whose version differs or which is {@link #UNVERSIONED} in changed and stores the current versions in
+     * known.
+     */
+    default void collectChangedSlots(int from, int to, long[] known, BitSet changed, int offset) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        for (int i = from; i < to; i++) {
+            int pos = offset + i - from;
+            long version = getSlotVersion(i);
+            if (version == UNVERSIONED || version != known[pos]) {
+                changed.set(pos);
+            }
+            known[pos] = version;
+        }
+    }
+
+    /**
+     * Counter which changes every time the content of the slot is changed through this handler. Lets callers skip slots
+     * which did not change without comparing stacks. Changes made to the returned stacks directly or to the backing
+     * storage behind the handler's back are not counted, so this can only be used together with a cheap identity check.
+     *
+     * @return slot version or {@link #UNVERSIONED} if this handler doesn't track changes
+     */
+    default long getSlotVersion(int slot) {
+        return UNVERSIONED;
+    }
+
+    /**
+     * Registers a listener which is called whenever a slot is changed through this handler. Like
+     * {@link #getSlotVersion}, changes made behind the handler's back are not reported.
+     *
+     * @param listener called with the slot index or -1 if all slots changed
+     * @return runnable which removes the listener or null if this handler doesn't report changes
+     */
+    @Nullable
+    default Runnable addSlotChangeListener(IntConsumer listener) {
+        return null;
+    }
+
     /**
      * Get the inventory this slot originates from. Only supposed to be an identifier. Avoid callings methods on this
      * inventory directly beyond comparing its identity.
@@ -49,4 +119,10 @@ public interface IItemHandler {
     default IInventory getSourceInventory() {
         return null;
     }
+
+    @FunctionalInterface
+    interface StackVisitor {
+
+        void visit(int slot, ItemStack stack);
+    }
 }
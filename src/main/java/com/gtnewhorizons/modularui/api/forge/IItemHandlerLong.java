@@ -0,0 +1,10 @@
+package com.gtnewhorizons.modularui.api.forge;
+
+/**
+ * Item handler whose slots can hold more than {@link Integer#MAX_VALUE} items. The stacks it returns have their amount
+ * capped to int, the real amount is available from {@link #getAmountLong}.
+ */
+public interface IItemHandlerLong extends IItemHandlerModifiable {
+
+    long getAmountLong(int slot);
+}
@@ -0,0 +1,66 @@
+package com.gtnewhorizons.modularui.api.forge;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.PacketBuffer;
+
+import com.gtnewhorizons.modularui.common.internal.network.NetworkUtils;
+
+/**
+ * Item counterpart of {@link com.gtnewhorizons.modularui.api.fluids.IFluidTankLong}. Holds a single kind of item with a
+ * long amount.
+ */
+public interface IItemSlotLong {
+
+    /**
+     * @return stack with the amount capped to int. Changes to its stack size are applied to the stored amount.
+     */
+    @Nullable
+    ItemStack getItemStack();
+
+    long getAmountLong();
+
+    long getCapacityLong();
+
+    /**
+     * @param stack    item to insert, its stack size is ignored
+     * @param amount   amount to insert
+     * @param doInsert should it update the slot
+     * @return amount inserted
+     */
+    long insert(ItemStack stack, long amount, boolean doInsert);
+
+    /**
+     * @param amount    amount to extract
+     * @param doExtract should it update the slot
+     * @return stack with the extracted amount, capped to int
+     */
+    @Nullable
+    ItemStack extract(long amount, boolean doExtract);
+
+    void setItem(@Nullable ItemStack stack, long amount);
+
+    IItemSlotLong copy();
+
+    /**
+     * @return true if the other slot holds the same item and amount
+     */
+    boolean isItemEqual(@Nullable IItemSlotLong other);
+
+    void saveToNBT(NBTTagCompound nbt);
+
+    void loadFromNBT(@Nullable NBTTagCompound nbt);
+
+    static void writeToBuffer(PacketBuffer buffer, IItemSlotLong slot) {
+        ItemStack stack = slot.getItemStack();
+        NetworkUtils.writeItemStack(buffer, stack == null ? null : ItemHandlerHelper.copyStackWithSize(stack, 1));
+        NetworkUtils.writeVarLong(buffer, slot.getAmountLong());
+    }
+
+    static void readFromBuffer(PacketBuffer buffer, IItemSlotLong slot) {
+        ItemStack stack = NetworkUtils.readItemStack(buffer);
+        slot.setItem(stack, NetworkUtils.readVarLong(buffer));
+    }
+}
@@ -0,0 +1,293 @@
+package com.gtnewhorizons.modularui.api.forge;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.inventory.IInventory;
+import net.minecraft.item.ItemStack;
+
+/**
+ * Decorates an item handler with an index of the slots holding each item and of the empty slots, so that
+ * {@link #insertItem(ItemStack, boolean)}, {@link #extractItem(ItemStack, int, boolean)} and {@link #count} only visit
+ * slots which can take or hold the item.
+ * <p>
+ * Changes made through this decorator update the index right away. Changes made to the wrapped handler are picked up
+ * from its slot change listener. Handlers without a listener, like {@link InvWrapper}, and stacks which are modified in
+ * place can't be observed, their owner must call {@link #markDirty(int)} or {@link #invalidate()} after such changes.
+ * Otherwise lookups can miss those slots. Call {@link #dispose()} when the decorator is no longer used to remove its
+ * listener.
+ */
+public class IndexedItemHandler implements IItemHandlerModifiable {
+
+    private final IItemHandlerModifiable handler;
+    private final Map<ItemKey, BitSet> byItem = new HashMap<>();
+    private final BitSet empty = new BitSet();
+    private final BitSet dirty = new BitSet();
+    private final ItemKey lookupKey = new ItemKey();
+    private final ItemKey checkKey = new ItemKey();
+    private final Runnable listenerRemover;
+    private ItemKey[] keys = new ItemKey[0];
+    private boolean rebuild = true;
+
+    public IndexedItemHandler(IItemHandlerModifiable handler) {
+        this.handler = handler;
+        this.listenerRemover = handler.addSlotChangeListener(slot -> {
+            if (slot < 0) {
+                invalidate();
+            } else {
+                markDirty(slot);
+            }
+        });
+    }
+
+    public IItemHandlerModifiable getHandler() {
+        return handler;
+    }
+
+    /**
+     * @return true if changes to the wrapped handler are picked up automatically
+     */
+    public boolean isObserving() {
+        return listenerRemover != null;
+    }
+
+    /**
+     * Called after a slot of the wrapped handler was changed without this decorator or the handler noticing. The slot is
+     * indexed again before the next lookup.
+     */
+    public void markDirty(int slot) {
+        this.dirty.set(slot);
+    }
+
+    /**
+     * Called after many slots of the wrapped handler were changed. The index is rebuilt before the next lookup.
+     */
+    public void invalidate() {
+        this.rebuild = true;
+    }
+
+    public void dispose() {
+        if (listenerRemover != null) {
+            listenerRemover.run();
+        }
+    }
+
+    /**
+     * Inserts the stack into slots which already hold the item first and then into empty slots.
+     *
+     * @return the remainder or null if everything was inserted
+     */
+    @Nullable
+    public ItemStack insertItem(ItemStack stack, boolean simulate) {
+        if (stack == null) return null;
+        refresh();
+        if (stack.isStackable()) {
+            BitSet candidates = byItem.get(lookupKey.set(stack));
+            if (candidates != null) {
+                for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                    stack = insertInto(i, stack, simulate);
+                    if (stack == null) return null;
+                }
+            }
+        }
+        for (int i = empty.nextSetBit(0); i >= 0; i = empty.nextSetBit(i + 1)) {
+            stack = insertInto(i, stack, simulate);
+            if (stack == null) return null;
+        }
+        return stack;
+    }
+
+    private ItemStack insertInto(int slot, ItemStack stack, boolean simulate) {
+        ItemStack remainder = handler.insertItem(slot, stack, simulate);
+        if (!simulate && remainder != stack) {
+            reindex(slot);
+        }
+        return remainder;
+    }
+
+    /**
+     * Extracts up to the amount of items which can stack with the filter from all slots.
+     *
+     * @return the extracted stack or null if nothing was extracted
+     */
+    @Nullable
+    public ItemStack extractItem(ItemStack filter, int amount, boolean simulate) {
+        if (filter == null || amount <= 0) return null;
+        refresh();
+        BitSet candidates = byItem.get(lookupKey.set(filter));
+        if (candidates == null) return null;
+        ItemStack result = null;
+        // copy, extracting can empty slots and change the candidates
+        BitSet slots = (BitSet) candidates.clone();
+        for (int i = slots.nextSetBit(0); i >= 0 && amount > 0; i = slots.nextSetBit(i + 1)) {
+            if (!ItemHandlerHelper.canItemStacksStack(filter, handler.getStackInSlot(i))) continue;
+            ItemStack extracted = handler.extractItem(i, amount, simulate);
+            if (extracted == null || extracted.stackSize <= 0) continue;
+            if (!simulate) {
+                reindex(i);
+            }
+            amount -= extracted.stackSize;
+            if (result == null) {
+                result = extracted.copy();
+            } else {
+                result.stackSize += extracted.stackSize;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return total amount of items which can stack with the filter
+     */
+    public long count(ItemStack filter) {
+        if (filter == null) return 0;
+        refresh();
+        BitSet candidates = byItem.get(lookupKey.set(filter));
+        if (candidates == null) return 0;
+        long count = 0;
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            ItemStack stack = handler.getStackInSlot(i);
+            if (ItemHandlerHelper.canItemStacksStack(filter, stack)) {
+                count += stack.stackSize;
+            }
+        }
+        return count;
+    }
+
+    private void refresh() {
+        int size = handler.getSlots();
+        if (rebuild || size != keys.length) {
+            rebuild = false;
+            dirty.clear();
+            byItem.clear();
+            empty.clear();
+            keys = new ItemKey[size];
+            handler.forEachStack(0, size, this::index);
+        } else {
+            for (int i = dirty.nextSetBit(0); i >= 0 && i < size; i = dirty.nextSetBit(i + 1)) {
+                reindex(i);
+            }
+            dirty.clear();
+        }
+    }
+
+    private void reindex(int slot) {
+        if (slot < keys.length) {
+            reindex(slot, handler.getStackInSlot(slot));
+        }
+    }
+
+    private void reindex(int slot, ItemStack stack) {
+        // the key is computed again, the stack may have been emptied or its tag changed in place
+        ItemKey key = keys[slot];
+        if (isEmpty(stack) ? key == null : key != null && key.equals(checkKey.set(stack))) return;
+        if (key == null) {
+            empty.clear(slot);
+        } else {
+            BitSet bits = byItem.get(key);
+            if (bits != null) {
+                bits.clear(slot);
+                if (bits.isEmpty()) {
+                    byItem.remove(key);
+                }
+            }
+        }
+        index(slot, stack);
+    }
+
+    private static boolean isEmpty(ItemStack stack) {
+        return stack == null || stack.stackSize <= 0;
+    }
+
+    private void index(int slot, ItemStack stack) {
+        if (isEmpty(stack)) {
+            keys[slot] = null;
+            empty.set(slot);
+            return;
+        }
+        ItemKey key = ItemKey.of(stack);
+        keys[slot] = key;
+        byItem.computeIfAbsent(key, k -> new BitSet()).set(slot);
+    }
+
+    @Override
+    public int getSlots() {
+        return handler.getSlots();
+    }
+
+    @Override
+    public ItemStack getStackInSlot(int slot) {
+        return handler.getStackInSlot(slot);
+    }
+
+    @Nullable
+    @Override
+    public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+        ItemStack remainder = handler.insertItem(slot, stack, simulate);
+        if (!simulate) {
+            reindex(slot);
+        }
+        return remainder;
+    }
+
+    @Nullable
+    @Override
+    public ItemStack extractItem(int slot, int amount, boolean simulate) {
+        ItemStack extracted = handler.extractItem(slot, amount, simulate);
+        if (!simulate) {
+            reindex(slot);
+        }
+        return extracted;
+    }
+
+    @Override
+    public void setStackInSlot(int slot, ItemStack stack) {
+        handler.setStackInSlot(slot, stack);
+        reindex(slot);
+    }
+
+    @Override
+    public int getSlotLimit(int slot) {
+        return handler.getSlotLimit(slot);
+    }
+
+    @Override
+    public boolean isItemValid(int slot, ItemStack stack) {
+        return handler.isItemValid(slot, stack);
+    }
+
+    @Override
+    public long getSlotVersion(int slot) {
+        return handler.getSlotVersion(slot);
+    }
+
+    @Override
+    public void forEachStack(int from, int to, StackVisitor visitor) {
+        handler.forEachStack(from, to, visitor);
+    }
+
+    @Override
+    public void copyStacks(int from, int to, ItemStack[] dst, int dstPos) {
+        handler.copyStacks(from, to, dst, dstPos);
+    }
+
+    @Override
+    public void collectChangedSlots(int from, int to, long[] known, BitSet changed, int offset) {
+        handler.collectChangedSlots(from, to, known, changed, offset);
+    }
+
+    @Override
+    public Runnable addSlotChangeListener(IntConsumer listener) {
+        return handler.addSlotChangeListener(listener);
+    }
+
+    @Nullable
+    @Override
+    public IInventory getSourceInventory() {
+        return handler.getSourceInventory();
+    }
+}
@@ -1,5 +1,6 @@
 package com.gtnewhorizons.modularui.api.forge;
 
+import java.util.BitSet;
 import java.util.Objects;
 
 import net.minecraft.inventory.IInventory;
@@ -10,6 +11,7 @@ import org.jetbrains.annotations.NotNull;
 public class InvWrapper implements IItemHandlerModifiable {
 
     private final IInventory inv;
+    private final SlotVersions versions = new SlotVersions();
 
     public InvWrapper(IInventory inv) {
         this.inv = Objects.requireNonNull(inv);
@@ -62,6 +64,7 @@ public class InvWrapper implements IItemHandlerModifiable {
                     copy.stackSize += stackInSlot.stackSize;
                     getSourceInventory().setInventorySlotContents(slot, copy);
                     getSourceInventory().markDirty();
+                    versions.markChanged(slot);
                 }
 
                 return null;
@@ -73,6 +76,7 @@ public class InvWrapper implements IItemHandlerModifiable {
                     copy.stackSize += stackInSlot.stackSize;
                     getSourceInventory().setInventorySlotContents(slot, copy);
                     getSourceInventory().markDirty();
+                    versions.markChanged(slot);
                 } else {
                     stack.stackSize -= m;
                 }
@@ -88,6 +92,7 @@ public class InvWrapper implements IItemHandlerModifiable {
                 if (!simulate) {
                     getSourceInventory().setInventorySlotContents(slot, stack.splitStack(m));
                     getSourceInventory().markDirty();
+                    versions.markChanged(slot);
                 } else {
                     stack.stackSize -= m;
                 }
@@ -96,6 +101,7 @@ public class InvWrapper implements IItemHandlerModifiable {
                 if (!simulate) {
                     getSourceInventory().setInventorySlotContents(slot, stack);
                     getSourceInventory().markDirty();
+                    versions.markChanged(slot);
                 }
                 return null;
             }
@@ -123,6 +129,7 @@ public class InvWrapper implements IItemHandlerModifiable {
 
             ItemStack decrStackSize = getSourceInventory().decrStackSize(slot, m);
             getSourceInventory().markDirty();
+            versions.markChanged(slot);
             return decrStackSize;
         }
     }
@@ -130,6 +137,7 @@ public class InvWrapper implements IItemHandlerModifiable {
     @Override
     public void setStackInSlot(int slot, ItemStack stack) {
         getSourceInventory().setInventorySlotContents(slot, stack);
+        versions.markChanged(slot);
     }
 
     @Override
@@ -142,6 +150,37 @@ public class InvWrapper implements IItemHandlerModifiable {
         return getSourceInventory().isItemValidForSlot(slot, stack);
     }
 
+    @Override
+    public long getSlotVersion(int slot) {
+        return versions.get(slot);
+    }
+
+    @Override
+    public void forEachStack(int from, int to, StackVisitor visitor) {
+        IInventory inv = getSourceInventory();
+        ItemHandlerHelper.validateSlotRange(from, to, inv.getSizeInventory());
+        for (int i = from; i < to; i++) {
+            visitor.visit(i, inv.getStackInSlot(i));
+        }
+    }
+
+    @Override
+    public void copyStacks(int from, int to, ItemStack[] dst, int dstPos) {
+        IInventory inv = getSourceInventory();
+        ItemHandlerHelper.validateSlotRange(from, to, inv.getSizeInventory());
+        for (int i = from; i < to; i++) {
+            dst[dstPos + i - from] = inv.getStackInSlot(i);
+        }
+    }
+
+    @Override
+    public void collectChangedSlots(int from, int to, long[] known, BitSet changed, int offset) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        versions.collectChanged(from, to, known, changed, offset);
+    }
+
+    // no slot change listener, the inventory is usually modified directly instead of through this wrapper
+
     @NotNull
     @Override
     public IInventory getSourceInventory() {
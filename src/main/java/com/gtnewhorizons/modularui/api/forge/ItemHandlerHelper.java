@@ -16,6 +16,18 @@ public class ItemHandlerHelper {
 
     public ItemHandlerHelper() {}
 
+    /**
+     * Checks the range of a bulk access like {@link IItemHandler#copyStacks}. Every handler throws for ranges which are
+     * not within [0, slots], instead of clamping them.
+     */
+    public static void validateSlotRange(int from, int to, int slots) {
+        if (from < 0 || to > slots || from > to) {
+            throw new RuntimeException(
+                    "Slot range [" + from + "," + to + ") not valid - bounds must be ordered and within [0," + slots
+                            + "]");
+        }
+    }
+
     public static ItemStack insertItem(IItemHandler dest, ItemStack stack, boolean simulate) {
         if (dest != null && stack != null) {
             for (int i = 0; i < dest.getSlots(); ++i) {
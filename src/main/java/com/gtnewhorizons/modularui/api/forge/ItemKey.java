@@ -0,0 +1,42 @@
+package com.gtnewhorizons.modularui.api.forge;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+/**
+ * Hash key of an item made of item, damage (only for items with subtypes) and tag hash. Two stacks which can stack
+ * always have the same key, but stacks with the same key still need to be checked with
+ * {@link ItemHandlerHelper#canItemStacksStack}.
+ * <p>
+ * Keys are mutable, so a single key can be reused for lookups. Keys must not be changed while they are in a map.
+ */
+public class ItemKey {
+
+    private Item item;
+    private int damage;
+    private int tagHash;
+
+    public static ItemKey of(ItemStack stack) {
+        return new ItemKey().set(stack);
+    }
+
+    public ItemKey set(ItemStack stack) {
+        this.item = stack.getItem();
+        this.damage = stack.getHasSubtypes() ? stack.getItemDamage() : 0;
+        this.tagHash = stack.hasTagCompound() ? stack.getTagCompound().hashCode() : 0;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ItemKey)) return false;
+        ItemKey other = (ItemKey) o;
+        return item == other.item && damage == other.damage && tagHash == other.tagHash;
+    }
+
+    @Override
+    public int hashCode() {
+        return (System.identityHashCode(item) * 31 + damage) * 31 + tagHash;
+    }
+}
@@ -0,0 +1,136 @@
+package com.gtnewhorizons.modularui.api.forge;
+
+import static com.google.common.primitives.Ints.saturatedCast;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * An item slot with long capacity and stored amount.
+ */
+public class ItemSlotLong implements IItemSlotLong {
+
+    private ItemStack internal;
+    private long storedAmount;
+    private long capacity;
+    private int lastAmountInStack;
+
+    public ItemSlotLong(@Nullable ItemStack stack, long capacity, long amount) {
+        this.capacity = capacity;
+        setItem(stack, amount);
+    }
+
+    public ItemSlotLong(long capacity) {
+        this(null, capacity, 0);
+    }
+
+    @Override
+    public ItemStack getItemStack() {
+        if (internal == null) return null;
+        if (internal.stackSize != lastAmountInStack) {
+            storedAmount -= lastAmountInStack - internal.stackSize;
+        }
+        if (storedAmount <= 0) {
+            setItem(null, 0);
+            return null;
+        }
+        internal.stackSize = saturatedCast(storedAmount);
+        lastAmountInStack = internal.stackSize;
+        return internal;
+    }
+
+    @Override
+    public long getAmountLong() {
+        getItemStack();
+        return storedAmount;
+    }
+
+    @Override
+    public long getCapacityLong() {
+        return capacity;
+    }
+
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public long insert(ItemStack stack, long amount, boolean doInsert) {
+        if (stack == null || amount <= 0) return 0;
+        ItemStack current = getItemStack();
+        if (current != null && !ItemHandlerHelper.canItemStacksStack(stack, current)) return 0;
+        long inserted = Math.min(capacity - storedAmount, amount);
+        if (inserted <= 0) return 0;
+        if (doInsert) {
+            if (current == null) {
+                setItem(stack, inserted);
+            } else {
+                storedAmount += inserted;
+                getItemStack();
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public ItemStack extract(long amount, boolean doExtract) {
+        ItemStack current = getItemStack();
+        if (current == null || amount <= 0) return null;
+        long extracted = Math.min(Integer.MAX_VALUE, Math.min(storedAmount, amount));
+        ItemStack result = ItemHandlerHelper.copyStackWithSize(current, (int) extracted);
+        if (doExtract) {
+            storedAmount -= extracted;
+            getItemStack();
+        }
+        return result;
+    }
+
+    @Override
+    public void setItem(@Nullable ItemStack stack, long amount) {
+        if (stack == null || amount <= 0) {
+            internal = null;
+            storedAmount = 0;
+            lastAmountInStack = 0;
+            return;
+        }
+        storedAmount = amount;
+        internal = ItemHandlerHelper.copyStackWithSize(stack, saturatedCast(amount));
+        lastAmountInStack = internal.stackSize;
+    }
+
+    @Override
+    public ItemSlotLong copy() {
+        return new ItemSlotLong(getItemStack(), capacity, storedAmount);
+    }
+
+    @Override
+    public boolean isItemEqual(@Nullable IItemSlotLong other) {
+        if (other == null || getAmountLong() != other.getAmountLong()) return false;
+        ItemStack stack = getItemStack(), otherStack = other.getItemStack();
+        if (stack == null || otherStack == null) return stack == otherStack;
+        return ItemHandlerHelper.canItemStacksStack(stack, otherStack);
+    }
+
+    @Override
+    public void saveToNBT(NBTTagCompound nbt) {
+        ItemStack stack = getItemStack();
+        if (stack != null) {
+            nbt.setTag("Item", stack.writeToNBT(new NBTTagCompound()));
+        }
+        nbt.setLong("StoredAmount", storedAmount);
+        nbt.setLong("Capacity", capacity);
+    }
+
+    @Override
+    public void loadFromNBT(@Nullable NBTTagCompound nbt) {
+        if (nbt == null) {
+            setItem(null, 0);
+            return;
+        }
+        capacity = nbt.getLong("Capacity");
+        ItemStack stack = nbt.hasKey("Item") ? ItemStack.loadItemStackFromNBT(nbt.getCompoundTag("Item")) : null;
+        setItem(stack, nbt.getLong("StoredAmount"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.gtnewhorizons.modularui.api.forge;
+
+import static com.google.common.primitives.Ints.saturatedCast;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.item.ItemStack;
+
+/**
+ * Exposes a list of {@link IItemSlotLong} as item handler, so they can be used with
+ * {@link com.gtnewhorizons.modularui.common.widget.SlotWidget}.
+ */
+public class ItemSlotLongHandler implements IItemHandlerLong {
+
+    protected final List<? extends IItemSlotLong> slots;
+    private final SlotVersions versions = new SlotVersions();
+
+    // SlotItemHandler temporarily empties a slot and puts the old stack back, which would cap the amount to int
+    private int clearedSlot = -1;
+    private ItemStack clearedStack;
+    private long clearedAmount;
+
+    public ItemSlotLongHandler(List<? extends IItemSlotLong> slots) {
+        this.slots = slots;
+    }
+
+    public IItemSlotLong getSlotLong(int slot) {
+        return slots.get(slot);
+    }
+
+    @Override
+    public long getAmountLong(int slot) {
+        return slots.get(slot).getAmountLong();
+    }
+
+    @Override
+    public int getSlots() {
+        return slots.size();
+    }
+
+    @Override
+    public ItemStack getStackInSlot(int slot) {
+        return slots.get(slot).getItemStack();
+    }
+
+    @Nullable
+    @Override
+    public ItemStack insertItem(int slot, ItemStack stack, boolean simulate) {
+        if (stack == null) return null;
+        long inserted = slots.get(slot).insert(stack, stack.stackSize, !simulate);
+        if (inserted > 0 && !simulate) {
+            markChanged(slot);
+        }
+        return inserted >= stack.stackSize ? null
+                : ItemHandlerHelper.copyStackWithSize(stack, stack.stackSize - (int) inserted);
+    }
+
+    @Nullable
+    @Override
+    public ItemStack extractItem(int slot, int amount, boolean simulate) {
+        ItemStack extracted = slots.get(slot).extract(amount, !simulate);
+        if (extracted != null && !simulate) {
+            markChanged(slot);
+        }
+        return extracted;
+    }
+
+    @Override
+    public void setStackInSlot(int slot, ItemStack stack) {
+        IItemSlotLong itemSlot = slots.get(slot);
+        if (stack == null) {
+            clearedSlot = slot;
+            clearedStack = itemSlot.getItemStack();
+            clearedAmount = itemSlot.getAmountLong();
+            itemSlot.setItem(null, 0);
+        } else if (slot == clearedSlot && stack == clearedStack && stack.stackSize == saturatedCast(clearedAmount)) {
+            itemSlot.setItem(stack, clearedAmount);
+        } else {
+            itemSlot.setItem(stack, stack.stackSize);
+        }
+        if (stack != null) {
+            clearedSlot = -1;
+            clearedStack = null;
+        }
+        markChanged(slot);
+    }
+
+    @Override
+    public int getSlotLimit(int slot) {
+        return saturatedCast(slots.get(slot).getCapacityLong());
+    }
+
+    @Override
+    public long getSlotVersion(int slot) {
+        return versions.get(slot);
+    }
+
+    @Override
+    public Runnable addSlotChangeListener(IntConsumer listener) {
+        return versions.addListener(listener);
+    }
+
+    protected void markChanged(int slot) {
+        versions.markChanged(slot);
+    }
+}
@@ -5,7 +5,9 @@ package com.gtnewhorizons.modularui.api.forge;
 //
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -14,8 +16,13 @@ import net.minecraftforge.common.util.Constants;
 
 public class ItemStackHandler implements IItemHandlerModifiable, INBTSerializable<NBTTagCompound> {
 
+    /**
+     * Subclasses which modify this directly should call {@link #markSlotChanged} afterwards.
+     */
     protected List<ItemStack> stacks;
 
+    private final SlotVersions versions = new SlotVersions();
+
     public ItemStackHandler() {
         this(1);
     }
@@ -38,12 +45,14 @@ public class ItemStackHandler implements IItemHandlerModifiable, INBTSerializabl
         ItemStack[] stacks = new ItemStack[size];
         Arrays.fill(stacks, null);
         this.stacks = Arrays.asList(stacks);
+        this.versions.markAllChanged();
     }
 
     @Override
     public void setStackInSlot(int slot, ItemStack stack) {
         this.validateSlotIndex(slot);
         this.stacks.set(slot, stack);
+        this.markSlotChanged(slot);
         this.onContentsChanged(slot);
     }
 
@@ -85,6 +94,7 @@ public class ItemStackHandler implements IItemHandlerModifiable, INBTSerializabl
                         existing.stackSize += reachedLimit ? limit : stack.stackSize;
                     }
 
+                    this.markSlotChanged(slot);
                     this.onContentsChanged(slot);
                 }
 
@@ -107,6 +117,7 @@ public class ItemStackHandler implements IItemHandlerModifiable, INBTSerializabl
                 if (existing.stackSize <= toExtract) {
                     if (!simulate) {
                         this.stacks.set(slot, null);
+                        this.markSlotChanged(slot);
                         this.onContentsChanged(slot);
                     }
 
@@ -116,6 +127,7 @@ public class ItemStackHandler implements IItemHandlerModifiable, INBTSerializabl
                         this.stacks.set(
                                 slot,
                                 ItemHandlerHelper.copyStackWithSize(existing, existing.stackSize - toExtract));
+                        this.markSlotChanged(slot);
                         this.onContentsChanged(slot);
                     }
 
@@ -139,6 +151,45 @@ public class ItemStackHandler implements IItemHandlerModifiable, INBTSerializabl
         return true;
     }
 
+    @Override
+    public long getSlotVersion(int slot) {
+        return this.versions.get(slot);
+    }
+
+    @Override
+    public Runnable addSlotChangeListener(IntConsumer listener) {
+        return this.versions.addListener(listener);
+    }
+
+    @Override
+    public void forEachStack(int from, int to, StackVisitor visitor) {
+        this.validateSlotRange(from, to);
+        for (int i = from; i < to; i++) {
+            visitor.visit(i, this.stacks.get(i));
+        }
+    }
+
+    @Override
+    public void copyStacks(int from, int to, ItemStack[] dst, int dstPos) {
+        this.validateSlotRange(from, to);
+        for (int i = from; i < to; i++) {
+            dst[dstPos + i - from] = this.stacks.get(i);
+        }
+    }
+
+    @Override
+    public void collectChangedSlots(int from, int to, long[] known, BitSet changed, int offset) {
+        this.validateSlotRange(from, to);
+        this.versions.collectChanged(from, to, known, changed, offset);
+    }
+
+    /**
+     * Bumps the version of the slot. Called by every modification of this handler.
+     */
+    protected void markSlotChanged(int slot) {
+        this.versions.markChanged(slot);
+    }
+
     @Override
     public NBTTagCompound serializeNBT() {
         NBTTagList nbtTagList = new NBTTagList();
@@ -175,6 +226,7 @@ public class ItemStackHandler implements IItemHandlerModifiable, INBTSerializabl
                 this.stacks.set(slot, loadedStack);
             }
         }
+        this.versions.markAllChanged();
 
         this.onLoad();
     }
@@ -185,6 +237,10 @@ public class ItemStackHandler implements IItemHandlerModifiable, INBTSerializabl
         }
     }
 
+    protected void validateSlotRange(int from, int to) {
+        ItemHandlerHelper.validateSlotRange(from, to, this.stacks.size());
+    }
+
     protected void onLoad() {}
 
     protected void onContentsChanged(int slot) {}
@@ -1,5 +1,10 @@
 package com.gtnewhorizons.modularui.api.forge;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
 import javax.annotation.Nullable;
 
 import net.minecraft.item.ItemStack;
@@ -19,6 +24,10 @@ public class ListItemHandler implements IItemHandlerModifiable {
         this.listItemHandler = listItemHandler;
     }
 
+    public Iterable<? extends IItemHandlerModifiable> getHandlers() {
+        return listItemHandler;
+    }
+
     @Override
     public int getSlots() {
         int ret = 0;
@@ -66,6 +75,99 @@ public class ListItemHandler implements IItemHandlerModifiable {
         return result.getLeft().isItemValid(result.getRight(), stack);
     }
 
+    @Override
+    public long getSlotVersion(int slot) {
+        Pair<? extends IItemHandlerModifiable, Integer> result = findItemHandler(slot);
+        return result.getLeft().getSlotVersion(result.getRight());
+    }
+
+    @Override
+    public Runnable addSlotChangeListener(IntConsumer listener) {
+        List<Runnable> removers = new ArrayList<>();
+        for (IItemHandlerModifiable itemHandler : listItemHandler) {
+            Runnable remover = itemHandler.addSlotChangeListener(slot -> {
+                if (slot < 0) {
+                    listener.accept(-1);
+                    return;
+                }
+                int offset = 0;
+                for (IItemHandlerModifiable other : listItemHandler) {
+                    if (other == itemHandler) {
+                        listener.accept(offset + slot);
+                        return;
+                    }
+                    offset += other.getSlots();
+                }
+            });
+            if (remover == null) {
+                // can't report changes of all slots
+                removers.forEach(Runnable::run);
+                return null;
+            }
+            removers.add(remover);
+        }
+        return () -> removers.forEach(Runnable::run);
+    }
+
+    @Override
+    public void forEachStack(int from, int to, StackVisitor visitor) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        if (from == to) return;
+        int start = 0;
+        for (IItemHandlerModifiable itemHandler : listItemHandler) {
+            int end = start + itemHandler.getSlots();
+            if (from < end && to > start) {
+                int offset = start;
+                itemHandler.forEachStack(
+                        Math.max(from, start) - start,
+                        Math.min(to, end) - start,
+                        (slot, stack) -> visitor.visit(offset + slot, stack));
+            }
+            if (end >= to) return;
+            start = end;
+        }
+        throw new RuntimeException("Slot " + to + " not in valid range - [0," + start + "]");
+    }
+
+    @Override
+    public void copyStacks(int from, int to, ItemStack[] dst, int dstPos) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        if (from == to) return;
+        int start = 0;
+        for (IItemHandlerModifiable itemHandler : listItemHandler) {
+            int end = start + itemHandler.getSlots();
+            if (from < end && to > start) {
+                int first = Math.max(from, start);
+                itemHandler.copyStacks(first - start, Math.min(to, end) - start, dst, dstPos + first - from);
+            }
+            if (end >= to) return;
+            start = end;
+        }
+        throw new RuntimeException("Slot " + to + " not in valid range - [0," + start + "]");
+    }
+
+    @Override
+    public void collectChangedSlots(int from, int to, long[] known, BitSet changed, int offset) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        if (from == to) return;
+        int start = 0;
+        for (IItemHandlerModifiable itemHandler : listItemHandler) {
+            int end = start + itemHandler.getSlots();
+            if (from < end && to > start) {
+                int first = Math.max(from, start);
+                itemHandler.collectChangedSlots(
+                        first - start,
+                        Math.min(to, end) - start,
+                        known,
+                        changed,
+                        offset + first - from);
+            }
+            if (end >= to) return;
+            start = end;
+        }
+        throw new RuntimeException("Slot " + to + " not in valid range - [0," + start + "]");
+    }
+
     /**
      * Searches all item handlers and find one matching handler that contains specified slot index
      *
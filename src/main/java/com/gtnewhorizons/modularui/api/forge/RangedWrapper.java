@@ -1,5 +1,8 @@
 package com.gtnewhorizons.modularui.api.forge;
 
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
 import net.minecraft.item.ItemStack;
 
 import com.google.common.base.Preconditions;
@@ -78,6 +81,44 @@ public class RangedWrapper implements IItemHandlerModifiable {
         return false;
     }
 
+    @Override
+    public long getSlotVersion(int slot) {
+        if (checkSlot(slot)) {
+            return compose.getSlotVersion(slot + minSlot);
+        }
+
+        return UNVERSIONED;
+    }
+
+    @Override
+    public Runnable addSlotChangeListener(IntConsumer listener) {
+        return compose.addSlotChangeListener(slot -> {
+            if (slot < 0) {
+                listener.accept(-1);
+            } else if (slot >= minSlot && slot < maxSlot) {
+                listener.accept(slot - minSlot);
+            }
+        });
+    }
+
+    @Override
+    public void forEachStack(int from, int to, StackVisitor visitor) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        compose.forEachStack(from + minSlot, to + minSlot, (slot, stack) -> visitor.visit(slot - minSlot, stack));
+    }
+
+    @Override
+    public void copyStacks(int from, int to, ItemStack[] dst, int dstPos) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        compose.copyStacks(from + minSlot, to + minSlot, dst, dstPos);
+    }
+
+    @Override
+    public void collectChangedSlots(int from, int to, long[] known, BitSet changed, int offset) {
+        ItemHandlerHelper.validateSlotRange(from, to, getSlots());
+        compose.collectChangedSlots(from + minSlot, to + minSlot, known, changed, offset);
+    }
+
     private boolean checkSlot(int localSlot) {
         return localSlot + minSlot < maxSlot;
     }
@@ -12,10 +12,12 @@ import net.minecraft.inventory.InventoryBasic;
 import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
 
+import com.gtnewhorizons.modularui.mixins.SlotAccessor;
+
 public class SlotItemHandler extends Slot {
 
     private static IInventory emptyInventory = new InventoryBasic("[Null]", true, 0);
-    private final IItemHandler itemHandler;
+    private IItemHandler itemHandler;
     private final int index;
 
     public SlotItemHandler(IItemHandler itemHandler, int index, int xPosition, int yPosition) {
@@ -105,6 +107,16 @@ public class SlotItemHandler extends Slot {
         return this.itemHandler;
     }
 
+    /**
+     * Binds this slot to another handler with the same layout, for example when a reused window is opened for another
+     * tile. Must not be called while the slot is in a container.
+     */
+    public void setItemHandler(IItemHandler itemHandler) {
+        this.itemHandler = itemHandler;
+        ((SlotAccessor) this).setInventory(
+                itemHandler.getSourceInventory() == null ? emptyInventory : itemHandler.getSourceInventory());
+    }
+
     public boolean isSameInventory(Slot other) {
         return other instanceof SlotItemHandler && ((SlotItemHandler) other).getItemHandler() == this.itemHandler;
     }
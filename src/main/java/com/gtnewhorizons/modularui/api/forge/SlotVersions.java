@@ -0,0 +1,67 @@
+package com.gtnewhorizons.modularui.api.forge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Per-slot modification counters for {@link IItemHandler#getSlotVersion}. Every change gets a new value from a shared
+ * counter, so a version is never reused for the same slot. Also notifies the listeners of
+ * {@link IItemHandler#addSlotChangeListener}.
+ */
+public class SlotVersions {
+
+    private long[] versions = new long[0];
+    private long counter = 0;
+    private long base = 0;
+    private final List<IntConsumer> listeners = new ArrayList<>();
+
+    public long get(int slot) {
+        if (slot < 0) return IItemHandler.UNVERSIONED;
+        return slot < versions.length ? versions[slot] : base;
+    }
+
+    /**
+     * Bulk version of {@link IItemHandler#collectChangedSlots} which reads the counters directly.
+     */
+    public void collectChanged(int from, int to, long[] known, BitSet changed, int offset) {
+        for (int i = from; i < to; i++) {
+            int pos = offset + i - from;
+            long version = i < versions.length ? versions[i] : base;
+            if (version != known[pos]) {
+                changed.set(pos);
+                known[pos] = version;
+            }
+        }
+    }
+
+    public void markChanged(int slot) {
+        if (slot < 0) return;
+        if (slot >= versions.length) {
+            int oldLength = versions.length;
+            versions = Arrays.copyOf(versions, Math.max(slot + 1, oldLength * 2));
+            Arrays.fill(versions, oldLength, versions.length, base);
+        }
+        versions[slot] = ++counter;
+        notifyListeners(slot);
+    }
+
+    public void markAllChanged() {
+        base = ++counter;
+        Arrays.fill(versions, base);
+        notifyListeners(-1);
+    }
+
+    public Runnable addListener(IntConsumer listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    private void notifyListeners(int slot) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).accept(slot);
+        }
+    }
+}
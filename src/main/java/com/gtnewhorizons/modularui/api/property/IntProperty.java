@@ -0,0 +1,30 @@
+package com.gtnewhorizons.modularui.api.property;
+
+import java.util.function.IntSupplier;
+
+public class IntProperty extends ObservableProperty implements IntSupplier {
+
+    private volatile int value;
+
+    public IntProperty() {}
+
+    public IntProperty(int value) {
+        this.value = value;
+    }
+
+    public int get() {
+        return value;
+    }
+
+    @Override
+    public int getAsInt() {
+        return value;
+    }
+
+    public void set(int value) {
+        if (this.value != value) {
+            this.value = value;
+            onChanged();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gtnewhorizons.modularui.api.property;
+
+import java.util.function.LongSupplier;
+
+public class LongProperty extends ObservableProperty implements LongSupplier {
+
+    private volatile long value;
+
+    public LongProperty() {}
+
+    public LongProperty(long value) {
+        this.value = value;
+    }
+
+    public long get() {
+        return value;
+    }
+
+    @Override
+    public long getAsLong() {
+        return value;
+    }
+
+    public void set(long value) {
+        if (this.value != value) {
+            this.value = value;
+            onChanged();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.gtnewhorizons.modularui.api.property;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Property holding an object. A new value only counts as change if it's not equal to the old one, so values must not
+ * be mutated after they were set.
+ */
+public class ObjectProperty<T> extends ObservableProperty implements Supplier<T> {
+
+    private volatile T value;
+
+    public ObjectProperty() {}
+
+    public ObjectProperty(T value) {
+        this.value = value;
+    }
+
+    @Override
+    public T get() {
+        return value;
+    }
+
+    public void set(T value) {
+        if (!Objects.equals(this.value, value)) {
+            this.value = value;
+            onChanged();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.gtnewhorizons.modularui.api.property;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A value which notifies listeners when it changes. Widgets bound to a property don't call listeners, they compare
+ * {@link #getVersion()} instead, so a property can be changed on the server thread while it's bound to a client
+ * widget.
+ */
+public abstract class ObservableProperty {
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicInteger version = new AtomicInteger();
+
+    /**
+     * @return a number which changes every time the value changes
+     */
+    public int getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Adds a listener which is called on the thread which changed the value.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    protected void onChanged() {
+        version.incrementAndGet();
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
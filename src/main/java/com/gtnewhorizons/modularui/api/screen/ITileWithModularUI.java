@@ -6,4 +6,13 @@ package com.gtnewhorizons.modularui.api.screen;
 public interface ITileWithModularUI {
 
     ModularWindow createWindow(UIBuildContext buildContext);
+
+    /**
+     * @return if the client may call {@link #createWindow} on another thread as soon as the tile is right clicked, while
+     *         it waits for the server to open the gui. The window must then be built without accessing the world or
+     *         changing the tile.
+     */
+    default boolean canBuildWindowAsync() {
+        return false;
+    }
 }
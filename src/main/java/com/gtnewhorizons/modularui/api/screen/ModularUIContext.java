@@ -8,19 +8,24 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import javax.annotation.Nullable;
+
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.ResourceLocation;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.gtnewhorizons.modularui.ModularUI;
+import com.gtnewhorizons.modularui.api.animation.AnimationScheduler;
 import com.gtnewhorizons.modularui.api.math.Pos2d;
 import com.gtnewhorizons.modularui.api.math.Size;
 import com.gtnewhorizons.modularui.api.widget.ISyncedWidget;
@@ -28,7 +33,6 @@ import com.gtnewhorizons.modularui.common.internal.network.CWidgetUpdate;
 import com.gtnewhorizons.modularui.common.internal.network.NetworkHandler;
 import com.gtnewhorizons.modularui.common.internal.network.NetworkUtils;
 import com.gtnewhorizons.modularui.common.internal.network.SWidgetUpdate;
-import com.gtnewhorizons.modularui.common.internal.wrapper.BaseSlot;
 import com.gtnewhorizons.modularui.common.internal.wrapper.ModularGui;
 import com.gtnewhorizons.modularui.common.internal.wrapper.ModularUIContainer;
 
@@ -60,6 +64,9 @@ public class ModularUIContext {
     private final Runnable onWidgetUpdate;
     private final Supplier<Boolean> validator;
     private final boolean showNEI;
+    private final Set<ResourceLocation> jsonGuis;
+    private Runnable reopener;
+    private final AnimationScheduler animations = new AnimationScheduler();
 
     private Size screenSize = NetworkUtils.isDedicatedClient()
             ? new Size(Minecraft.getMinecraft().displayWidth, Minecraft.getMinecraft().displayHeight)
@@ -83,6 +90,7 @@ public class ModularUIContext {
         this.onWidgetUpdate = onWidgetUpdate;
         this.validator = context.validator;
         this.showNEI = context.showNEI;
+        this.jsonGuis = context.jsonGuis;
     }
 
     /**
@@ -324,6 +332,13 @@ public class ModularUIContext {
         return cursor;
     }
 
+    /**
+     * @return the scheduler which steps all animations of this context
+     */
+    public AnimationScheduler getAnimations() {
+        return animations;
+    }
+
     /**
      * @return {@link ModularWindow}s from top to bottom (main window)
      */
@@ -357,6 +372,25 @@ public class ModularUIContext {
         return showNEI;
     }
 
+    /**
+     * @return true if the ui was built from the json gui
+     */
+    public boolean usesJsonGui(ResourceLocation location) {
+        return jsonGuis.contains(location);
+    }
+
+    /**
+     * Sets how this ui can be opened again, e.g. to rebuild it after its json gui changed.
+     */
+    public void setReopener(Runnable reopener) {
+        this.reopener = reopener;
+    }
+
+    @Nullable
+    public Runnable getReopener() {
+        return reopener;
+    }
+
     public List<Runnable> getCloseListeners() {
         return closeListeners;
     }
@@ -365,13 +399,6 @@ public class ModularUIContext {
         this.closeListeners.add(runnable);
     }
 
-    public void syncSlotContent(BaseSlot slot) {
-        if (slot != getContainer().inventorySlots.get(slot.slotNumber)) {
-            throw new IllegalStateException("Slot does not have the same index in the container!");
-        }
-        getContainer().sendSlotChange(slot.getStack(), slot.slotNumber);
-    }
-
     /**
      * Client -> Server
      */
@@ -2,8 +2,10 @@ package com.gtnewhorizons.modularui.api.screen;
 
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -18,6 +20,7 @@ import com.gtnewhorizons.modularui.api.animation.Eases;
 import com.gtnewhorizons.modularui.api.animation.Interpolator;
 import com.gtnewhorizons.modularui.api.drawable.IDrawable;
 import com.gtnewhorizons.modularui.api.drawable.Text;
+import com.gtnewhorizons.modularui.api.drawable.TextRenderBatch;
 import com.gtnewhorizons.modularui.api.math.Alignment;
 import com.gtnewhorizons.modularui.api.math.Color;
 import com.gtnewhorizons.modularui.api.math.Pos2d;
@@ -28,6 +31,8 @@ import com.gtnewhorizons.modularui.api.widget.IWidgetParent;
 import com.gtnewhorizons.modularui.api.widget.Interactable;
 import com.gtnewhorizons.modularui.api.widget.Widget;
 import com.gtnewhorizons.modularui.common.internal.Theme;
+import com.gtnewhorizons.modularui.common.widget.FluidRenderBatch;
+import com.gtnewhorizons.modularui.common.widget.ItemRenderBatch;
 import com.gtnewhorizons.modularui.common.widget.TextWidget;
 import com.gtnewhorizons.modularui.config.Config;
 
@@ -62,6 +67,7 @@ public class ModularWindow implements IWidgetParent {
     public final ImmutableBiMap<Integer, ISyncedWidget> syncedWidgets;
     private final BiMap<Integer, ISyncedWidget> dynamicSyncedWidgets = HashBiMap.create();
     private final List<Interactable> interactionListeners = new ArrayList<>();
+    private final Set<Widget> boundWidgets = new HashSet<>();
     protected boolean initialized = false;
     protected boolean clientOnly = true;
 
@@ -81,6 +87,12 @@ public class ModularWindow implements IWidgetParent {
     private float translateX = 0, translateY = 0;
     private Interpolator openAnimation, closeAnimation;
     private int guiTint = 0xffffff;
+    @SideOnly(Side.CLIENT)
+    private ItemRenderBatch itemBatch;
+    @SideOnly(Side.CLIENT)
+    private FluidRenderBatch fluidBatch;
+    @SideOnly(Side.CLIENT)
+    private TextRenderBatch textBatch;
 
     public ModularWindow(Size size, List<Widget> children, IDrawable... background) {
         this.fullScreen = size.isZero();
@@ -116,6 +128,25 @@ public class ModularWindow implements IWidgetParent {
         }
     }
 
+    /**
+     * Resets this window, so it can be initialized again in a new gui.
+     */
+    void recycle() {
+        IWidgetParent.forEachByLayer(this, Widget::recycle);
+        this.context = null;
+        this.initialized = false;
+        this.clientOnly = true;
+        this.initSync = true;
+        this.needsRebuild = false;
+        this.enabled = true;
+        this.pos = Pos2d.ZERO;
+        this.openAnimation = null;
+        this.closeAnimation = null;
+        this.dynamicSyncedWidgets.clear();
+        this.interactionListeners.clear();
+        this.boundWidgets.clear();
+    }
+
     public void onResize(Size screenSize) {
         if (this.fullScreen) {
             this.size = screenSize;
@@ -138,8 +169,7 @@ public class ModularWindow implements IWidgetParent {
     public void onOpen() {
         if (openAnimation == null && anyAnimation()) {
             final int startY = context.getScaledScreenSize().height - pos.y;
-            openAnimation = new Interpolator(0, 1, Config.openCloseDurationMs, Eases.EaseQuadOut, value -> {
-                float val = (float) value;
+            openAnimation = Interpolator.of(0, 1, Config.openCloseDurationMs, Eases.EaseQuadOut, val -> {
                 if (Config.openCloseFade) {
                     alpha = (int) (val * Color.getAlpha(Theme.INSTANCE.getBackground()));
                 }
@@ -160,12 +190,12 @@ public class ModularWindow implements IWidgetParent {
                 rotation = 360;
             });
             closeAnimation = openAnimation.getReversed(Config.openCloseDurationMs, Eases.EaseQuadIn);
-            openAnimation.forward();
-            closeAnimation.setCallback(val -> {
+            closeAnimation.onFinish(val -> {
                 closeWindow();
                 openAnimation = null;
                 closeAnimation = null;
             });
+            getContext().getAnimations().start(openAnimation.forward());
         }
         // this.pos = new Pos2d(pos.x, getContext().getScaledScreenSize().height);
     }
@@ -177,7 +207,7 @@ public class ModularWindow implements IWidgetParent {
         if (closeAnimation == null) {
             closeWindow();
         } else if (!closeAnimation.isRunning()) {
-            closeAnimation.forward();
+            getContext().getAnimations().start(closeAnimation.forward());
             return true;
         }
         return false;
@@ -191,6 +221,9 @@ public class ModularWindow implements IWidgetParent {
         for (IDrawable drawable : background) {
             drawable.tick();
         }
+        for (Widget widget : boundWidgets) {
+            widget.updateBoundProperties();
+        }
         IWidgetParent.forEachByLayer(this, widget -> {
             widget.onScreenUpdate();
             Consumer<Widget> ticker = widget.getTicker();
@@ -211,13 +244,13 @@ public class ModularWindow implements IWidgetParent {
         }
     }
 
+    /**
+     * @deprecated animations are stepped once per frame by the {@link ModularUIContext#getAnimations() scheduler} of
+     *             the context
+     */
+    @Deprecated
     public void frameUpdate(float partialTicks) {
-        if (openAnimation != null) {
-            openAnimation.update(partialTicks);
-        }
-        if (closeAnimation != null) {
-            closeAnimation.update(partialTicks);
-        }
+        getContext().getAnimations().update();
     }
 
     public void serverUpdate() {
@@ -268,6 +301,7 @@ public class ModularWindow implements IWidgetParent {
         if (foreground) {
             IWidgetParent.forEachByLayer(this, widget -> {
                 widget.drawInForeground(partialTicks);
+                GlStateManager.invalidateIfForeign(widget);
                 return false;
             });
 
@@ -291,11 +325,34 @@ public class ModularWindow implements IWidgetParent {
                 drawable.applyThemeColor(color);
                 IDrawable.applyTintColor(getGuiTint());
                 drawable.draw(Pos2d.ZERO, size, partialTicks);
+                GlStateManager.invalidateIfForeign(drawable);
             }
             GlStateManager.popMatrix();
 
-            for (Widget widget : getChildren()) {
-                widget.drawInternal(partialTicks);
+            if (itemBatch == null) {
+                itemBatch = new ItemRenderBatch();
+                fluidBatch = new FluidRenderBatch();
+                textBatch = new TextRenderBatch();
+            }
+            if (Config.batchTextRendering) {
+                textBatch.begin();
+            }
+            if (Config.batchItemRendering) {
+                fluidBatch.begin();
+                itemBatch.begin(getContext().getScreen());
+            }
+            try {
+                for (Widget widget : getChildren()) {
+                    widget.drawInternal(partialTicks);
+                }
+            } finally {
+                if (Config.batchItemRendering) {
+                    itemBatch.end();
+                    fluidBatch.end();
+                }
+                if (Config.batchTextRendering) {
+                    textBatch.end();
+                }
             }
             GlStateManager.color(1, 1, 1, 1);
             GlStateManager.popMatrix();
@@ -393,6 +450,14 @@ public class ModularWindow implements IWidgetParent {
     /**
      * The events of the added listeners are always called.
      */
+    /**
+     * Registers a widget with bound properties, which are checked once per tick. Widgets stay registered until the
+     * window is recycled.
+     */
+    public void addBoundWidget(Widget widget) {
+        boundWidgets.add(widget);
+    }
+
     public void addInteractionListener(Interactable interactable) {
         interactionListeners.add(interactable);
     }
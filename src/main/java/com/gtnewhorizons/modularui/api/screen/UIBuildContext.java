@@ -2,15 +2,18 @@ package com.gtnewhorizons.modularui.api.screen;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.ResourceLocation;
 
 import com.google.common.collect.ImmutableMap;
 import com.gtnewhorizons.modularui.ModularUI;
@@ -20,6 +23,7 @@ public class UIBuildContext {
 
     protected final EntityPlayer player;
     private final Map<String, Widget> jsonWidgets = new HashMap<>();
+    protected final Set<ResourceLocation> jsonGuis = new HashSet<>();
     protected final ImmutableMap.Builder<Integer, IWindowCreator> syncedWindows = new ImmutableMap.Builder<>();
     protected final List<Runnable> closeListeners = new ArrayList<>();
     protected Supplier<Boolean> validator;
@@ -48,6 +52,13 @@ public class UIBuildContext {
         jsonWidgets.put(name, widget);
     }
 
+    /**
+     * Remembers that the ui was built from a json gui, so it can be rebuilt when the json changes.
+     */
+    public void addJsonGui(ResourceLocation location) {
+        jsonGuis.add(location);
+    }
+
     public void addCloseListener(Runnable runnable) {
         closeListeners.add(runnable);
     }
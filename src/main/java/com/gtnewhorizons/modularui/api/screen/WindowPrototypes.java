@@ -0,0 +1,165 @@
+package com.gtnewhorizons.modularui.api.screen;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import net.minecraft.util.ResourceLocation;
+
+import com.gtnewhorizons.modularui.api.widget.IWidgetParent;
+import com.gtnewhorizons.modularui.common.internal.network.NetworkUtils;
+
+/**
+ * Pool of main windows for guis which are opened often, like machines. Building a window with many widgets is
+ * expensive, so instead of building a new window every time, a closed window is reset and opened again.
+ * <p>
+ * The window must not capture the tile directly. Instead, it must get the tile from the supplier passed to the
+ * builder, which always returns the tile the window is currently opened for. Windows are pooled by the class of the
+ * tile and the config key, so the key must contain everything the layout of the window depends on, like the tier of a
+ * machine. Slots must get their handler from the tile through {@link
+ * com.gtnewhorizons.modularui.common.widget.SlotWidget#bindHandler SlotWidget.bindHandler} or {@link
+ * com.gtnewhorizons.modularui.common.widget.FluidSlotWidget#bindHandler FluidSlotWidget.bindHandler}, player
+ * inventory groups are already bound. Windows which contain widgets that can't be recycled, like unbound slots, are
+ * always built again.
+ * <p>
+ * The builder is only called when a new window is built, so things like synced windows and close listeners must be
+ * added to the build context outside of it.
+ *
+ * <pre>
+ * {@code
+ * public ModularWindow createWindow(UIBuildContext buildContext) {
+ *     return WindowPrototypes.get(buildContext, this, tier, tile -> buildWindow(tile, tier));
+ * }
+ * }
+ * </pre>
+ */
+public class WindowPrototypes {
+
+    private static final int MAX_POOLED = 4;
+
+    private static final Map<Key, Deque<Pooled>> POOL = new HashMap<>();
+    private static final Map<ModularWindow, Pooled> IN_USE = new IdentityHashMap<>();
+    private static final Set<Key> NOT_RECYCLABLE = new HashSet<>();
+
+    public static <T> ModularWindow get(UIBuildContext buildContext, T target, Object configKey,
+            Function<Supplier<T>, ModularWindow> builder) {
+        Key key = new Key(target.getClass(), configKey, NetworkUtils.isClient());
+        Pooled pooled = null;
+        synchronized (WindowPrototypes.class) {
+            if (NOT_RECYCLABLE.contains(key)) {
+                return builder.apply(new Binding<>(target));
+            }
+            Deque<Pooled> pool = POOL.get(key);
+            if (pool != null) {
+                pooled = pool.pollFirst();
+            }
+        }
+        if (pooled == null) {
+            Binding<T> binding = new Binding<>(target);
+            pooled = new Pooled(key, builder.apply(binding), binding, new HashSet<>(buildContext.jsonGuis));
+        } else {
+            ((Binding<T>) pooled.binding).target = target;
+            buildContext.jsonGuis.addAll(pooled.jsonGuis);
+        }
+        synchronized (WindowPrototypes.class) {
+            IN_USE.put(pooled.window, pooled);
+        }
+        return pooled.window;
+    }
+
+    /**
+     * Called when the gui of the window was closed. Does nothing if the window was not taken from the pool.
+     */
+    public static void release(ModularWindow window) {
+        Pooled pooled;
+        synchronized (WindowPrototypes.class) {
+            pooled = IN_USE.remove(window);
+        }
+        if (pooled == null) return;
+        pooled.binding.target = null;
+        boolean recyclable = !IWidgetParent.forEachByLayer(window, widget -> !widget.canRecycle());
+        synchronized (WindowPrototypes.class) {
+            if (!recyclable) {
+                NOT_RECYCLABLE.add(pooled.key);
+                POOL.remove(pooled.key);
+                return;
+            }
+            Deque<Pooled> pool = POOL.computeIfAbsent(pooled.key, k -> new ArrayDeque<>());
+            if (pool.size() >= MAX_POOLED) return;
+            window.recycle();
+            pool.addLast(pooled);
+        }
+    }
+
+    /**
+     * Called when the gui of the window failed to open. The window is dropped instead of being reused, since it may be
+     * partially initialised. Does nothing if the window was not taken from the pool.
+     */
+    public static void discard(ModularWindow window) {
+        synchronized (WindowPrototypes.class) {
+            IN_USE.remove(window);
+        }
+    }
+
+    private static class Binding<T> implements Supplier<T> {
+
+        private volatile T target;
+
+        private Binding(T target) {
+            this.target = target;
+        }
+
+        @Override
+        public T get() {
+            return target;
+        }
+    }
+
+    private static class Pooled {
+
+        private final Key key;
+        private final ModularWindow window;
+        private final Binding<?> binding;
+        private final Set<ResourceLocation> jsonGuis;
+
+        private Pooled(Key key, ModularWindow window, Binding<?> binding, Set<ResourceLocation> jsonGuis) {
+            this.key = key;
+            this.window = window;
+            this.binding = binding;
+            this.jsonGuis = jsonGuis;
+        }
+    }
+
+    private static class Key {
+
+        private final Class<?> type;
+        private final Object config;
+        private final boolean client;
+
+        private Key(Class<?> type, Object config, boolean client) {
+            this.type = type;
+            this.config = config;
+            this.client = client;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return client == key.client && type == key.type && Objects.equals(config, key.config);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, config, client);
+        }
+    }
+}
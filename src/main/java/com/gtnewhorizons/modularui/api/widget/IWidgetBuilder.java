@@ -7,13 +7,12 @@ import net.minecraft.util.ResourceLocation;
 
 import org.jetbrains.annotations.ApiStatus;
 
-import com.google.gson.JsonObject;
 import com.gtnewhorizons.modularui.ModularUI;
 import com.gtnewhorizons.modularui.api.drawable.IDrawable;
 import com.gtnewhorizons.modularui.api.math.Pos2d;
 import com.gtnewhorizons.modularui.api.screen.UIBuildContext;
-import com.gtnewhorizons.modularui.common.internal.JsonHelper;
 import com.gtnewhorizons.modularui.common.internal.JsonLoader;
+import com.gtnewhorizons.modularui.common.internal.JsonTemplate;
 import com.gtnewhorizons.modularui.common.internal.wrapper.BaseSlot;
 import com.gtnewhorizons.modularui.common.widget.SlotGroup;
 import com.gtnewhorizons.modularui.common.widget.SlotWidget;
@@ -86,12 +85,13 @@ public interface IWidgetBuilder<T extends IWidgetBuilder<T>> {
     }
 
     default T addFromJson(ResourceLocation location, UIBuildContext buildContext) {
-        JsonObject json = JsonLoader.GUIS.get(location);
-        if (json == null) {
+        buildContext.addJsonGui(location);
+        JsonTemplate template = JsonLoader.getTemplate(location);
+        if (template == null) {
             ModularUI.logger.error("Couldn't not find json file {}", location);
             return (T) this;
         }
-        JsonHelper.parseJson(this, json, buildContext);
+        template.instantiate(this, buildContext);
         return (T) this;
     }
 }
@@ -0,0 +1,48 @@
+package com.gtnewhorizons.modularui.api.widget;
+
+/**
+ * Sequence numbers for values which the client applies immediately and sends to the server. The client writes
+ * {@link #next()} with each value it sends, the server remembers the last one with {@link #receive(int)} and writes
+ * {@link #getReceived()} with each value it sends back. The client ignores server values which were sent before the
+ * server got its latest value, so a slow connection doesn't make the widget jump back. If the server doesn't accept a
+ * value, it sends the correct one after it got the value, which then rolls back the prediction on the client.
+ */
+public class SyncPrediction {
+
+    private int sent;
+    private int received;
+
+    /**
+     * Called on client before a predicted value is sent.
+     *
+     * @return sequence number to send with the value
+     */
+    public int next() {
+        return ++sent;
+    }
+
+    /**
+     * Called on server when a predicted value was received.
+     */
+    public void receive(int sequence) {
+        this.received = sequence;
+    }
+
+    /**
+     * @return sequence number to send with values from the server
+     */
+    public int getReceived() {
+        return received;
+    }
+
+    /**
+     * Called on client when a value from the server was received.
+     *
+     * @param received the sequence number sent with the value
+     * @return if the value must be applied, false if it's older than the latest prediction
+     */
+    public boolean isCurrent(int received) {
+        // overflow safe
+        return received - sent >= 0;
+    }
+}
@@ -7,14 +7,18 @@ import com.gtnewhorizons.modularui.ModularUI;
 import com.gtnewhorizons.modularui.api.GlStateManager;
 import com.gtnewhorizons.modularui.api.drawable.IDrawable;
 import com.gtnewhorizons.modularui.api.drawable.Text;
+import com.gtnewhorizons.modularui.api.drawable.TextRenderBatch;
 import com.gtnewhorizons.modularui.api.math.Color;
 import com.gtnewhorizons.modularui.api.math.Pos2d;
 import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.property.ObjectProperty;
 import com.gtnewhorizons.modularui.api.screen.ModularUIContext;
 import com.gtnewhorizons.modularui.api.screen.ModularWindow;
 import com.gtnewhorizons.modularui.common.internal.JsonHelper;
 import com.gtnewhorizons.modularui.common.internal.Theme;
 import com.gtnewhorizons.modularui.common.widget.FakeSyncWidget;
+import com.gtnewhorizons.modularui.common.widget.FluidRenderBatch;
+import com.gtnewhorizons.modularui.common.widget.ItemRenderBatch;
 import cpw.mods.fml.common.Optional;
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
@@ -41,6 +45,10 @@ import java.util.stream.Collectors;
 public abstract class Widget {
 
     // gui
+    private static final Function<Widget, Boolean> ALWAYS_ENABLED = widget -> true;
+    private static final Supplier<String> NO_INTERNAL_NAME = () -> null;
+    private static final Supplier<IDrawable[]> NO_BACKGROUND = () -> null;
+
     private String name = "";
     private ModularWindow window = null;
     private IWidgetParent parent = null;
@@ -62,26 +70,22 @@ public abstract class Widget {
     private boolean autoPositioned = true;
 
     // flags and stuff
-    private Function<Widget, Boolean> enabledDynamic = widget -> true;
+    private Function<Widget, Boolean> enabledDynamic = ALWAYS_ENABLED;
     private boolean enabledStatic = true;
     private int layer = -1;
     private boolean tooltipDirty = true;
     private boolean firstRebuild = true;
-    private Supplier<String> internalName = () -> null;
+    private Supplier<String> internalName = NO_INTERNAL_NAME;
 
     // visuals
     @NotNull
-    private Supplier<IDrawable[]> background = () -> null;
-
-    private final List<Text> additionalTooltip = new ArrayList<>();
-    private final List<Text> mainTooltip = new ArrayList<>();
-    private Supplier<List<String>> dynamicTooltip;
-    private final List<Text> additionalTooltipShift = new ArrayList<>();
-    private final List<Text> mainTooltipShift = new ArrayList<>();
-    private Supplier<List<String>> dynamicTooltipShift;
-    private int tooltipShowUpDelay = 0;
-    private boolean updateTooltipEveryTick = false;
-    private boolean tooltipHasSpaceAfterFirstLine = true;
+    private Supplier<IDrawable[]> background = NO_BACKGROUND;
+
+    // most widgets have no tooltip, so it's only allocated when needed
+    @Nullable
+    private TooltipState tooltip;
+    // only allocated for widgets with bound properties
+    private PropertyBindings bindings;
 
     @Nullable
     private String debugLabel;
@@ -91,10 +95,8 @@ public abstract class Widget {
 
     // NEI
     private boolean respectNEIArea = true;
-    private boolean hasTransferRect;
-    private String transferRectID;
-    private Object[] transferRectArgs;
-    private String transferRectTooltip;
+    @Nullable
+    private TransferRect transferRect;
 
     public Widget() {}
 
@@ -122,27 +124,70 @@ public abstract class Widget {
     }
 
     /**
-     * Called when this widget is created from json. Make sure to call super.readJson(json, type);
+     * Called when this widget is created from json. Applies {@link #compileJson} to this widget, so new json values
+     * should be read there instead. Overrides must call super.readJson(json, type);
      *
      * @param json the widget json
      * @param type the type this widget was created with
      */
     public void readJson(JsonObject json, String type) {
-        this.name = JsonHelper.getString(json, "", "name");
-        this.relativePos = JsonHelper.getElement(json, relativePos, Pos2d::ofJson, "pos");
-        this.fixedPos = JsonHelper.getElement(json, null, Pos2d::ofJson, "fixedPos");
-        this.size = JsonHelper.getElement(json, size, Size::ofJson, "size");
-        this.fillParent = JsonHelper.getBoolean(json, false, "fillParent");
-        setEnabled(JsonHelper.getBoolean(json, true, "enabled"));
-        this.autoSized = JsonHelper.getBoolean(json, !json.has("size"), "autoSized");
-        IDrawable drawable = JsonHelper.getObject(json, null, IDrawable::ofJson, "drawable", "background");
-        if (drawable != null) {
-            setBackground(drawable);
-        }
+        compileJson(json, type).accept(this);
+    }
+
+    /**
+     * Reads the widget json once into a setter which is applied to every widget created from it, so json guis are not
+     * parsed again each time they are opened. Overrides chain {@code super.compileJson(json, type)}. Widgets which
+     * override {@link #readJson} but not this still use {@link #readJson}.
+     * <p>
+     * Values read here are shared by all widgets created from the json and must not be modified by them. Drawables
+     * should be read with {@link JsonHelper#compileDrawable}, so drawables with state are not shared.
+     *
+     * @param json the widget json
+     * @param type the type this widget was created with
+     */
+    public Consumer<Widget> compileJson(JsonObject json, String type) {
+        String name = JsonHelper.getString(json, "", "name");
+        Pos2d relativePos = JsonHelper.getElement(json, null, Pos2d::ofJson, "pos");
+        Pos2d fixedPos = JsonHelper.getElement(json, null, Pos2d::ofJson, "fixedPos");
+        Size size = JsonHelper.getElement(json, null, Size::ofJson, "size");
+        boolean fillParent = JsonHelper.getBoolean(json, false, "fillParent");
+        boolean enabled = JsonHelper.getBoolean(json, true, "enabled");
+        boolean autoSized = JsonHelper.getBoolean(json, !json.has("size"), "autoSized");
+        Supplier<IDrawable> drawable = JsonHelper
+                .getObject(json, null, JsonHelper::compileDrawable, "drawable", "background");
+        return widget -> {
+            widget.name = name;
+            if (relativePos != null) {
+                widget.relativePos = relativePos;
+            }
+            widget.fixedPos = fixedPos;
+            if (size != null) {
+                widget.size = size;
+            }
+            widget.fillParent = fillParent;
+            widget.setEnabled(enabled);
+            widget.autoSized = autoSized;
+            if (drawable != null) {
+                widget.setBackground(drawable.get());
+            }
+        };
     }
 
     // ==== Internal methods ====
 
+    /**
+     * You shall not call this
+     */
+    @ApiStatus.Internal
+    public final void recycle() {
+        this.window = null;
+        this.parent = null;
+        this.layer = -1;
+        this.tooltipDirty = true;
+        this.firstRebuild = true;
+        onRecycle();
+    }
+
     /**
      * You shall not call this
      */
@@ -156,6 +201,9 @@ public abstract class Widget {
         this.layer = layer;
 
         onInit();
+        if (this.bindings != null) {
+            window.addBoundWidget(this);
+        }
 
         if (this instanceof IWidgetParent) {
             int nextLayer = layer + 1;
@@ -241,6 +289,9 @@ public abstract class Widget {
     public final void drawInternal(float partialTicks, boolean ignoreEnabled) {
         onFrameUpdate();
         if (isEnabled() || ignoreEnabled) {
+            FluidRenderBatch.flushCurrentIfCovered(this);
+            ItemRenderBatch.flushCurrentIfCovered(this);
+            TextRenderBatch.flushCurrentIfCovered(this);
             GlStateManager.pushMatrix();
             Pos2d windowPos = getWindow().getPos();
             Size windowSize = getWindow().getSize();
@@ -255,6 +306,9 @@ public abstract class Widget {
             GlStateManager.enableBlend();
             drawBackground(partialTicks);
             draw(partialTicks);
+            if (!isGlStateTracked()) {
+                GlStateManager.invalidateStateCache();
+            }
             GlStateManager.popMatrix();
 
             if (this instanceof IWidgetParent) {
@@ -317,6 +371,22 @@ public abstract class Widget {
     @SideOnly(Side.CLIENT)
     public void onScreenUpdate() {}
 
+    /**
+     * Called once per tick, only for widgets with bound properties. Lays out the window again if the enabled property
+     * changed.
+     */
+    @ApiStatus.Internal
+    @SideOnly(Side.CLIENT)
+    public void updateBoundProperties() {
+        PropertyBindings bindings = this.bindings;
+        if (bindings == null || bindings.enabled == null) return;
+        int version = bindings.enabled.getVersion();
+        if (version != bindings.enabledVersion) {
+            bindings.enabledVersion = version;
+            checkNeedsRebuild();
+        }
+    }
+
     /**
      * Called each frame, approximately 60 times per second
      */
@@ -335,6 +405,7 @@ public abstract class Widget {
                 if (drawable != null) {
                     drawable.applyThemeColor(themeColor);
                     drawable.draw(Pos2d.ZERO, getSize(), partialTicks);
+                    GlStateManager.invalidateIfForeign(drawable);
                 }
             }
         }
@@ -349,6 +420,16 @@ public abstract class Widget {
     @SideOnly(Side.CLIENT)
     public void draw(float partialTicks) {}
 
+    /**
+     * Widgets outside ModularUI are assumed to change GL state directly in {@link #draw(float)}, which invalidates the
+     * {@link GlStateManager} cache after they are drawn. Override this to return true if the widget only uses
+     * {@link GlStateManager} and invalidates it after calling other renderers.
+     */
+    @SideOnly(Side.CLIENT)
+    protected boolean isGlStateTracked() {
+        return GlStateManager.isTrackedRenderer(getClass());
+    }
+
     /**
      * Is called after all widgets of the window are drawn. Can be used for special tooltip rendering.
      *
@@ -366,9 +447,9 @@ public abstract class Widget {
     @ApiStatus.OverrideOnly
     @SideOnly(Side.CLIENT)
     public void buildTooltip(List<Text> tooltip) {
-        if (dynamicTooltip != null) {
+        if (this.tooltip != null && this.tooltip.dynamic != null) {
             tooltip.addAll(
-                    dynamicTooltip.get().stream().map(s -> new Text(s).color(Color.WHITE.normal))
+                    this.tooltip.dynamic.get().stream().map(s -> new Text(s).color(Color.WHITE.normal))
                             .collect(Collectors.toList()));
         }
     }
@@ -381,9 +462,9 @@ public abstract class Widget {
     @ApiStatus.OverrideOnly
     @SideOnly(Side.CLIENT)
     public void buildTooltipShift(List<Text> tooltipShift) {
-        if (dynamicTooltipShift != null) {
+        if (this.tooltip != null && this.tooltip.dynamicShift != null) {
             tooltipShift.addAll(
-                    dynamicTooltipShift.get().stream().map(s -> new Text(s).color(Color.WHITE.normal))
+                    this.tooltip.dynamicShift.get().stream().map(s -> new Text(s).color(Color.WHITE.normal))
                             .collect(Collectors.toList()));
         }
     }
@@ -430,6 +511,22 @@ public abstract class Widget {
     @ApiStatus.OverrideOnly
     public void onDestroy() {}
 
+    /**
+     * Called when the window was closed and is reset to be opened again, see
+     * {@link com.gtnewhorizons.modularui.api.screen.WindowPrototypes}. Reset everything here which was set up in
+     * {@link #onInit()}.
+     */
+    @ApiStatus.OverrideOnly
+    public void onRecycle() {}
+
+    /**
+     * @return if this widget can be reset and opened again in a new gui. Widgets bound to something that can't be
+     *         bound again, like slots without a handler binding, must return false.
+     */
+    public boolean canRecycle() {
+        return true;
+    }
+
     // ==== focus ====
 
     /**
@@ -598,22 +695,22 @@ public abstract class Widget {
     }
 
     public boolean hasNEITransferRect() {
-        return hasTransferRect;
+        return transferRect != null;
     }
 
     @Nullable
     public String getNEITransferRectID() {
-        return transferRectID;
+        return transferRect != null ? transferRect.id : null;
     }
 
     @Nullable
     public Object[] getNEITransferRectArgs() {
-        return transferRectArgs;
+        return transferRect != null ? transferRect.args : null;
     }
 
     @Nullable
     public String getNEITransferRectTooltip() {
-        return transferRectTooltip;
+        return transferRect != null ? transferRect.tooltip : null;
     }
 
     public void handleTransferRectMouseClick(boolean usage) {
@@ -628,52 +725,83 @@ public abstract class Widget {
     }
 
     private void checkTooltip() {
-        if (this.tooltipDirty || this.updateTooltipEveryTick) {
-            this.mainTooltip.clear();
-            this.mainTooltipShift.clear();
-            buildTooltip(this.mainTooltip);
-            buildTooltipShift(this.mainTooltipShift);
+        if (this.tooltipDirty || (this.tooltip != null && this.tooltip.updateEveryTick)) {
+            TooltipState state = this.tooltip;
+            if (state != null) {
+                // reuse the lists, with updateEveryTick this runs every frame
+                state.main = clearedList(state.main);
+                state.mainShift = clearedList(state.mainShift);
+                buildTooltip(state.main);
+                buildTooltipShift(state.mainShift);
+            } else {
+                List<Text> main = new ArrayList<>();
+                List<Text> mainShift = new ArrayList<>();
+                buildTooltip(main);
+                buildTooltipShift(mainShift);
+                if (!main.isEmpty() || !mainShift.isEmpty()) {
+                    state = getTooltipState();
+                    state.main = main;
+                    state.mainShift = mainShift;
+                }
+            }
             this.tooltipDirty = false;
         }
     }
 
+    private static List<Text> clearedList(List<Text> list) {
+        // the shared empty list can't be reused
+        if (list instanceof ArrayList) {
+            list.clear();
+            return list;
+        }
+        return new ArrayList<>();
+    }
+
+    private TooltipState getTooltipState() {
+        if (this.tooltip == null) {
+            this.tooltip = new TooltipState();
+        }
+        return this.tooltip;
+    }
+
     public void notifyTooltipChange() {
         this.tooltipDirty = true;
     }
 
     public boolean hasTooltip() {
         checkTooltip();
-        return !this.mainTooltip.isEmpty() || !this.additionalTooltip.isEmpty()
-                || !this.mainTooltipShift.isEmpty()
-                || !this.additionalTooltipShift.isEmpty()
-                || hasNEITransferRect();
+        TooltipState state = this.tooltip;
+        return (state != null && (!state.main.isEmpty() || !state.additional.isEmpty()
+                || !state.mainShift.isEmpty()
+                || !state.additionalShift.isEmpty())) || hasNEITransferRect();
     }
 
     public List<Text> getTooltip() {
-        if (!hasTooltip()) {
+        if (!hasTooltip() || this.tooltip == null) {
             return Collections.emptyList();
         }
+        TooltipState state = this.tooltip;
         List<Text> tooltip;
         if (Interactable.hasShiftDown()) {
-            if (this.mainTooltipShift.isEmpty()) {
-                tooltip = new ArrayList<>(this.mainTooltip);
+            if (state.mainShift.isEmpty()) {
+                tooltip = new ArrayList<>(state.main);
             } else {
-                tooltip = new ArrayList<>(this.mainTooltipShift);
+                tooltip = new ArrayList<>(state.mainShift);
             }
-            if (this.additionalTooltipShift.isEmpty()) {
-                tooltip.addAll(this.additionalTooltip);
+            if (state.additionalShift.isEmpty()) {
+                tooltip.addAll(state.additional);
             } else {
-                tooltip.addAll(this.additionalTooltipShift);
+                tooltip.addAll(state.additionalShift);
             }
         } else {
-            tooltip = new ArrayList<>(this.mainTooltip);
-            tooltip.addAll(this.additionalTooltip);
+            tooltip = new ArrayList<>(state.main);
+            tooltip.addAll(state.additional);
         }
         return tooltip;
     }
 
     public int getTooltipShowUpDelay() {
-        return tooltipShowUpDelay;
+        return tooltip != null ? tooltip.showUpDelay : 0;
     }
 
     @Nullable
@@ -714,6 +842,25 @@ public abstract class Widget {
      */
     public Widget setEnabled(Function<Widget, Boolean> enabled) {
         this.enabledDynamic = enabled;
+        if (this.bindings != null) {
+            this.bindings.enabled = null;
+        }
+        return this;
+    }
+
+    /**
+     * Binds the enabled state to the property. The window is only laid out again when the property changes.
+     */
+    public Widget setEnabled(ObjectProperty<Boolean> enabled) {
+        this.enabledDynamic = widget -> Boolean.TRUE.equals(enabled.get());
+        if (this.bindings == null) {
+            this.bindings = new PropertyBindings();
+            if (isInitialised()) {
+                this.window.addBoundWidget(this);
+            }
+        }
+        this.bindings.enabled = enabled;
+        this.bindings.enabledVersion = enabled.getVersion();
         return this;
     }
 
@@ -836,7 +983,11 @@ public abstract class Widget {
      * Adds a line to the tooltip
      */
     public Widget addTooltip(Text tooltip) {
-        this.additionalTooltip.add(tooltip);
+        TooltipState state = getTooltipState();
+        if (state.additional.isEmpty()) {
+            state.additional = new ArrayList<>();
+        }
+        state.additional.add(tooltip);
         return this;
     }
 
@@ -859,7 +1010,7 @@ public abstract class Widget {
      * to call {@link #notifyTooltipChange} for update.
      */
     public Widget dynamicTooltip(Supplier<List<String>> dynamicTooltip) {
-        this.dynamicTooltip = dynamicTooltip;
+        getTooltipState().dynamic = dynamicTooltip;
         return this;
     }
 
@@ -867,7 +1018,11 @@ public abstract class Widget {
      * Adds a line to the tooltip shown while holding shift key
      */
     public Widget addTooltipShift(Text tooltipShift) {
-        this.additionalTooltipShift.add(tooltipShift);
+        TooltipState state = getTooltipState();
+        if (state.additionalShift.isEmpty()) {
+            state.additionalShift = new ArrayList<>();
+        }
+        state.additionalShift.add(tooltipShift);
         return this;
     }
 
@@ -890,7 +1045,7 @@ public abstract class Widget {
      * Result is cached, so you also need to call {@link #notifyTooltipChange} for update.
      */
     public Widget dynamicTooltipShift(Supplier<List<String>> dynamicTooltipShift) {
-        this.dynamicTooltipShift = dynamicTooltipShift;
+        getTooltipState().dynamicShift = dynamicTooltipShift;
         return this;
     }
 
@@ -902,7 +1057,7 @@ public abstract class Widget {
     }
 
     public Widget setTooltipShowUpDelay(int tooltipShowUpDelay) {
-        this.tooltipShowUpDelay = tooltipShowUpDelay;
+        getTooltipState().showUpDelay = tooltipShowUpDelay;
         return this;
     }
 
@@ -911,17 +1066,17 @@ public abstract class Widget {
      * this method will force tooltip to update on every render tick.
      */
     public Widget setUpdateTooltipEveryTick(boolean updateTooltipEveryTick) {
-        this.updateTooltipEveryTick = updateTooltipEveryTick;
+        getTooltipState().updateEveryTick = updateTooltipEveryTick;
         return this;
     }
 
     public Widget setTooltipHasSpaceAfterFirstLine(boolean tooltipHasSpaceAfterFirstLine) {
-        this.tooltipHasSpaceAfterFirstLine = tooltipHasSpaceAfterFirstLine;
+        getTooltipState().hasSpaceAfterFirstLine = tooltipHasSpaceAfterFirstLine;
         return this;
     }
 
     public boolean isTooltipHasSpaceAfterFirstLine() {
-        return tooltipHasSpaceAfterFirstLine;
+        return tooltip == null || tooltip.hasSpaceAfterFirstLine;
     }
 
     public Widget setDebugLabel(String debugLabel) {
@@ -976,10 +1131,7 @@ public abstract class Widget {
     }
 
     public Widget setNEITransferRect(String transferRectID, Object[] transferRectArgs, String transferRectTooltip) {
-        this.transferRectID = transferRectID;
-        this.transferRectArgs = transferRectArgs;
-        this.transferRectTooltip = transferRectTooltip;
-        this.hasTransferRect = true;
+        this.transferRect = new TransferRect(transferRectID, transferRectArgs, transferRectTooltip);
         return this;
     }
 
@@ -1019,6 +1171,39 @@ public abstract class Widget {
         Pos2d getPos(Size screenSize, ModularWindow window, IWidgetParent parent);
     }
 
+    private static class TooltipState {
+
+        // empty lists are shared until something is added
+        private List<Text> additional = Collections.emptyList();
+        private List<Text> main = Collections.emptyList();
+        private List<Text> additionalShift = Collections.emptyList();
+        private List<Text> mainShift = Collections.emptyList();
+        private Supplier<List<String>> dynamic;
+        private Supplier<List<String>> dynamicShift;
+        private int showUpDelay = 0;
+        private boolean updateEveryTick = false;
+        private boolean hasSpaceAfterFirstLine = true;
+    }
+
+    private static class PropertyBindings {
+
+        private ObjectProperty<Boolean> enabled;
+        private int enabledVersion;
+    }
+
+    private static class TransferRect {
+
+        private final String id;
+        private final Object[] args;
+        private final String tooltip;
+
+        private TransferRect(String id, Object[] args, String tooltip) {
+            this.id = id;
+            this.args = args;
+            this.tooltip = tooltip;
+        }
+    }
+
     public static class ClickData {
 
         public final int mouseButton;
@@ -1,10 +1,15 @@
 package com.gtnewhorizons.modularui.common.internal;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.gtnewhorizons.modularui.ModularUI;
+import com.gtnewhorizons.modularui.api.drawable.IDrawable;
 import com.gtnewhorizons.modularui.api.screen.UIBuildContext;
 import com.gtnewhorizons.modularui.api.widget.IWidgetBuilder;
 import com.gtnewhorizons.modularui.api.widget.Widget;
@@ -12,6 +17,8 @@ import com.gtnewhorizons.modularui.common.widget.WidgetJsonRegistry;
 
 public class JsonHelper {
 
+    private static final Map<Class<?>, Boolean> STATEFUL_DRAWABLES = new ConcurrentHashMap<>();
+
     public static void parseJson(IWidgetBuilder<?> widgetBuilder, JsonObject json, UIBuildContext buildContext) {
         if (json.has("widgets")) {
             JsonArray widgets = json.getAsJsonArray("widgets");
@@ -115,4 +122,27 @@ public class JsonHelper {
         }
         return defaultValue;
     }
+
+    /**
+     * Reads a drawable for {@link Widget#compileJson}. Drawables which override {@link IDrawable#tick()} keep state, so
+     * they are read again for every widget. All other drawables are read once and shared.
+     */
+    public static Supplier<IDrawable> compileDrawable(JsonObject json) {
+        IDrawable drawable = IDrawable.ofJson(json);
+        if (isStateful(drawable)) {
+            return () -> IDrawable.ofJson(json);
+        }
+        return () -> drawable;
+    }
+
+    private static boolean isStateful(IDrawable drawable) {
+        return STATEFUL_DRAWABLES.computeIfAbsent(drawable.getClass(), clazz -> {
+            try {
+                return clazz.getMethod("tick").getDeclaringClass() != IDrawable.class;
+            } catch (NoSuchMethodException e) {
+                ModularUI.logger.error("Failed to check tick method of {}", clazz, e);
+                return true;
+            }
+        });
+    }
 }
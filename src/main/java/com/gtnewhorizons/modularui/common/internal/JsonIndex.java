@@ -0,0 +1,113 @@
+package com.gtnewhorizons.modularui.common.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.gtnewhorizons.modularui.ModularUI;
+
+/**
+ * Json guis found in each mod jar, persisted between starts. An entry is only used if the jar still has the same size
+ * and modification time, so jars which did not change don't have to be opened again.
+ */
+class JsonIndex {
+
+    private static final int VERSION = 1;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @return guis of the mod by name or null if the jar is not indexed or changed since
+     */
+    Map<String, JsonObject> get(File jar, String modId) {
+        Entry entry = entries.get(getKey(jar, modId));
+        if (entry == null || entry.size != jar.length() || entry.modified != jar.lastModified()) return null;
+        return entry.guis;
+    }
+
+    void put(File jar, String modId, Map<String, JsonObject> guis) {
+        entries.put(getKey(jar, modId), new Entry(jar.length(), jar.lastModified(), guis));
+    }
+
+    private static String getKey(File jar, String modId) {
+        return jar.getAbsolutePath() + '|' + modId;
+    }
+
+    static JsonIndex read(File file) {
+        JsonIndex index = new JsonIndex();
+        if (!file.isFile()) return index;
+        try (InputStream stream = Files.newInputStream(file.toPath())) {
+            JsonObject json = JsonLoader.jsonParser.parse(new InputStreamReader(stream, StandardCharsets.UTF_8))
+                    .getAsJsonObject();
+            if (!json.has("version") || json.get("version").getAsInt() != VERSION) return index;
+            for (Map.Entry<String, JsonElement> jar : json.getAsJsonObject("jars").entrySet()) {
+                JsonObject entry = jar.getValue().getAsJsonObject();
+                Map<String, JsonObject> guis = new HashMap<>();
+                for (Map.Entry<String, JsonElement> gui : entry.getAsJsonObject("guis").entrySet()) {
+                    guis.put(gui.getKey(), gui.getValue().getAsJsonObject());
+                }
+                index.entries.put(
+                        jar.getKey(),
+                        new Entry(entry.get("size").getAsLong(), entry.get("modified").getAsLong(), guis));
+            }
+        } catch (Exception exception) {
+            ModularUI.logger.warn("Failed to read json gui index {}, all mods will be searched", file, exception);
+            index.entries.clear();
+        }
+        return index;
+    }
+
+    void write(File file) {
+        JsonObject jars = new JsonObject();
+        for (Map.Entry<String, Entry> jar : entries.entrySet()) {
+            JsonObject guis = new JsonObject();
+            jar.getValue().guis.forEach(guis::add);
+            JsonObject entry = new JsonObject();
+            entry.addProperty("size", jar.getValue().size);
+            entry.addProperty("modified", jar.getValue().modified);
+            entry.add("guis", guis);
+            jars.add(jar.getKey(), entry);
+        }
+        JsonObject json = new JsonObject();
+        json.addProperty("version", VERSION);
+        json.add("jars", jars);
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+            try (OutputStream stream = Files.newOutputStream(tmp.toPath());
+                    Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8)) {
+                new Gson().toJson(json, writer);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exception) {
+            ModularUI.logger.warn("Failed to write json gui index {}", file, exception);
+        }
+    }
+
+    private static class Entry {
+
+        private final long size;
+        private final long modified;
+        private final Map<String, JsonObject> guis;
+
+        private Entry(long size, long modified, Map<String, JsonObject> guis) {
+            this.size = size;
+            this.modified = modified;
+            this.guis = guis;
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package com.gtnewhorizons.modularui.common.internal;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.Nullable;
+
+import net.minecraft.launchwrapper.Launch;
 import net.minecraft.util.ResourceLocation;
 
 import com.google.gson.Gson;
@@ -26,34 +37,131 @@ import cpw.mods.fml.common.ModContainer;
 
 public class JsonLoader {
 
-    public static final Map<ResourceLocation, JsonObject> GUIS = new HashMap<>();
+    public static final Map<ResourceLocation, JsonObject> GUIS = new ConcurrentHashMap<>();
+    private static final Map<ResourceLocation, JsonTemplate> TEMPLATES = new ConcurrentHashMap<>();
     public static final JsonParser jsonParser = new JsonParser();
     public static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
+    private static final File INDEX_FILE = new File(Launch.minecraftHome, "modularui/json_index.json");
+
+    /**
+     * Searches all mods for json guis. Mods are searched in parallel, and mod jars which did not change since the last
+     * start are taken from the persisted index instead of being opened.
+     */
     public static void loadJson() {
         if (!Config.useJson) return;
         GUIS.clear();
+        TEMPLATES.clear();
         List<ModContainer> mods = Loader.instance().getActiveModList();
-        mods.forEach((mod) -> {
-            String id = mod.getModId();
-            CraftingHelper
-                    .findFiles(mod, String.format("assets/%s/guis", id), (path) -> Files.exists(path), (path, file) -> {
-                        if (file.toString().endsWith(".json")) {
-                            JsonObject json = tryExtractFromFile(file);
-                            if (json != null) {
-                                String fileStr = file.toString().replaceAll("\\\\", "/");
-                                String guiName = fileStr.substring(fileStr.indexOf("guis/") + 5, fileStr.length() - 5);
-
-                                ResourceLocation bookId = new ResourceLocation(id, guiName);
-                                GUIS.put(bookId, json);
-                            }
-                        }
-                        return true;
-                    }, false, true);
-        });
+        JsonIndex oldIndex = Config.cacheJsonIndex ? JsonIndex.read(INDEX_FILE) : new JsonIndex();
+        JsonIndex newIndex = new JsonIndex();
+
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService executor = Executors
+                .newFixedThreadPool(Math.max(1, Math.min(Config.jsonLoaderThreads, mods.size())), runnable -> {
+                    Thread thread = new Thread(runnable, "ModularUI Json Loader #" + threadId.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            List<Future<Map<String, JsonObject>>> futures = new ArrayList<>(mods.size());
+            for (ModContainer mod : mods) {
+                futures.add(executor.submit(() -> findGuis(mod, oldIndex, newIndex)));
+            }
+            // collect in mod order, so later mods still override guis of earlier ones
+            for (int i = 0; i < mods.size(); i++) {
+                String id = mods.get(i).getModId();
+                try {
+                    futures.get(i).get().forEach((name, json) -> GUIS.put(new ResourceLocation(id, name), json));
+                } catch (ExecutionException exception) {
+                    ModularUI.logger.error("Failed to load json guis of {}", id, exception.getCause());
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            ModularUI.logger.error("Interrupted while loading json guis", exception);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (Config.cacheJsonIndex) {
+            newIndex.write(INDEX_FILE);
+        }
         ModularUI.logger.info("Loaded {} guis from json", GUIS.size());
     }
 
+    /**
+     * @return the compiled gui or null if there is no json gui at the location
+     */
+    @Nullable
+    public static JsonTemplate getTemplate(ResourceLocation location) {
+        JsonTemplate template = TEMPLATES.get(location);
+        if (template == null) {
+            JsonObject json = GUIS.get(location);
+            if (json == null) return null;
+            template = JsonTemplate.compile(json);
+            TEMPLATES.put(location, template);
+        }
+        return template;
+    }
+
+    /**
+     * Replaces a single gui, e.g. after its file changed. The new template is compiled before it's swapped in, so
+     * guis opened meanwhile get either the old or the new version.
+     *
+     * @param json new gui json or null if the gui was removed
+     */
+    public static void replaceGui(ResourceLocation location, @Nullable JsonObject json) {
+        if (json == null) {
+            TEMPLATES.remove(location);
+            GUIS.remove(location);
+            return;
+        }
+        JsonTemplate template = JsonTemplate.compile(json);
+        GUIS.put(location, json);
+        TEMPLATES.put(location, template);
+    }
+
+    /**
+     * @return name of the gui file relative to the guis directory, without extension
+     */
+    static String getGuiName(Path file) {
+        String fileStr = file.toString().replaceAll("\\\\", "/");
+        return fileStr.substring(fileStr.indexOf("guis/") + 5, fileStr.length() - 5);
+    }
+
+    private static Map<String, JsonObject> findGuis(ModContainer mod, JsonIndex oldIndex, JsonIndex newIndex) {
+        String id = mod.getModId();
+        File source = mod.getSource();
+        // directories are not indexed, their files can change without the directory changing
+        boolean indexed = source != null && source.isFile();
+        if (indexed) {
+            Map<String, JsonObject> guis = oldIndex.get(source, id);
+            if (guis != null) {
+                newIndex.put(source, id, guis);
+                return guis;
+            }
+        }
+
+        Map<String, JsonObject> guis = new HashMap<>();
+        boolean success = CraftingHelper
+                .findFiles(mod, String.format("assets/%s/guis", id), (path) -> Files.exists(path), (path, file) -> {
+                    if (file.toString().endsWith(".json")) {
+                        JsonObject json = tryExtractFromFile(file);
+                        if (json != null) {
+                            guis.put(getGuiName(file), json);
+                        } else {
+                            return false;
+                        }
+                    }
+                    return true;
+                }, true, true);
+        if (indexed && success) {
+            newIndex.put(source, id, guis);
+        }
+        return guis;
+    }
+
     public static JsonObject tryExtractFromFile(Path filePath) {
         try (InputStream fileStream = Files.newInputStream(filePath)) {
             InputStreamReader streamReader = new InputStreamReader(fileStream, StandardCharsets.UTF_8);
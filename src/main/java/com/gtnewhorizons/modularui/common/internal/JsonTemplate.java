@@ -0,0 +1,128 @@
+package com.gtnewhorizons.modularui.common.internal;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.gtnewhorizons.modularui.ModularUI;
+import com.gtnewhorizons.modularui.api.screen.UIBuildContext;
+import com.gtnewhorizons.modularui.api.widget.IWidgetBuilder;
+import com.gtnewhorizons.modularui.api.widget.Widget;
+import com.gtnewhorizons.modularui.common.widget.WidgetJsonRegistry;
+
+/**
+ * A json gui compiled into a tree of widget factories and setters. Creating widgets from a template does the same as
+ * {@link JsonHelper#parseJson}, but the json is only read once per widget class instead of every time the gui is
+ * opened.
+ */
+public class JsonTemplate {
+
+    private static final Map<Class<?>, Boolean> COMPILABLE = new ConcurrentHashMap<>();
+
+    private final List<Node> nodes;
+
+    private JsonTemplate(List<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    public static JsonTemplate compile(JsonObject json) {
+        return new JsonTemplate(compileNodes(json));
+    }
+
+    private static List<Node> compileNodes(JsonObject json) {
+        if (!json.has("widgets")) return Collections.emptyList();
+        JsonArray widgets = json.getAsJsonArray("widgets");
+        List<Node> nodes = new ArrayList<>(widgets.size());
+        for (JsonElement jsonElement : widgets) {
+            if (!jsonElement.isJsonObject()) continue;
+            JsonObject jsonWidget = jsonElement.getAsJsonObject();
+            if (!jsonWidget.has("type")) continue;
+            String type = jsonWidget.get("type").getAsString();
+            WidgetJsonRegistry.WidgetFactory factory = WidgetJsonRegistry.getFactory(type);
+            if (factory == null) continue;
+            nodes.add(new Node(factory, type, jsonWidget, jsonWidget.has("widgets") ? compileNodes(jsonWidget) : null));
+        }
+        return nodes;
+    }
+
+    public void instantiate(IWidgetBuilder<?> widgetBuilder, UIBuildContext buildContext) {
+        instantiate(nodes, widgetBuilder, buildContext);
+    }
+
+    private static void instantiate(List<Node> nodes, IWidgetBuilder<?> widgetBuilder, UIBuildContext buildContext) {
+        for (Node node : nodes) {
+            Widget widget = node.factory.create(buildContext.getPlayer());
+            if (widget == null) continue;
+            node.getApplier(widget).accept(widget);
+            if (!widget.getName().isEmpty()) {
+                buildContext.addJsonWidgets(widget.getName(), widget);
+            }
+            widgetBuilder.widget(widget);
+            if (widget instanceof IWidgetBuilder && node.children != null) {
+                instantiate(node.children, (IWidgetBuilder<?>) widget, buildContext);
+            }
+        }
+    }
+
+    /**
+     * A widget class can only be compiled if no class overrides {@link Widget#readJson} below the last override of
+     * {@link Widget#compileJson}.
+     */
+    private static boolean isCompilable(Class<?> type) {
+        return COMPILABLE.computeIfAbsent(type, clazz -> {
+            try {
+                Method read = clazz.getMethod("readJson", JsonObject.class, String.class);
+                Method compile = clazz.getMethod("compileJson", JsonObject.class, String.class);
+                return read.getDeclaringClass().isAssignableFrom(compile.getDeclaringClass());
+            } catch (NoSuchMethodException e) {
+                ModularUI.logger.error("Failed to check json methods of {}", clazz, e);
+                return false;
+            }
+        });
+    }
+
+    private static class Node {
+
+        private final WidgetJsonRegistry.WidgetFactory factory;
+        private final String type;
+        private final JsonObject json;
+        private final List<Node> children;
+        private volatile Compiled compiled;
+
+        private Node(WidgetJsonRegistry.WidgetFactory factory, String type, JsonObject json, List<Node> children) {
+            this.factory = factory;
+            this.type = type;
+            this.json = json;
+            this.children = children;
+        }
+
+        private Consumer<Widget> getApplier(Widget widget) {
+            Compiled compiled = this.compiled;
+            if (compiled == null || compiled.type != widget.getClass()) {
+                Consumer<Widget> applier = isCompilable(widget.getClass()) ? widget.compileJson(json, type)
+                        : w -> w.readJson(json, type);
+                compiled = new Compiled(widget.getClass(), applier);
+                this.compiled = compiled;
+            }
+            return compiled.applier;
+        }
+    }
+
+    private static class Compiled {
+
+        private final Class<?> type;
+        private final Consumer<Widget> applier;
+
+        private Compiled(Class<?> type, Consumer<Widget> applier) {
+            this.type = type;
+            this.applier = applier;
+        }
+    }
+}
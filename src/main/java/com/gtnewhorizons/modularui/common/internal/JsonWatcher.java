@@ -0,0 +1,165 @@
+package com.gtnewhorizons.modularui.common.internal;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiScreen;
+import net.minecraft.util.ChatComponentTranslation;
+import net.minecraft.util.ResourceLocation;
+
+import com.google.gson.JsonObject;
+import com.gtnewhorizons.modularui.ModularUI;
+import com.gtnewhorizons.modularui.api.screen.ModularUIContext;
+import com.gtnewhorizons.modularui.common.internal.wrapper.ModularGui;
+
+import cpw.mods.fml.common.Loader;
+import cpw.mods.fml.common.ModContainer;
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * Watches the json gui directories of mods loaded from directories, which is the case in a dev environment. Changed
+ * files are parsed again and replace only their own gui. An open ui built from a changed gui is rebuilt if it can be
+ * opened again on the client, otherwise it's closed.
+ */
+@SideOnly(Side.CLIENT)
+public class JsonWatcher {
+
+    private static final long DEBOUNCE_MS = 100;
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Root> keys = new HashMap<>();
+
+    private JsonWatcher(WatchService watchService) {
+        this.watchService = watchService;
+    }
+
+    public static void start() {
+        try {
+            JsonWatcher watcher = new JsonWatcher(FileSystems.getDefault().newWatchService());
+            for (ModContainer mod : Loader.instance().getActiveModList()) {
+                File source = mod.getSource();
+                if (source == null || !source.isDirectory()) continue;
+                Path dir = source.toPath().resolve(String.format("assets/%s/guis", mod.getModId()));
+                if (Files.isDirectory(dir)) {
+                    watcher.registerAll(new Root(mod.getModId(), dir), dir);
+                }
+            }
+            if (watcher.keys.isEmpty()) {
+                watcher.watchService.close();
+                return;
+            }
+            Thread thread = new Thread(watcher::run, "ModularUI Json Watcher");
+            thread.setDaemon(true);
+            thread.start();
+            ModularUI.logger.info("Watching {} json gui directories for changes", watcher.keys.size());
+        } catch (IOException e) {
+            ModularUI.logger.error("Failed to watch json guis", e);
+        }
+    }
+
+    private void registerAll(Root root, Path dir) throws IOException {
+        try (Stream<Path> dirs = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                keys.put(path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), root);
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Map<ResourceLocation, Path> changed = new HashMap<>();
+                collect(watchService.take(), changed);
+                // editors often write a file in several steps
+                WatchKey key;
+                while ((key = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+                if (changed.isEmpty()) continue;
+                for (Map.Entry<ResourceLocation, Path> entry : changed.entrySet()) {
+                    JsonObject json = Files.isRegularFile(entry.getValue())
+                            ? JsonLoader.tryExtractFromFile(entry.getValue())
+                            : null;
+                    if (json != null || !Files.exists(entry.getValue())) {
+                        JsonLoader.replaceGui(entry.getKey(), json);
+                        ModularUI.logger.info("Reloaded json gui {}", entry.getKey());
+                    }
+                }
+                Set<ResourceLocation> locations = new HashSet<>(changed.keySet());
+                Minecraft.getMinecraft().func_152344_a(() -> rebuildOpenUI(locations));
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            ModularUI.logger.info("Stopped watching json guis");
+        }
+    }
+
+    private void collect(WatchKey key, Map<ResourceLocation, Path> changed) {
+        Root root = keys.get(key);
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (root == null || event.kind().type() != Path.class) continue;
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    registerAll(root, path);
+                } catch (IOException e) {
+                    ModularUI.logger.error("Failed to watch {}", path, e);
+                }
+                continue;
+            }
+            String file = root.dir.relativize(path).toString().replace('\\', '/');
+            if (file.endsWith(".json")) {
+                changed.put(new ResourceLocation(root.modId, file.substring(0, file.length() - 5)), path);
+            }
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+    }
+
+    private static void rebuildOpenUI(Set<ResourceLocation> locations) {
+        Minecraft mc = Minecraft.getMinecraft();
+        GuiScreen screen = mc.currentScreen;
+        if (!(screen instanceof ModularGui) || mc.thePlayer == null) return;
+        ModularUIContext context = ((ModularGui) screen).getContext();
+        if (locations.stream().noneMatch(context::usesJsonGui)) return;
+        Runnable reopener = context.getReopener();
+        if (reopener != null) {
+            reopener.run();
+        } else {
+            // synced uis need the server to build them again
+            mc.thePlayer.closeScreen();
+            mc.thePlayer.addChatMessage(new ChatComponentTranslation("modularui.json.reopen"));
+        }
+    }
+
+    private static class Root {
+
+        private final String modId;
+        private final Path dir;
+
+        private Root(String modId, Path dir) {
+            this.modId = modId;
+            this.dir = dir;
+        }
+    }
+}
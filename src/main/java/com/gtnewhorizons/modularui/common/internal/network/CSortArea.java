@@ -0,0 +1,44 @@
+package com.gtnewhorizons.modularui.common.internal.network;
+
+import net.minecraft.inventory.Container;
+import net.minecraft.network.NetHandlerPlayServer;
+import net.minecraft.network.PacketBuffer;
+
+import com.gtnewhorizons.modularui.common.internal.wrapper.ModularUIContainer;
+
+/**
+ * Asks the server to sort a sorting area of the open container.
+ */
+public class CSortArea implements IPacket {
+
+    public int windowId;
+    public String area;
+
+    public CSortArea(int windowId, String area) {
+        this.windowId = windowId;
+        this.area = area;
+    }
+
+    public CSortArea() {}
+
+    @Override
+    public void decode(PacketBuffer buf) {
+        this.windowId = buf.readVarIntFromBuffer();
+        this.area = NetworkUtils.readStringSafe(buf);
+    }
+
+    @Override
+    public void encode(PacketBuffer buf) {
+        buf.writeVarIntToBuffer(windowId);
+        NetworkUtils.writeStringSafe(buf, area);
+    }
+
+    @Override
+    public IPacket executeServer(NetHandlerPlayServer handler) {
+        Container container = handler.playerEntity.openContainer;
+        if (container instanceof ModularUIContainer && container.windowId == windowId && area != null) {
+            ((ModularUIContainer) container).sortArea(area);
+        }
+        return null;
+    }
+}
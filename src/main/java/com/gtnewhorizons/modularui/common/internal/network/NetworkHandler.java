@@ -23,6 +23,8 @@ public class NetworkHandler {
     public static void init() {
         registerS2C(SWidgetUpdate.class);
         registerC2S(CWidgetUpdate.class);
+        registerS2C(SSlotsUpdate.class);
+        registerC2S(CSortArea.class);
     }
 
     private static void registerC2S(Class<? extends IPacket> clazz) {
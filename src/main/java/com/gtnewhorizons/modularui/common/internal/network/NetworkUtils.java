@@ -98,7 +98,7 @@ public class NetworkUtils {
         }
 
         buffer.writeVarIntToBuffer(Item.getIdFromItem(stack.getItem()));
-        buffer.writeInt(stack.stackSize);
+        buffer.writeVarIntToBuffer(stack.stackSize);
         buffer.writeShort(stack.getItemDamage());
 
         NBTTagCompound nbttagcompound = null;
@@ -120,7 +120,7 @@ public class NetworkUtils {
             return null;
         }
 
-        int stackSize = buffer.readInt();
+        int stackSize = buffer.readVarIntFromBuffer();
         short damage = buffer.readShort();
         ItemStack stack = new ItemStack(Item.getItemById(itemId), stackSize, damage);
         try {
@@ -131,6 +131,29 @@ public class NetworkUtils {
         return stack;
     }
 
+    /**
+     * Writes a long in 1 to 10 bytes, small positive values take the least space.
+     */
+    public static void writeVarLong(PacketBuffer buffer, long value) {
+        while ((value & -128L) != 0L) {
+            buffer.writeByte((int) (value & 127L) | 128);
+            value >>>= 7;
+        }
+        buffer.writeByte((int) value);
+    }
+
+    public static long readVarLong(PacketBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buffer.readByte();
+            value |= (long) (b & 127) << shift;
+            if ((b & 128) == 0) {
+                return value;
+            }
+        }
+        throw new RuntimeException("VarLong too big");
+    }
+
     /**
      * No-exception and null-safe version of {@link PacketBuffer#writeStringToBuffer}. You must also use
      * {@link #readStringSafe} to read packet if string can be null.
@@ -0,0 +1,60 @@
+package com.gtnewhorizons.modularui.common.internal.network;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.network.NetHandlerPlayClient;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.inventory.Container;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketBuffer;
+
+/**
+ * Updates the content of many slots of the open container at once, e.g. after a sort.
+ */
+public class SSlotsUpdate implements IPacket {
+
+    public int windowId;
+    public int[] slots;
+    public ItemStack[] stacks;
+
+    public SSlotsUpdate(int windowId, int[] slots, ItemStack[] stacks) {
+        this.windowId = windowId;
+        this.slots = slots;
+        this.stacks = stacks;
+    }
+
+    public SSlotsUpdate() {}
+
+    @Override
+    public void decode(PacketBuffer buf) {
+        this.windowId = buf.readVarIntFromBuffer();
+        int size = buf.readVarIntFromBuffer();
+        this.slots = new int[size];
+        this.stacks = new ItemStack[size];
+        for (int i = 0; i < size; i++) {
+            this.slots[i] = buf.readVarIntFromBuffer();
+            this.stacks[i] = NetworkUtils.readItemStack(buf);
+        }
+    }
+
+    @Override
+    public void encode(PacketBuffer buf) {
+        buf.writeVarIntToBuffer(windowId);
+        buf.writeVarIntToBuffer(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            buf.writeVarIntToBuffer(slots[i]);
+            NetworkUtils.writeItemStack(buf, stacks[i]);
+        }
+    }
+
+    @Override
+    public IPacket executeClient(NetHandlerPlayClient handler) {
+        EntityPlayer player = Minecraft.getMinecraft().thePlayer;
+        Container container = player == null ? null : player.openContainer;
+        if (container != null && container.windowId == windowId) {
+            for (int i = 0; i < slots.length; i++) {
+                container.putStackInSlot(slots[i], stacks[i]);
+            }
+        }
+        return null;
+    }
+}
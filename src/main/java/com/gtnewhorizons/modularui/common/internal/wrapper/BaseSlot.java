@@ -31,8 +31,6 @@ public class BaseSlot extends SlotItemHandler {
     private boolean ignoreStackSizeLimit = false;
     private Runnable changeListener;
     private Predicate<ItemStack> filter;
-    private ItemStack cachedItem = null;
-    private boolean needsSyncing;
 
     private static final IItemHandlerModifiable EMPTY = new ItemStackHandler();
 
@@ -129,6 +127,10 @@ public class BaseSlot extends SlotItemHandler {
         return canInsert;
     }
 
+    public boolean isCanTake() {
+        return canTake;
+    }
+
     public boolean isPhantom() {
         return phantom;
     }
@@ -155,10 +157,6 @@ public class BaseSlot extends SlotItemHandler {
 
     @Override
     public void onSlotChanged() {
-        if (getStack() != null) {
-            this.cachedItem = getStack().copy();
-        }
-        this.needsSyncing = true;
         if (this.changeListener != null) {
             this.changeListener.run();
         }
@@ -168,6 +166,16 @@ public class BaseSlot extends SlotItemHandler {
         this.parentWidget.markForUpdate();
     }
 
+    /**
+     * Sets the stack without marking this slot for syncing. The caller is responsible for sending the change.
+     */
+    void putStackWithoutSync(ItemStack stack) {
+        ((IItemHandlerModifiable) getItemHandler()).setStackInSlot(getSlotIndex(), stack);
+        if (this.changeListener != null) {
+            this.changeListener.run();
+        }
+    }
+
     @Override
     public boolean isSlotInInventory(IInventory inventory, int index) {
         if (getItemHandler() instanceof RangedWrapper) {
@@ -179,14 +187,6 @@ public class BaseSlot extends SlotItemHandler {
         return super.isSlotInInventory(inventory, index);
     }
 
-    public boolean isNeedsSyncing() {
-        return needsSyncing;
-    }
-
-    public void resetNeedsSyncing() {
-        this.needsSyncing = false;
-    }
-
     // handle background by widgets
     @Override
     public ResourceLocation getBackgroundIconTexture() {
@@ -0,0 +1,115 @@
+package com.gtnewhorizons.modularui.common.internal.wrapper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import com.gtnewhorizons.modularui.api.forge.ItemHandlerHelper;
+
+/**
+ * Sorts the content of a sorting area in one pass. All stacks are read at once, stackable stacks are merged, the result
+ * is sorted and then written back to the slots without triggering a sync per slot.
+ */
+public class InventorySorter {
+
+    /**
+     * Sorts by item id, damage and tag. Bigger stacks of the same item come first.
+     */
+    public static final Comparator<ItemStack> DEFAULT_COMPARATOR = Comparator
+            .<ItemStack>comparingInt(stack -> Item.getIdFromItem(stack.getItem()))
+            .thenComparingInt(ItemStack::getItemDamage).thenComparingInt(InventorySorter::getTagHash)
+            // different tags may have the same hash
+            .thenComparing(InventorySorter::getTagString)
+            .thenComparing((a, b) -> Integer.compare(b.stackSize, a.stackSize));
+
+    private static int getTagHash(ItemStack stack) {
+        NBTTagCompound tag = stack.getTagCompound();
+        return tag == null ? 0 : tag.hashCode();
+    }
+
+    private static String getTagString(ItemStack stack) {
+        NBTTagCompound tag = stack.getTagCompound();
+        return tag == null ? "" : tag.toString();
+    }
+
+    /**
+     * Computes the sorted content of the slots. Phantom, disabled and locked slots keep their content. Slots which
+     * don't accept a stack are skipped for it.
+     *
+     * @return new stack for each slot in the given order or null if the items can't be placed back into the slots
+     */
+    public static ItemStack[] sort(List<? extends BaseSlot> area, Comparator<ItemStack> comparator) {
+        List<ItemStack> stacks = new ArrayList<>(area.size());
+        for (BaseSlot slot : area) {
+            if (!isSortable(slot)) continue;
+            ItemStack stack = slot.getStack();
+            if (stack != null && stack.stackSize > 0) {
+                stacks.add(stack.copy());
+            }
+        }
+        stacks.sort(comparator);
+
+        // merge stackable stacks into groups of a prototype and a total amount, the comparator doesn't necessarily put
+        // them next to each other
+        List<ItemStack> groups = new ArrayList<>(stacks.size());
+        List<Long> amounts = new ArrayList<>(stacks.size());
+        for (ItemStack stack : stacks) {
+            int group = groups.size() - 1;
+            while (group >= 0 && !ItemHandlerHelper.canItemStacksStackRelaxed(groups.get(group), stack)) {
+                group--;
+            }
+            if (group >= 0) {
+                amounts.set(group, amounts.get(group) + stack.stackSize);
+            } else {
+                groups.add(stack);
+                amounts.add((long) stack.stackSize);
+            }
+        }
+
+        ItemStack[] result = new ItemStack[area.size()];
+        int firstGroup = 0;
+        for (int i = 0; i < area.size(); i++) {
+            BaseSlot slot = area.get(i);
+            if (!isSortable(slot)) {
+                result[i] = slot.getStack();
+                continue;
+            }
+            while (firstGroup < groups.size() && amounts.get(firstGroup) == 0) {
+                firstGroup++;
+            }
+            // fill the slot with the first group it accepts
+            for (int group = firstGroup; group < groups.size(); group++) {
+                long remaining = amounts.get(group);
+                if (remaining == 0) continue;
+                ItemStack prototype = groups.get(group);
+                if (!slot.isItemValidPhantom(prototype)) continue;
+                int limit = slot.getSlotStackLimit();
+                if (!slot.isIgnoreStackSizeLimit()) {
+                    limit = Math.min(limit, prototype.getMaxStackSize());
+                }
+                if (limit < 1) continue;
+                int amount = (int) Math.min(remaining, limit);
+                result[i] = ItemHandlerHelper.copyStackWithSize(prototype, amount);
+                amounts.set(group, remaining - amount);
+                break;
+            }
+        }
+        for (long remaining : amounts) {
+            // ran out of slots
+            if (remaining > 0) return null;
+        }
+        return result;
+    }
+
+    /**
+     * Slots which the player can't take from or insert into keep their content, otherwise sorting would move items in
+     * or out of them.
+     */
+    private static boolean isSortable(BaseSlot slot) {
+        return !slot.isPhantom() && slot.isEnabled() && slot.isCanTake() && slot.isCanInsert();
+    }
+}
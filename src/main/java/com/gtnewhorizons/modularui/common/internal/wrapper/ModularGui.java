@@ -25,7 +25,6 @@ import net.minecraft.util.EnumChatFormatting;
 
 import org.jetbrains.annotations.Nullable;
 import org.lwjgl.input.Keyboard;
-import org.lwjgl.opengl.GL11;
 
 import com.gtnewhorizons.modularui.api.GlStateManager;
 import com.gtnewhorizons.modularui.api.drawable.GuiHelper;
@@ -37,6 +36,7 @@ import com.gtnewhorizons.modularui.api.math.Size;
 import com.gtnewhorizons.modularui.api.screen.Cursor;
 import com.gtnewhorizons.modularui.api.screen.ModularUIContext;
 import com.gtnewhorizons.modularui.api.screen.ModularWindow;
+import com.gtnewhorizons.modularui.api.screen.WindowPrototypes;
 import com.gtnewhorizons.modularui.api.widget.IDragAndDropHandler;
 import com.gtnewhorizons.modularui.api.widget.IHasStackUnderMouse;
 import com.gtnewhorizons.modularui.api.widget.IVanillaSlot;
@@ -73,13 +73,20 @@ public class ModularGui extends GuiContainer implements INEIGuiHandler {
     private int drawCalls = 0;
     private long drawTime = 0;
     private int fps = 0;
+    private int glStateIssued = 0;
+    private int glStateSkipped = 0;
 
     private float partialTicks;
 
     public ModularGui(ModularUIContainer container) {
         super(container);
         this.context = container.getContext();
-        this.context.initializeClient(this);
+        try {
+            this.context.initializeClient(this);
+        } catch (RuntimeException e) {
+            WindowPrototypes.discard(this.context.getMainWindow());
+            throw e;
+        }
     }
 
     public ModularUIContext getContext() {
@@ -122,6 +129,9 @@ public class ModularGui extends GuiContainer implements INEIGuiHandler {
     @Override
     public void drawScreen(int mouseX, int mouseY, float partialTicks) {
         mousePos = new Pos2d(mouseX, mouseY);
+        glStateIssued = GlStateManager.getIssuedStateChanges();
+        glStateSkipped = GlStateManager.getSkippedStateChanges();
+        GlStateManager.resetStateStatistics();
 
         int i = this.guiLeft;
         int j = this.guiTop;
@@ -151,7 +161,8 @@ public class ModularGui extends GuiContainer implements INEIGuiHandler {
                 GuiContainerManager.getManager().renderToolTips(mouseX, mouseY);
             }
         }
-        GL11.glDisable(GL11.GL_DEPTH_TEST);
+        GlStateManager.invalidateStateCache();
+        GlStateManager.disableDepth();
         GlStateManager.color(1.0F, 1.0F, 1.0F, 1.0F);
         RenderHelper.disableStandardItemLighting();
         this.drawGuiContainerForegroundLayer(mouseX, mouseY);
@@ -263,11 +274,12 @@ public class ModularGui extends GuiContainer implements INEIGuiHandler {
             }
             drawCalls++;
         }
-        context.forEachWindowBottomToTop(window -> window.frameUpdate(partialTicks));
+        context.getAnimations().update();
         drawDefaultBackground();
 
-        GlStateManager.disableRescaleNormal();
         RenderHelper.disableStandardItemLighting();
+        GlStateManager.beginStateTracking();
+        GlStateManager.disableRescaleNormal();
         GlStateManager.disableLighting();
         GlStateManager.disableDepth();
 
@@ -277,6 +289,7 @@ public class ModularGui extends GuiContainer implements INEIGuiHandler {
             }
         }
 
+        GlStateManager.endStateTracking();
         GlStateManager.enableRescaleNormal();
         GlStateManager.enableLighting();
         RenderHelper.enableStandardItemLighting();
@@ -325,10 +338,12 @@ public class ModularGui extends GuiContainer implements INEIGuiHandler {
             GlStateManager.disableDepth();
         }
 
+        GlStateManager.beginStateTracking();
         if (context.getCurrentWindow().isEnabled()) {
             context.getCurrentWindow().drawWidgets(partialTicks, true);
         }
         context.getCursor().draw(partialTicks);
+        GlStateManager.endStateTracking();
 
         GlStateManager.enableRescaleNormal();
         GlStateManager.enableLighting();
@@ -359,6 +374,13 @@ public class ModularGui extends GuiContainer implements INEIGuiHandler {
         lineY -= 11;
         drawString(fontRenderer, "FPS: " + fps, 5, screenSize.height - 24 - neiYOffset, color);
         lineY -= 11;
+        drawString(
+                fontRenderer,
+                "GL State Calls: " + glStateIssued + " issued, " + glStateSkipped + " skipped",
+                5,
+                lineY,
+                color);
+        lineY -= 11;
         Widget hovered = context.getCursor().findHoveredWidget(true);
         if (hovered != null) {
             Size size = hovered.getSize();
@@ -710,6 +732,9 @@ public class ModularGui extends GuiContainer implements INEIGuiHandler {
     @Override
     public void onGuiClosed() {
         context.getCloseListeners().forEach(Runnable::run);
+        // running animations reference the closed windows
+        context.getAnimations().clear();
+        WindowPrototypes.release(context.getMainWindow());
     }
 
     public boolean isDragSplitting() {
@@ -763,6 +788,8 @@ public class ModularGui extends GuiContainer implements INEIGuiHandler {
         GlStateManager.scale(scale, scale, 0f);
         float sf = 1 / scale;
         fontRenderer.drawString(text, (int) (x * sf), (int) (y * sf), color, shadow);
+        GlStateManager.resetColor();
+        GlStateManager.resetTextureBinding();
         GlStateManager.popMatrix();
         GlStateManager.enableBlend();
     }
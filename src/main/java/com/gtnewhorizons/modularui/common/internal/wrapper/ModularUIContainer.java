@@ -1,21 +1,33 @@
 package com.gtnewhorizons.modularui.common.internal.wrapper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.inventory.Container;
 import net.minecraft.inventory.ICrafting;
+import net.minecraft.inventory.InventoryBasic;
 import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
 
+import com.gtnewhorizons.modularui.api.forge.IItemHandler;
 import com.gtnewhorizons.modularui.api.forge.ItemHandlerHelper;
 import com.gtnewhorizons.modularui.api.forge.PlayerMainInvWrapper;
+import com.gtnewhorizons.modularui.api.forge.SlotItemHandler;
 import com.gtnewhorizons.modularui.api.screen.ModularUIContext;
 import com.gtnewhorizons.modularui.api.screen.ModularWindow;
+import com.gtnewhorizons.modularui.api.screen.WindowPrototypes;
+import com.gtnewhorizons.modularui.common.internal.network.CSortArea;
+import com.gtnewhorizons.modularui.common.internal.network.NetworkHandler;
+import com.gtnewhorizons.modularui.common.internal.network.SSlotsUpdate;
+import com.gtnewhorizons.modularui.config.Config;
 import com.gtnewhorizons.modularui.common.widget.SlotWidget;
 
 public class ModularUIContainer extends Container {
@@ -23,16 +35,30 @@ public class ModularUIContainer extends Container {
     private final ModularUIContext context;
     private boolean initialisedContainer = false;
     private final List<BaseSlot> sortedShiftClickSlots = new ArrayList<>();
+    private final ShiftClickIndex shiftClickIndex = new ShiftClickIndex();
+    private final SlotSyncTracker syncTracker = new SlotSyncTracker();
+    private final SlotChangeObserver changeObserver = new SlotChangeObserver(shiftClickIndex::markDirty);
+    private int ticksSinceFullPoll = 0;
+    private ItemStack[] pollBuffer = new ItemStack[0];
+
+    private final BitSet freeSlotNumbers = new BitSet();
 
     private final Map<String, List<Slot>> sortingAreas = new HashMap<>();
+    private final Map<Slot, String> slotSortingAreas = new IdentityHashMap<>();
     private final Map<String, Integer> sortRowSizes = new HashMap<>();
+    private final Map<String, Comparator<ItemStack>> sortComparators = new HashMap<>();
 
     public ModularUIContainer(ModularUIContext context, ModularWindow mainWindow, Integer interactionDisabledSlot) {
         this.context = context;
-        this.context.initialize(this, mainWindow);
-        disablePlayerSlotInteraction(interactionDisabledSlot);
-        checkSlotIds();
-        sortSlots();
+        try {
+            this.context.initialize(this, mainWindow);
+            disablePlayerSlotInteraction(interactionDisabledSlot);
+            checkSlotIds();
+            sortSlots();
+        } catch (RuntimeException e) {
+            WindowPrototypes.discard(mainWindow);
+            throw e;
+        }
         initialisedContainer = true;
     }
 
@@ -42,6 +68,7 @@ public class ModularUIContainer extends Container {
 
     public void sortSlots() {
         this.sortedShiftClickSlots.sort(Comparator.comparingInt(BaseSlot::getShiftClickPriority));
+        this.shiftClickIndex.invalidate();
     }
 
     public ModularUIContext getContext() {
@@ -57,6 +84,7 @@ public class ModularUIContainer extends Container {
         for (int i = 0; i < inventorySlots.size(); i++) {
             ((Slot) (inventorySlots.get(i))).slotNumber = i;
         }
+        this.syncTracker.invalidate();
     }
 
     public void disablePlayerSlotInteraction(Integer interactionDisabledSlot) {
@@ -68,32 +96,104 @@ public class ModularUIContainer extends Container {
         }
     }
 
+    /**
+     * Adds a slot. Slot numbers of removed slots are reused, lowest first, so adding and removing slots never renumbers
+     * other slots. Client and server add and remove slots in the same order, so they assign the same numbers.
+     */
     @Override
     public Slot addSlotToContainer(Slot slotIn) {
         if (slotIn instanceof BaseSlot && ((BaseSlot) slotIn).getShiftClickPriority() > Integer.MIN_VALUE) {
-            sortedShiftClickSlots.add((BaseSlot) slotIn);
+            if (initialisedContainer) {
+                insertShiftClickSlot((BaseSlot) slotIn);
+            } else {
+                sortedShiftClickSlots.add((BaseSlot) slotIn);
+            }
         }
-        Slot ret = super.addSlotToContainer(slotIn);
-
-        if (initialisedContainer) {
-            sortSlots();
+        int freeNumber = freeSlotNumbers.nextSetBit(0);
+        if (freeNumber < 0) {
+            super.addSlotToContainer(slotIn);
+        } else {
+            freeSlotNumbers.clear(freeNumber);
+            slotIn.slotNumber = freeNumber;
+            inventorySlots.set(freeNumber, slotIn);
+            inventoryItemStacks.set(freeNumber, null);
+            syncTracker.forget(freeNumber);
         }
-        return ret;
+        changeObserver.add(slotIn);
+        return slotIn;
     }
 
+    /**
+     * Removes a slot by replacing it with a disabled placeholder, which keeps the numbers of all other slots. Trailing
+     * placeholders are dropped right away. Slots are never renumbered while the container is open, since click packets
+     * sent before the removal would then target the wrong slot. Placeholders are reused by the next added slots.
+     */
     public void removeSlot(Slot slot) {
-        if (slot != inventorySlots.get(slot.slotNumber)) {
+        int number = slot.slotNumber;
+        if (number < 0 || number >= inventorySlots.size() || slot != inventorySlots.get(number)) {
             throw new IllegalStateException("Could not find slot in container!");
         }
-        inventorySlots.remove(slot.slotNumber);
+        changeObserver.remove(slot);
+        inventorySlots.set(number, createPlaceholderSlot(number));
+        inventoryItemStacks.set(number, null);
+        freeSlotNumbers.set(number);
+        syncTracker.forget(number);
 
-        if (slot instanceof BaseSlot && sortedShiftClickSlots.remove(slot) && initialisedContainer) {
-            sortSlots();
+        if (slot instanceof BaseSlot && removeShiftClickSlot((BaseSlot) slot)) {
+            shiftClickIndex.invalidate();
+        }
+        String area = slotSortingAreas.remove(slot);
+        if (area != null) {
+            sortingAreas.get(area).remove(slot);
+        }
+
+        int last = inventorySlots.size() - 1;
+        while (last >= 0 && freeSlotNumbers.get(last)) {
+            inventorySlots.remove(last);
+            inventoryItemStacks.remove(last);
+            freeSlotNumbers.clear(last);
+            last--;
         }
-        checkSlotIds();
-        for (List<Slot> slots : sortingAreas.values()) {
-            slots.removeIf(slot1 -> slot1 == slot);
+    }
+
+    private static Slot createPlaceholderSlot(int number) {
+        Slot placeholder = new PlaceholderSlot();
+        placeholder.slotNumber = number;
+        return placeholder;
+    }
+
+    private void insertShiftClickSlot(BaseSlot slot) {
+        // insert after all slots with the same priority, like a stable sort would
+        int index = upperBound(slot.getShiftClickPriority());
+        sortedShiftClickSlots.add(index, slot);
+        shiftClickIndex.invalidate();
+    }
+
+    private boolean removeShiftClickSlot(BaseSlot slot) {
+        int priority = slot.getShiftClickPriority();
+        for (int i = upperBound(priority) - 1; i >= 0; i--) {
+            BaseSlot other = sortedShiftClickSlots.get(i);
+            if (other == slot) {
+                sortedShiftClickSlots.remove(i);
+                return true;
+            }
+            if (other.getShiftClickPriority() != priority) break;
+        }
+        // priority was changed after the slot was added
+        return sortedShiftClickSlots.remove(slot);
+    }
+
+    private int upperBound(int priority) {
+        int low = 0, high = sortedShiftClickSlots.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedShiftClickSlots.get(mid).getShiftClickPriority() <= priority) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
+        return low;
     }
 
     public void setRowSize(String sortArea, int size) {
@@ -105,12 +205,72 @@ public class ModularUIContainer extends Container {
             throw new IllegalArgumentException("Slot is not at the expected index!");
         }
         this.sortingAreas.computeIfAbsent(area, section1 -> new ArrayList<>()).add(slot);
+        this.slotSortingAreas.put(slot, area);
+    }
+
+    /**
+     * Sets how the stacks of a sorting area are ordered. Defaults to {@link InventorySorter#DEFAULT_COMPARATOR}.
+     */
+    public void setSortComparator(String area, Comparator<ItemStack> comparator) {
+        this.sortComparators.put(area, comparator);
+    }
+
+    /**
+     * Asks the server to sort the area. Must be called on client side.
+     */
+    public void requestSort(String area) {
+        NetworkHandler.sendToServer(new CSortArea(this.windowId, area));
+    }
+
+    /**
+     * Merges and sorts the stacks of a sorting area and sends all changed slots in a single packet. Must be called on
+     * server side.
+     *
+     * @return false if the area doesn't exist or the sorted items don't fit back into the area
+     */
+    public boolean sortArea(String area) {
+        List<Slot> slots = this.sortingAreas.get(area);
+        if (slots == null || slots.isEmpty()) return false;
+        List<BaseSlot> baseSlots = new ArrayList<>(slots.size());
+        for (Slot slot : slots) {
+            baseSlots.add((BaseSlot) slot);
+        }
+        ItemStack[] sorted = InventorySorter
+                .sort(baseSlots, this.sortComparators.getOrDefault(area, InventorySorter.DEFAULT_COMPARATOR));
+        if (sorted == null) return false;
+
+        int[] changedSlots = new int[sorted.length];
+        ItemStack[] changedStacks = new ItemStack[sorted.length];
+        int changed = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            BaseSlot slot = baseSlots.get(i);
+            if (ItemStack.areItemStacksEqual(slot.getStack(), sorted[i])) continue;
+            slot.putStackWithoutSync(sorted[i]);
+            ItemStack copy = sorted[i] == null ? null : sorted[i].copy();
+            this.inventoryItemStacks.set(slot.slotNumber, copy);
+            this.syncTracker.remember(slot.slotNumber, slot, slot.getStack());
+            this.shiftClickIndex.markDirty(slot.slotNumber);
+            changedSlots[changed] = slot.slotNumber;
+            changedStacks[changed++] = copy;
+        }
+        if (changed > 0) {
+            SSlotsUpdate packet = new SSlotsUpdate(
+                    this.windowId,
+                    Arrays.copyOf(changedSlots, changed),
+                    Arrays.copyOf(changedStacks, changed));
+            for (Object listener : this.crafters) {
+                if (listener instanceof EntityPlayerMP) {
+                    NetworkHandler.sendToPlayer(packet, (EntityPlayerMP) listener);
+                }
+            }
+        }
+        return true;
     }
 
     @Override
     public void detectAndSendChanges() {
         if (getContext().isClient()) return; // this can actually happen with Container#slotClick
-        super.detectAndSendChanges();
+        detectSlotChanges();
         if (context.getValidator() != null && !context.getValidator().get()) {
             context.tryClose();
         }
@@ -124,7 +284,118 @@ public class ModularUIContainer extends Container {
         });
     }
 
+    /**
+     * Same as {@link Container#detectAndSendChanges}, but only visits slots whose handler reported a change and slots
+     * whose handler can't report changes. All slots are still checked every {@link Config#slotPollInterval} ticks to
+     * catch changes made behind the handlers' back.
+     */
+    protected void detectSlotChanges() {
+        int size = this.inventorySlots.size();
+        BitSet dirtySlots = this.changeObserver.getDirtySlots();
+        if (++this.ticksSinceFullPoll >= Config.slotPollInterval) {
+            this.ticksSinceFullPoll = 0;
+            dirtySlots.clear();
+            pollAllSlots(size);
+            return;
+        }
+        for (int i = dirtySlots.nextSetBit(0); i >= 0 && i < size; i = dirtySlots.nextSetBit(i + 1)) {
+            detectSlotChange(i, ((Slot) this.inventorySlots.get(i)).getStack(), false);
+        }
+        dirtySlots.clear();
+        for (Slot slot : this.changeObserver.getUnobservedSlots()) {
+            detectSlotChange(slot.slotNumber, slot.getStack(), false);
+        }
+    }
+
+    /**
+     * Checks all slots. Consecutive slots which show consecutive slots of the same handler read their stacks with a
+     * single {@link IItemHandler#copyStacks} call. Slots which read their handler directly always use it, so handlers
+     * like {@link com.gtnewhorizons.modularui.api.forge.CompactItemStackHandler} don't create a stack per slot.
+     */
+    private void pollAllSlots(int size) {
+        for (int i = 0; i < size;) {
+            int run = getHandlerRun(i, size);
+            if (run > 0) {
+                SlotItemHandler first = (SlotItemHandler) this.inventorySlots.get(i);
+                if (this.pollBuffer.length < run) {
+                    this.pollBuffer = new ItemStack[run];
+                }
+                int index = first.getSlotIndex();
+                first.getItemHandler().copyStacks(index, index + run, this.pollBuffer, 0);
+                for (int j = 0; j < run; j++) {
+                    detectSlotChange(i + j, this.pollBuffer[j], true);
+                }
+                Arrays.fill(this.pollBuffer, 0, run, null);
+            } else {
+                detectSlotChange(i, ((Slot) this.inventorySlots.get(i)).getStack(), true);
+                run = 1;
+            }
+            i += run;
+        }
+    }
+
+    /**
+     * @return amount of slots starting at i which show consecutive slots of the same handler or 0 if the slot at i
+     *         can't be read through its handler
+     */
+    private int getHandlerRun(int i, int size) {
+        Slot first = (Slot) this.inventorySlots.get(i);
+        if (!readsHandlerDirectly(first)) return 0;
+        IItemHandler handler = ((SlotItemHandler) first).getItemHandler();
+        int index = first.getSlotIndex();
+        int slots = handler.getSlots();
+        if (index < 0 || index >= slots) return 0;
+        int run = 1;
+        while (i + run < size && index + run < slots) {
+            Slot next = (Slot) this.inventorySlots.get(i + run);
+            if (!readsHandlerDirectly(next) || ((SlotItemHandler) next).getItemHandler() != handler
+                    || next.getSlotIndex() != index + run) {
+                break;
+            }
+            run++;
+        }
+        return run;
+    }
+
+    private static boolean readsHandlerDirectly(Slot slot) {
+        // subclasses may override getStack
+        return slot.getClass() == BaseSlot.class || slot.getClass() == SlotItemHandler.class;
+    }
+
+    /**
+     * @param fullPoll true to always compare with the last sent stack, false to skip slots the tracker sees as
+     *                 unchanged
+     */
+    @SuppressWarnings("unchecked")
+    private void detectSlotChange(int i, ItemStack current, boolean fullPoll) {
+        Slot slot = (Slot) this.inventorySlots.get(i);
+        if (!fullPoll && this.syncTracker.isUnchanged(i, slot, current)) return;
+        ItemStack last = (ItemStack) this.inventoryItemStacks.get(i);
+        if (!ItemStack.areItemStacksEqual(last, current)) {
+            last = current == null ? null : current.copy();
+            this.inventoryItemStacks.set(i, last);
+            this.shiftClickIndex.markDirty(i);
+            for (Object listener : this.crafters) {
+                ((ICrafting) (listener)).sendSlotContents(this, i, last);
+            }
+        }
+        this.syncTracker.remember(i, slot, current);
+    }
+
+    @Override
+    public void onContainerClosed(EntityPlayer player) {
+        super.onContainerClosed(player);
+        this.changeObserver.clear();
+        if (!getContext().isClient()) {
+            WindowPrototypes.release(getContext().getMainWindow());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
     public void sendSlotChange(ItemStack stack, int index) {
+        // keep the last sent stack up to date, so the change is not sent again
+        this.inventoryItemStacks.set(index, stack == null ? null : stack.copy());
+        this.syncTracker.remember(index, (Slot) this.inventorySlots.get(index), stack);
         for (Object listener : this.crafters) {
             ((ICrafting) (listener)).sendSlotContents(this, index, stack);
         }
@@ -134,6 +405,7 @@ public class ModularUIContainer extends Container {
     public void putStackInSlot(int p_75141_1_, ItemStack p_75141_2_) {
         try {
             super.putStackInSlot(p_75141_1_, p_75141_2_);
+            this.shiftClickIndex.markDirty(p_75141_1_);
         } catch (IndexOutOfBoundsException e) {
             // This can legitimately happen (though not easy to reproduce):
             // 1. player opens container
@@ -148,13 +420,17 @@ public class ModularUIContainer extends Container {
     public ItemStack slotClick(int slotId, int dragType, int clickTypeIn, EntityPlayer player) {
         if (slotId >= 0 && slotId < this.inventorySlots.size()) {
             Slot slot = (Slot) this.inventorySlots.get(slotId);
+            if (slot instanceof PlaceholderSlot) return null;
             if (slot instanceof BaseSlot && !((BaseSlot) slot).isEnabled()) return null;
         }
-        return super.slotClick(slotId, dragType, clickTypeIn, player);
+        ItemStack result = super.slotClick(slotId, dragType, clickTypeIn, player);
+        this.shiftClickIndex.markDirty(slotId);
+        return result;
     }
 
     @Override
     public boolean canDragIntoSlot(Slot slot) {
+        if (slot instanceof PlaceholderSlot) return false;
         if (slot instanceof BaseSlot && !((BaseSlot) slot).isEnabled()) return false;
         return super.canDragIntoSlot(slot);
     }
@@ -172,6 +448,7 @@ public class ModularUIContainer extends Container {
                 if (stack.stackSize < 1) {
                     slot.putStack(null);
                 }
+                shiftClickIndex.markDirty(index);
                 if (!ItemStack.areItemStacksEqual(original, remainder)) {
                     return original;
                 }
@@ -181,81 +458,116 @@ public class ModularUIContainer extends Container {
     }
 
     protected ItemStack transferItem(BaseSlot fromSlot, ItemStack fromStack) {
-        // slice slots based on priorities and handle transfer for each same-priority slots
-        List<List<BaseSlot>> priorityList = new ArrayList<>();
-        List<BaseSlot> tmpSlots = new ArrayList<>();
-        int lastPriority = Integer.MAX_VALUE;
-        for (BaseSlot slot : this.sortedShiftClickSlots) {
-            if (fromSlot.getShiftClickPriority() == slot.getShiftClickPriority()
-                    && fromSlot.getItemHandler() == slot.getItemHandler())
-                continue;
-            if (!slot.canInsert || !slot.isItemValidPhantom(fromStack) || !slot.isEnabled()) continue;
-            if (lastPriority != slot.getShiftClickPriority() && !tmpSlots.isEmpty()) {
-                priorityList.add(tmpSlots);
-                tmpSlots = new ArrayList<>();
-            }
-            lastPriority = slot.getShiftClickPriority();
-            tmpSlots.add(slot);
-        }
-        if (!tmpSlots.isEmpty()) {
-            priorityList.add(tmpSlots);
-        }
+        // handle transfer for each bucket of same-priority slots
+        for (ShiftClickIndex.Bucket bucket : shiftClickIndex.getBuckets(this.sortedShiftClickSlots)) {
+            boolean skipSameHandler = fromSlot.getShiftClickPriority() == bucket.getPriority();
 
-        for (List<BaseSlot> samePrioritySlots : priorityList) {
             // try to merge to existing stacks first
-            for (BaseSlot toSlot : samePrioritySlots) {
-                ItemStack toStack = toSlot.getStack();
-                if (toSlot.isPhantom()) {
-                    if (ItemHandlerHelper.canItemStacksStackRelaxed(fromStack, toStack)) {
-                        ItemStack toPush = fromStack.copy();
-                        if (!((SlotWidget) toSlot.getParentWidget()).canControlAmount()) {
-                            toPush.stackSize = 1;
-                        } else {
-                            toPush.stackSize = Math.min(fromStack.stackSize, toSlot.getItemStackLimit(fromStack));
-                        }
-                        toSlot.putStack(toPush);
+            BitSet candidates = fromStack.isStackable() ? shiftClickIndex.getCandidates(bucket, fromStack) : null;
+            if (candidates != null) {
+                for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                    BaseSlot toSlot = bucket.getSlot(i);
+                    if (!canShiftClickInto(toSlot, fromSlot, fromStack, skipSameHandler)) continue;
+                    ItemStack toStack = toSlot.getStack();
+                    if (!ItemHandlerHelper.canItemStacksStackRelaxed(fromStack, toStack)) continue;
+                    if (toSlot.isPhantom()) {
+                        putPhantom(toSlot, fromStack);
+                        bucket.update(i);
                         return fromStack;
                     }
-                } else if (toStack != null) {
                     int maxSize = Math.min(toSlot.getSlotStackLimit(), fromStack.getMaxStackSize());
-                    if (ItemHandlerHelper.canItemStacksStackRelaxed(fromStack, toStack)) {
-                        int toMove = Math.max(Math.min(maxSize - toStack.stackSize, fromStack.stackSize), 0);
-                        fromStack.stackSize -= toMove;
-                        toStack.stackSize += toMove;
-                        toSlot.onSlotChanged();
-                        if (fromStack.stackSize < 1) {
-                            return fromStack;
-                        }
+                    int toMove = Math.max(Math.min(maxSize - toStack.stackSize, fromStack.stackSize), 0);
+                    fromStack.stackSize -= toMove;
+                    toStack.stackSize += toMove;
+                    toSlot.onSlotChanged();
+                    if (fromStack.stackSize < 1) {
+                        return fromStack;
                     }
                 }
             }
 
             // push to empty slots
-            for (BaseSlot toSlot : samePrioritySlots) {
-                ItemStack toStack = toSlot.getStack();
-                if (toStack != null) continue;
+            BitSet empty = bucket.getEmptySlots();
+            for (int i = empty.nextSetBit(0); i >= 0; i = empty.nextSetBit(i + 1)) {
+                BaseSlot toSlot = bucket.getSlot(i);
+                if (toSlot.getStack() != null) continue;
+                if (!canShiftClickInto(toSlot, fromSlot, fromStack, skipSameHandler)) continue;
                 if (toSlot.isPhantom()) {
-                    ItemStack toPush = fromStack.copy();
-                    if (!((SlotWidget) toSlot.getParentWidget()).canControlAmount()) {
-                        toPush.stackSize = 1;
-                    } else {
-                        toPush.stackSize = Math.min(fromStack.stackSize, toSlot.getItemStackLimit(fromStack));
-                    }
-                    toSlot.putStack(toPush);
+                    putPhantom(toSlot, fromStack);
+                    bucket.update(i);
+                    return fromStack;
+                }
+                int maxSize = Math.min(toSlot.getSlotStackLimit(), fromStack.getMaxStackSize());
+                int toMove = Math.min(maxSize, fromStack.stackSize);
+                ItemStack newStack = fromStack.copy();
+                fromStack.stackSize -= toMove;
+                newStack.stackSize = toMove;
+                toSlot.putStack(newStack);
+                bucket.update(i);
+                if (fromStack.stackSize < 1) {
                     return fromStack;
-                } else {
-                    int maxSize = Math.min(toSlot.getSlotStackLimit(), fromStack.getMaxStackSize());
-                    int toMove = Math.min(maxSize, fromStack.stackSize);
-                    ItemStack newStack = fromStack.copy();
-                    fromStack.stackSize -= toMove;
-                    newStack.stackSize = toMove;
-                    toSlot.putStack(newStack);
-                    if (fromStack.stackSize < 1) {
-                        return fromStack;
-                    }
                 }
             }
         }
         return fromStack;
     }
+
+    private static boolean canShiftClickInto(BaseSlot toSlot, BaseSlot fromSlot, ItemStack fromStack,
+            boolean skipSameHandler) {
+        if (skipSameHandler && fromSlot.getItemHandler() == toSlot.getItemHandler()) return false;
+        return toSlot.canInsert && toSlot.isItemValidPhantom(fromStack) && toSlot.isEnabled();
+    }
+
+    private static void putPhantom(BaseSlot toSlot, ItemStack fromStack) {
+        ItemStack toPush = fromStack.copy();
+        if (!((SlotWidget) toSlot.getParentWidget()).canControlAmount()) {
+            toPush.stackSize = 1;
+        } else {
+            toPush.stackSize = Math.min(fromStack.stackSize, toSlot.getItemStackLimit(fromStack));
+        }
+        toSlot.putStack(toPush);
+    }
+
+    /**
+     * Takes the number of a removed slot. Packets for the removed slot can still arrive on the client, so it has its own
+     * inventory and ignores everything written to it.
+     */
+    private static class PlaceholderSlot extends Slot {
+
+        private PlaceholderSlot() {
+            super(new InventoryBasic("placeholder", false, 1), 0, 0, 0);
+        }
+
+        @Override
+        public ItemStack getStack() {
+            return null;
+        }
+
+        @Override
+        public void putStack(ItemStack stack) {}
+
+        @Override
+        public void onSlotChanged() {}
+
+        @Override
+        public ItemStack decrStackSize(int amount) {
+            return null;
+        }
+
+        @Override
+        public boolean isItemValid(ItemStack stack) {
+            return false;
+        }
+
+        @Override
+        public boolean canTakeStack(EntityPlayer player) {
+            return false;
+        }
+
+        @Override
+        public boolean func_111238_b() {
+            // not drawn or hovered
+            return false;
+        }
+    }
 }
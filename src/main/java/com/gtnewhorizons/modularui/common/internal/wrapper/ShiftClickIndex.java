@@ -0,0 +1,173 @@
+package com.gtnewhorizons.modularui.common.internal.wrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.item.ItemStack;
+
+import com.gtnewhorizons.modularui.api.forge.ItemKey;
+
+/**
+ * Shift click targets of a {@link ModularUIContainer}, grouped into buckets of the same priority. Each bucket indexes
+ * its slots by the item they hold and keeps track of the empty ones, so a transfer only has to look at slots which can
+ * actually take the item.
+ * <p>
+ * The container reports changed slots with {@link #markDirty(int)}, from the handlers' change listeners, from its own
+ * slot changes and from the changes it detects each tick. Only those slots are re-indexed before the next lookup.
+ * Candidates can still be outdated for up to a tick, so they must be checked against the actual stack.
+ */
+public class ShiftClickIndex {
+
+    private final List<Bucket> buckets = new ArrayList<>();
+    private final ItemKey lookupKey = new ItemKey();
+    private final BitSet dirtySlots = new BitSet();
+    // bucket and position in the bucket by slot number, -1 if the slot is not a shift click target
+    private int[] slotBuckets = new int[0];
+    private int[] slotPositions = new int[0];
+    private boolean dirty = true;
+
+    /**
+     * Called when the shift click slots or their numbers changed. The buckets are rebuilt before the next lookup.
+     */
+    public void invalidate() {
+        this.dirty = true;
+    }
+
+    /**
+     * Called when the content of a slot changed. The slot is re-indexed before the next lookup.
+     *
+     * @param slotNumber number of the slot in the container
+     */
+    public void markDirty(int slotNumber) {
+        if (slotNumber >= 0) {
+            this.dirtySlots.set(slotNumber);
+        }
+    }
+
+    /**
+     * @param sortedSlots shift click slots sorted by priority
+     * @return up-to-date buckets in priority order
+     */
+    public List<Bucket> getBuckets(List<BaseSlot> sortedSlots) {
+        if (dirty) {
+            rebuild(sortedSlots);
+        } else {
+            for (int i = dirtySlots.nextSetBit(0); i >= 0 && i < slotBuckets.length; i = dirtySlots.nextSetBit(i + 1)) {
+                if (slotBuckets[i] >= 0) {
+                    buckets.get(slotBuckets[i]).update(slotPositions[i]);
+                }
+            }
+        }
+        dirtySlots.clear();
+        return buckets;
+    }
+
+    private void rebuild(List<BaseSlot> sortedSlots) {
+        buckets.clear();
+        int maxNumber = -1;
+        for (BaseSlot slot : sortedSlots) {
+            maxNumber = Math.max(maxNumber, slot.slotNumber);
+        }
+        slotBuckets = new int[maxNumber + 1];
+        slotPositions = new int[maxNumber + 1];
+        Arrays.fill(slotBuckets, -1);
+        int start = 0;
+        for (int i = 1; i <= sortedSlots.size(); i++) {
+            if (i == sortedSlots.size()
+                    || sortedSlots.get(i).getShiftClickPriority() != sortedSlots.get(start).getShiftClickPriority()) {
+                List<BaseSlot> bucketSlots = sortedSlots.subList(start, i);
+                for (int j = 0; j < bucketSlots.size(); j++) {
+                    int number = bucketSlots.get(j).slotNumber;
+                    if (number >= 0) {
+                        slotBuckets[number] = buckets.size();
+                        slotPositions[number] = j;
+                    }
+                }
+                buckets.add(new Bucket(bucketSlots));
+                start = i;
+            }
+        }
+        dirty = false;
+    }
+
+    /**
+     * Slots in a bucket which hold an item that may stack with the given one. Candidates still need to be checked with
+     * {@link com.gtnewhorizons.modularui.api.forge.ItemHandlerHelper#canItemStacksStackRelaxed}.
+     *
+     * @return slot positions in the bucket or null if there are none
+     */
+    public BitSet getCandidates(Bucket bucket, ItemStack stack) {
+        lookupKey.set(stack);
+        return bucket.byItem.get(lookupKey);
+    }
+
+    public static class Bucket {
+
+        private final BaseSlot[] slots;
+        private final ItemKey[] keys;
+        private final Map<ItemKey, BitSet> byItem = new HashMap<>();
+        private final BitSet empty = new BitSet();
+
+        private Bucket(List<BaseSlot> slots) {
+            this.slots = slots.toArray(new BaseSlot[0]);
+            this.keys = new ItemKey[this.slots.length];
+            for (int i = 0; i < this.slots.length; i++) {
+                index(i, this.slots[i].getStack());
+            }
+        }
+
+        public int getPriority() {
+            return slots[0].getShiftClickPriority();
+        }
+
+        public BaseSlot getSlot(int i) {
+            return slots[i];
+        }
+
+        /**
+         * @return positions of all slots which were empty when they were last indexed
+         */
+        public BitSet getEmptySlots() {
+            return empty;
+        }
+
+        /**
+         * Re-indexes a slot after its content was changed.
+         */
+        public void update(int i) {
+            // the stack may have been changed in place, so it's always indexed again
+            unindex(i);
+            index(i, slots[i].getStack());
+        }
+
+        private void index(int i, ItemStack stack) {
+            if (stack == null || stack.stackSize <= 0) {
+                keys[i] = null;
+                empty.set(i);
+                return;
+            }
+            ItemKey key = ItemKey.of(stack);
+            keys[i] = key;
+            byItem.computeIfAbsent(key, k -> new BitSet()).set(i);
+        }
+
+        private void unindex(int i) {
+            ItemKey key = keys[i];
+            if (key == null) {
+                empty.clear(i);
+                return;
+            }
+            BitSet bits = byItem.get(key);
+            if (bits != null) {
+                bits.clear(i);
+                if (bits.isEmpty()) {
+                    byItem.remove(key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.gtnewhorizons.modularui.common.internal.wrapper;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import net.minecraft.inventory.Slot;
+
+import com.gtnewhorizons.modularui.api.forge.CompactItemStackHandler;
+import com.gtnewhorizons.modularui.api.forge.IItemHandler;
+import com.gtnewhorizons.modularui.api.forge.ListItemHandler;
+import com.gtnewhorizons.modularui.api.forge.RangedWrapper;
+import com.gtnewhorizons.modularui.api.forge.SlotItemHandler;
+
+/**
+ * Listens to the item handlers of container slots and collects the numbers of slots which changed. Slots of handlers
+ * which don't report changes are kept as unobserved and have to be polled.
+ */
+public class SlotChangeObserver {
+
+    private final Map<IItemHandler, Subscription> subscriptions = new IdentityHashMap<>();
+    private final Set<Slot> unobserved = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final BitSet dirtySlots = new BitSet();
+    private final IntConsumer onChange;
+
+    public SlotChangeObserver() {
+        this(slotNumber -> {});
+    }
+
+    /**
+     * @param onChange called with the number of each slot whose handler reported a change
+     */
+    public SlotChangeObserver(IntConsumer onChange) {
+        this.onChange = onChange;
+    }
+
+    public void add(Slot slot) {
+        this.dirtySlots.set(slot.slotNumber);
+        if (!(slot instanceof SlotItemHandler)) {
+            this.unobserved.add(slot);
+            return;
+        }
+        IItemHandler handler = ((SlotItemHandler) slot).getItemHandler();
+        Subscription subscription = this.subscriptions.get(handler);
+        if (subscription == null) {
+            subscription = new Subscription();
+            subscription.remover = handler.addSlotChangeListener(subscription);
+            this.subscriptions.put(handler, subscription);
+        }
+        if (subscription.remover == null) {
+            this.unobserved.add(slot);
+        }
+        subscription.slots.computeIfAbsent(slot.getSlotIndex(), index -> new ArrayList<>(1)).add(slot);
+        subscription.count++;
+    }
+
+    public void remove(Slot slot) {
+        this.dirtySlots.clear(slot.slotNumber);
+        this.unobserved.remove(slot);
+        if (!(slot instanceof SlotItemHandler)) return;
+        IItemHandler handler = ((SlotItemHandler) slot).getItemHandler();
+        Subscription subscription = this.subscriptions.get(handler);
+        if (subscription == null) return;
+        List<Slot> slots = subscription.slots.get(slot.getSlotIndex());
+        if (slots != null && slots.remove(slot) && slots.isEmpty()) {
+            subscription.slots.remove(slot.getSlotIndex());
+        }
+        if (--subscription.count <= 0) {
+            if (subscription.remover != null) {
+                subscription.remover.run();
+            }
+            this.subscriptions.remove(handler);
+        }
+    }
+
+    /**
+     * Removes all listeners from the handlers and writes back the stack views of compact handlers. Must be called when
+     * the container is closed.
+     */
+    public void clear() {
+        for (Map.Entry<IItemHandler, Subscription> entry : this.subscriptions.entrySet()) {
+            Subscription subscription = entry.getValue();
+            if (subscription.remover != null) {
+                subscription.remover.run();
+            }
+            flushViews(entry.getKey());
+        }
+        this.subscriptions.clear();
+        this.unobserved.clear();
+        this.dirtySlots.clear();
+    }
+
+    /**
+     * Flushes compact handlers, also when they are wrapped.
+     */
+    private static void flushViews(IItemHandler handler) {
+        if (handler instanceof CompactItemStackHandler) {
+            ((CompactItemStackHandler) handler).flushViews();
+        } else if (handler instanceof RangedWrapper) {
+            flushViews(((RangedWrapper) handler).getCompose());
+        } else if (handler instanceof ListItemHandler) {
+            for (IItemHandler inner : ((ListItemHandler) handler).getHandlers()) {
+                flushViews(inner);
+            }
+        }
+    }
+
+    /**
+     * @return numbers of slots which changed since this was last cleared
+     */
+    public BitSet getDirtySlots() {
+        return this.dirtySlots;
+    }
+
+    public Collection<Slot> getUnobservedSlots() {
+        return this.unobserved;
+    }
+
+    private class Subscription implements IntConsumer {
+
+        private final Map<Integer, List<Slot>> slots = new HashMap<>();
+        private Runnable remover;
+        private int count = 0;
+
+        @Override
+        public void accept(int index) {
+            if (index < 0) {
+                for (List<Slot> list : this.slots.values()) {
+                    markDirty(list);
+                }
+            } else {
+                List<Slot> list = this.slots.get(index);
+                if (list != null) {
+                    markDirty(list);
+                }
+            }
+        }
+
+        private void markDirty(List<Slot> list) {
+            for (int i = 0; i < list.size(); i++) {
+                int slotNumber = list.get(i).slotNumber;
+                dirtySlots.set(slotNumber);
+                onChange.accept(slotNumber);
+            }
+        }
+    }
+}
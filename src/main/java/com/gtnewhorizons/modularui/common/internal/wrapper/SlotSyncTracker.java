@@ -0,0 +1,79 @@
+package com.gtnewhorizons.modularui.common.internal.wrapper;
+
+import java.util.Arrays;
+
+import net.minecraft.inventory.Slot;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import com.gtnewhorizons.modularui.api.forge.IItemHandler;
+import com.gtnewhorizons.modularui.api.forge.SlotItemHandler;
+
+/**
+ * Remembers the handler version and the stack of each container slot at the time it was last synced. A slot is
+ * unchanged if its handler reports the same version and the stack is the same object with the same item, amount and
+ * damage, which catches changes made to the stack directly. Only then the deep comparison with the last sent stack is
+ * skipped. Tags can be edited in place without any trace, so stacks with a tag are always compared.
+ */
+public class SlotSyncTracker {
+
+    private long[] versions = new long[0];
+    private ItemStack[] stacks = new ItemStack[0];
+    private Item[] items = new Item[0];
+    private int[] sizes = new int[0];
+    private int[] damages = new int[0];
+
+    /**
+     * Forgets all slots. Called when slots are added or removed.
+     */
+    public void invalidate() {
+        Arrays.fill(versions, IItemHandler.UNVERSIONED);
+    }
+
+    /**
+     * Forgets a single slot, e.g. because a different slot now has its number.
+     */
+    public void forget(int i) {
+        if (i < versions.length) {
+            versions[i] = IItemHandler.UNVERSIONED;
+            stacks[i] = null;
+        }
+    }
+
+    public boolean isUnchanged(int i, Slot slot, ItemStack stack) {
+        if (i >= versions.length || versions[i] == IItemHandler.UNVERSIONED || stack != stacks[i]) return false;
+        if (getVersion(slot) != versions[i]) return false;
+        return stack == null || (stack.getItem() == items[i] && stack.stackSize == sizes[i]
+                && stack.getItemDamage() == damages[i]
+                && stack.getTagCompound() == null);
+    }
+
+    public void remember(int i, Slot slot, ItemStack stack) {
+        if (i >= versions.length) {
+            int oldLength = versions.length;
+            int length = Math.max(i + 1, oldLength * 2);
+            versions = Arrays.copyOf(versions, length);
+            Arrays.fill(versions, oldLength, length, IItemHandler.UNVERSIONED);
+            stacks = Arrays.copyOf(stacks, length);
+            items = Arrays.copyOf(items, length);
+            sizes = Arrays.copyOf(sizes, length);
+            damages = Arrays.copyOf(damages, length);
+        }
+        versions[i] = getVersion(slot);
+        stacks[i] = stack;
+        if (stack == null) {
+            items[i] = null;
+        } else {
+            items[i] = stack.getItem();
+            sizes[i] = stack.stackSize;
+            damages[i] = stack.getItemDamage();
+        }
+    }
+
+    private static long getVersion(Slot slot) {
+        if (slot instanceof SlotItemHandler) {
+            return ((SlotItemHandler) slot).getItemHandler().getSlotVersion(slot.getSlotIndex());
+        }
+        return IItemHandler.UNVERSIONED;
+    }
+}
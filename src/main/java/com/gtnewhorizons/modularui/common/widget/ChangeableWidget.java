@@ -2,9 +2,15 @@ package com.gtnewhorizons.modularui.common.widget;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import net.minecraft.network.PacketBuffer;
@@ -13,6 +19,7 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import com.gtnewhorizons.modularui.ModularUI;
 import com.gtnewhorizons.modularui.api.math.Size;
 import com.gtnewhorizons.modularui.api.widget.ISyncedWidget;
 import com.gtnewhorizons.modularui.api.widget.IWidgetParent;
@@ -30,6 +37,8 @@ public class ChangeableWidget extends Widget implements ISyncedWidget, IWidgetPa
     private Widget queuedChild = null;
 
     private final Supplier<Widget> widgetSupplier;
+    @Nullable
+    private final Keyed<?> keyed;
     private boolean initialised = false;
     private boolean firstTick = true;
 
@@ -41,6 +50,28 @@ public class ChangeableWidget extends Widget implements ISyncedWidget, IWidgetPa
      */
     public ChangeableWidget(Supplier<Widget> widgetSupplier) {
         this.widgetSupplier = widgetSupplier;
+        this.keyed = null;
+    }
+
+    private <K> ChangeableWidget(MultiChildWidget container, Supplier<List<K>> keySupplier,
+            Function<K, Widget> factory) {
+        this.widgetSupplier = null;
+        this.keyed = new Keyed<>(container, keySupplier, factory);
+        this.child.add(container);
+    }
+
+    /**
+     * Creates a widget which children are reconciled by key on each change instead of being replaced. On a change, only
+     * widgets for new keys are created and only widgets of removed keys are destroyed. Widgets of keys which are still
+     * there are kept together with their sync state. Keys must be unique and implement equals and hashCode.
+     *
+     * @param container   lays out the keyed widgets in the order of the keys, e.g. a {@link Column}
+     * @param keySupplier supplies the current keys, must return the same keys on client and server
+     * @param factory     creates the widget for a new key
+     */
+    public static <K> ChangeableWidget keyed(MultiChildWidget container, Supplier<List<K>> keySupplier,
+            Function<K, Widget> factory) {
+        return new ChangeableWidget(container, keySupplier, factory);
     }
 
     @Override
@@ -77,18 +108,29 @@ public class ChangeableWidget extends Widget implements ISyncedWidget, IWidgetPa
     }
 
     private void notifyChange(boolean sync) {
-        if (this.widgetSupplier == null || !isInitialised()) {
+        if ((this.widgetSupplier == null && this.keyed == null) || !isInitialised()) {
             return;
         }
         if (sync && !isClient()) {
             syncToClient(0, NetworkUtils.EMPTY_PACKET);
         }
-        removeCurrentChild();
-        this.queuedChild = this.widgetSupplier.get();
+        if (this.keyed != null) {
+            this.keyed.queue();
+        } else {
+            removeCurrentChild();
+            this.queuedChild = this.widgetSupplier.get();
+        }
         this.initialised = false;
     }
 
     private void initQueuedChild() {
+        if (this.keyed != null) {
+            if (this.keyed.reconcile()) {
+                this.initialised = true;
+            }
+            checkNeedsRebuild();
+            return;
+        }
         if (this.queuedChild != null) {
             final Consumer<Widget> initChildrenWrapper = widget -> {
                 if (widget instanceof IWidgetParent) {
@@ -115,6 +157,10 @@ public class ChangeableWidget extends Widget implements ISyncedWidget, IWidgetPa
     }
 
     public void removeCurrentChild() {
+        if (this.keyed != null) {
+            this.keyed.clear();
+            return;
+        }
         if (!this.child.isEmpty()) {
             Widget widget = this.child.get(0);
             widget.setEnabled(false);
@@ -133,7 +179,9 @@ public class ChangeableWidget extends Widget implements ISyncedWidget, IWidgetPa
         if (init) {
             notifyChangeServer();
         }
-        if (this.initialised && !this.child.isEmpty()) {
+        if (this.initialised && this.keyed != null) {
+            this.keyed.detectAndSendChanges();
+        } else if (this.initialised && !this.child.isEmpty()) {
             final Consumer<Widget> detectAndSendChangesWrapper = widget -> {
                 if (widget instanceof ISyncedWidget) {
                     ((ISyncedWidget) widget).detectAndSendChanges(firstTick);
@@ -181,4 +229,127 @@ public class ChangeableWidget extends Widget implements ISyncedWidget, IWidgetPa
     public List<Widget> getChildren() {
         return this.child;
     }
+
+    private static void forSubtree(Widget widget, Consumer<Widget> consumer) {
+        if (widget instanceof IWidgetParent) consumer.accept(widget);
+        IWidgetParent.forEachByLayer(widget, consumer);
+    }
+
+    private class Keyed<K> {
+
+        private final MultiChildWidget container;
+        private final Supplier<List<K>> keySupplier;
+        private final Function<K, Widget> factory;
+        private Map<K, Entry> live = new HashMap<>();
+        // ids are freed and allocated in the same order on both sides
+        private final BitSet usedIds = new BitSet();
+        @Nullable
+        private List<K> queuedKeys;
+
+        private Keyed(MultiChildWidget container, Supplier<List<K>> keySupplier, Function<K, Widget> factory) {
+            this.container = container;
+            this.keySupplier = keySupplier;
+            this.factory = factory;
+        }
+
+        private void queue() {
+            this.queuedKeys = keySupplier.get();
+        }
+
+        private boolean reconcile() {
+            if (queuedKeys == null) return false;
+            List<K> keys = queuedKeys;
+            this.queuedKeys = null;
+            Set<K> keySet = new HashSet<>(keys);
+            live.entrySet().removeIf(entry -> {
+                if (keySet.contains(entry.getKey())) return false;
+                destroy(entry.getValue());
+                return true;
+            });
+            Map<K, Entry> next = new HashMap<>();
+            List<Widget> children = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                if (next.containsKey(key)) {
+                    ModularUI.logger.error("Duplicate key {} in keyed ChangeableWidget", key);
+                    continue;
+                }
+                Entry entry = live.get(key);
+                if (entry == null) {
+                    Widget widget = factory.apply(key);
+                    if (widget == null) continue;
+                    entry = create(widget);
+                }
+                next.put(key, entry);
+                children.add(entry.widget);
+            }
+            this.live = next;
+            container.children.clear();
+            container.children.addAll(children);
+            container.checkNeedsRebuild();
+            return true;
+        }
+
+        private Entry create(Widget widget) {
+            Consumer<Widget> initChildren = w -> {
+                if (w instanceof IWidgetParent) {
+                    ((IWidgetParent) w).initChildren();
+                }
+            };
+            initChildren.accept(widget);
+            IWidgetParent.forEachByLayer(widget, initChildren);
+            Entry entry = new Entry(widget);
+            forSubtree(widget, w -> {
+                if (w instanceof ISyncedWidget) {
+                    int id = usedIds.nextClearBit(1);
+                    getWindow().addDynamicSyncedWidget(id, (ISyncedWidget) w, ChangeableWidget.this);
+                    usedIds.set(id);
+                    entry.syncIds.add(id);
+                }
+            });
+            widget.initialize(getWindow(), container, container.getLayer() + 1);
+            return entry;
+        }
+
+        private void destroy(Entry entry) {
+            Widget widget = entry.widget;
+            widget.setEnabled(false);
+            if (widget instanceof IWidgetParent) {
+                widget.onPause();
+                widget.onDestroy();
+            }
+            IWidgetParent.forEachByLayer(widget, Widget::onPause);
+            IWidgetParent.forEachByLayer(widget, Widget::onDestroy);
+            entry.syncIds.forEach(usedIds::clear);
+        }
+
+        private void clear() {
+            live.values().forEach(this::destroy);
+            live.clear();
+            container.children.clear();
+            container.checkNeedsRebuild();
+        }
+
+        private void detectAndSendChanges() {
+            for (Entry entry : live.values()) {
+                boolean init = entry.fresh;
+                forSubtree(entry.widget, widget -> {
+                    if (widget instanceof ISyncedWidget) {
+                        ((ISyncedWidget) widget).detectAndSendChanges(init);
+                    }
+                });
+                entry.fresh = false;
+            }
+        }
+    }
+
+    private static class Entry {
+
+        private final Widget widget;
+        private final List<Integer> syncIds = new ArrayList<>();
+        private boolean fresh = true;
+
+        private Entry(Widget widget) {
+            this.widget = widget;
+        }
+    }
 }
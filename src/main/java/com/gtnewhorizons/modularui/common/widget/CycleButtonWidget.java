@@ -23,7 +23,10 @@ import com.gtnewhorizons.modularui.api.drawable.UITexture;
 import com.gtnewhorizons.modularui.api.math.Color;
 import com.gtnewhorizons.modularui.api.math.Pos2d;
 import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.property.IntProperty;
 import com.gtnewhorizons.modularui.api.widget.Interactable;
+import com.gtnewhorizons.modularui.api.widget.SyncPrediction;
+import com.gtnewhorizons.modularui.api.widget.Widget;
 import com.gtnewhorizons.modularui.common.internal.JsonHelper;
 import com.gtnewhorizons.modularui.common.internal.Theme;
 
@@ -33,6 +36,9 @@ public class CycleButtonWidget extends SyncedWidget implements Interactable {
     protected int length = 1;
     protected Consumer<Integer> setter;
     protected Supplier<Integer> getter;
+    private IntProperty property;
+    private final SyncPrediction prediction = new SyncPrediction();
+    private int propertyVersion;
     protected Function<Integer, IDrawable> textureGetter;
     protected Function<Integer, IDrawable[]> backgroundGetter;
     protected IDrawable texture = IDrawable.EMPTY;
@@ -42,35 +48,52 @@ public class CycleButtonWidget extends SyncedWidget implements Interactable {
     public CycleButtonWidget() {}
 
     @Override
-    public void readJson(JsonObject json, String type) {
-        super.readJson(json, type);
-        this.length = JsonHelper.getInt(json, 1, "length", "size");
-        this.state = JsonHelper.getInt(json, 0, "defaultState");
+    public Consumer<Widget> compileJson(JsonObject json, String type) {
+        int length = JsonHelper.getInt(json, 1, "length", "size");
+        int state = JsonHelper.getInt(json, 0, "defaultState");
+        Consumer<CycleButtonWidget> textureSetter = widget -> {};
         if (json.has("texture")) {
             JsonElement element = json.get("texture");
             if (element.isJsonArray()) {
                 JsonArray array = element.getAsJsonArray();
-                this.length = array.size();
-                IDrawable[] textures = new IDrawable[this.length];
+                length = array.size();
+                List<Supplier<IDrawable>> textures = new ArrayList<>(length);
                 for (int i = 0; i < array.size(); i++) {
                     JsonElement element1 = array.get(i);
                     if (element1.isJsonObject()) {
-                        textures[i] = IDrawable.ofJson(element1.getAsJsonObject());
+                        textures.add(JsonHelper.compileDrawable(element1.getAsJsonObject()));
                     } else {
-                        textures[i] = IDrawable.EMPTY;
+                        textures.add(() -> IDrawable.EMPTY);
                         ModularUI.logger.error("Texture needs to be a json object");
                     }
                 }
-                this.textureGetter = val -> textures[val];
+                textureSetter = widget -> {
+                    IDrawable[] drawables = new IDrawable[textures.size()];
+                    for (int i = 0; i < drawables.length; i++) {
+                        drawables[i] = textures.get(i).get();
+                    }
+                    widget.textureGetter = val -> drawables[val];
+                };
             } else if (element.isJsonObject()) {
-                IDrawable drawable = IDrawable.ofJson(element.getAsJsonObject());
-                if (drawable instanceof UITexture) {
-                    setTexture((UITexture) drawable);
-                } else {
-                    this.textureGetter = val -> drawable;
-                }
+                Supplier<IDrawable> texture = JsonHelper.compileDrawable(element.getAsJsonObject());
+                textureSetter = widget -> {
+                    IDrawable drawable = texture.get();
+                    if (drawable instanceof UITexture) {
+                        widget.setTexture((UITexture) drawable);
+                    } else {
+                        widget.textureGetter = val -> drawable;
+                    }
+                };
             }
         }
+        int finalLength = length;
+        Consumer<CycleButtonWidget> finalTextureSetter = textureSetter;
+        return super.compileJson(json, type).andThen(widget -> {
+            CycleButtonWidget button = (CycleButtonWidget) widget;
+            button.length = finalLength;
+            button.state = state;
+            finalTextureSetter.accept(button);
+        });
     }
 
     @Override
@@ -118,10 +141,17 @@ public class CycleButtonWidget extends SyncedWidget implements Interactable {
         if (sync) {
             if (isClient()) {
                 if (syncsToServer()) {
-                    syncToServer(1, buffer -> buffer.writeVarIntToBuffer(state));
+                    int sequence = prediction.next();
+                    syncToServer(1, buffer -> {
+                        buffer.writeVarIntToBuffer(sequence);
+                        buffer.writeVarIntToBuffer(state);
+                    });
                 }
             } else {
-                syncToClient(1, buffer -> buffer.writeVarIntToBuffer(state));
+                syncToClient(1, buffer -> {
+                    buffer.writeVarIntToBuffer(prediction.getReceived());
+                    buffer.writeVarIntToBuffer(state);
+                });
             }
         }
         if (setSource) {
@@ -157,6 +187,10 @@ public class CycleButtonWidget extends SyncedWidget implements Interactable {
     @Override
     public void detectAndSendChanges(boolean init) {
         if (syncsToClient()) {
+            if (property != null) {
+                if (!init && property.getVersion() == propertyVersion) return;
+                propertyVersion = property.getVersion();
+            }
             int actualValue = getter.get();
             if (init || actualValue != state) {
                 setState(actualValue, true, false);
@@ -174,13 +208,18 @@ public class CycleButtonWidget extends SyncedWidget implements Interactable {
     @Override
     public void readOnClient(int id, PacketBuffer buf) {
         if (id == 1) {
-            setState(buf.readVarIntFromBuffer(), false, true);
+            int received = buf.readVarIntFromBuffer();
+            int state = buf.readVarIntFromBuffer();
+            // the state was sent before the server got the last click
+            if (!prediction.isCurrent(received)) return;
+            setState(state, false, true);
         }
     }
 
     @Override
     public void readOnServer(int id, PacketBuffer buf) {
         if (id == 1) {
+            prediction.receive(buf.readVarIntFromBuffer());
             setState(buf.readVarIntFromBuffer(), false, true);
             markForUpdate();
         }
@@ -213,6 +252,17 @@ public class CycleButtonWidget extends SyncedWidget implements Interactable {
 
     public CycleButtonWidget setGetter(Supplier<Integer> getter) {
         this.getter = getter;
+        this.property = null;
+        return this;
+    }
+
+    /**
+     * Binds getter and setter to the property. Changes are only synced when the property changes.
+     */
+    public CycleButtonWidget setProperty(IntProperty property) {
+        setSetter(property::set);
+        this.getter = property::get;
+        this.property = property;
         return this;
     }
 
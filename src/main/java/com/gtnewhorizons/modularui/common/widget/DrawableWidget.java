@@ -1,5 +1,6 @@
 package com.gtnewhorizons.modularui.common.widget;
 
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.jetbrains.annotations.NotNull;
@@ -12,6 +13,7 @@ import com.gtnewhorizons.modularui.api.drawable.IDrawable;
 import com.gtnewhorizons.modularui.api.drawable.Text;
 import com.gtnewhorizons.modularui.api.drawable.UITexture;
 import com.gtnewhorizons.modularui.api.math.Pos2d;
+import com.gtnewhorizons.modularui.api.property.ObjectProperty;
 import com.gtnewhorizons.modularui.api.widget.Widget;
 
 /**
@@ -21,17 +23,22 @@ public class DrawableWidget extends Widget {
 
     @NotNull
     private Supplier<IDrawable> drawable = () -> IDrawable.EMPTY;
+    private ObjectProperty<IDrawable> drawableProperty;
+    private int drawableVersion;
 
     @Override
-    public void readJson(JsonObject json, String type) {
-        super.readJson(json, type);
-        if (type.equals("image")) {
-            setDrawable(UITexture.ofJson(json));
-        }
+    public Consumer<Widget> compileJson(JsonObject json, String type) {
+        Consumer<Widget> applier = super.compileJson(json, type);
+        if (!type.equals("image")) return applier;
+        UITexture texture = UITexture.ofJson(json);
+        return applier.andThen(widget -> ((DrawableWidget) widget).setDrawable(texture));
     }
 
     @Override
     public void onScreenUpdate() {
+        if (drawableProperty != null && drawableProperty.getVersion() != drawableVersion) {
+            setDrawableFromProperty();
+        }
         if (drawable.get() != null) {
             drawable.get().tick();
         }
@@ -59,11 +66,28 @@ public class DrawableWidget extends Widget {
             ModularUI.logger.warn("Please use TextWidget for Text");
         }
         this.drawable = () -> drawable;
+        this.drawableProperty = null;
         return this;
     }
 
     public DrawableWidget setDrawable(@NotNull Supplier<IDrawable> drawable) {
         this.drawable = drawable;
+        this.drawableProperty = null;
         return this;
     }
+
+    /**
+     * Binds the drawable to the property. It's only looked up again when the property changes.
+     */
+    public DrawableWidget setDrawable(@NotNull ObjectProperty<IDrawable> drawable) {
+        this.drawableProperty = drawable;
+        setDrawableFromProperty();
+        return this;
+    }
+
+    private void setDrawableFromProperty() {
+        this.drawableVersion = drawableProperty.getVersion();
+        IDrawable current = drawableProperty.get();
+        this.drawable = () -> current;
+    }
 }
@@ -16,9 +16,6 @@ import com.gtnewhorizons.modularui.api.widget.Widget;
 import com.gtnewhorizons.modularui.common.internal.Theme;
 import com.gtnewhorizons.modularui.config.Config;
 
-import cpw.mods.fml.common.FMLCommonHandler;
-import cpw.mods.fml.common.eventhandler.SubscribeEvent;
-import cpw.mods.fml.common.gameevent.TickEvent;
 import cpw.mods.fml.relauncher.Side;
 import cpw.mods.fml.relauncher.SideOnly;
 
@@ -40,12 +37,9 @@ public class ExpandTab extends MultiChildWidget implements Interactable, IWidget
     @Nullable
     private IDrawable[] normalTexture;
 
-    private float ticktime;
-
     @Override
     public void onInit() {
-        this.openAnimator = new Interpolator(0, 1, this.animateDuration, Eases.EaseQuadOut, value -> {
-            float val = (float) value;
+        this.openAnimator = Interpolator.of(0, 1, this.animateDuration, Eases.EaseQuadOut, val -> {
             this.animateX = (this.expandedPos.x - this.normalPos.x) * val + this.normalPos.x;
             this.animateY = (this.expandedPos.y - this.normalPos.y) * val + this.normalPos.y;
             this.animateWidth = (this.expandedSize.width - this.normalSize.width) * val + this.normalSize.width;
@@ -58,7 +52,7 @@ public class ExpandTab extends MultiChildWidget implements Interactable, IWidget
             this.animating = false;
         });
         this.closeAnimator = this.openAnimator.getReversed(this.animateDuration, Eases.EaseQuadIn);
-        this.closeAnimator.setCallback(val -> {
+        this.closeAnimator.onFinish(val -> {
             this.animateX = this.normalPos.x;
             this.animateY = this.normalPos.y;
             this.animateWidth = this.normalSize.width;
@@ -75,16 +69,6 @@ public class ExpandTab extends MultiChildWidget implements Interactable, IWidget
                 widget.setEnabled(false);
             }
         }
-
-        if (isClient()) {
-            FMLCommonHandler.instance().bus().register(this);
-        }
-    }
-
-    @Override
-    public void onDestroy() {
-        super.onDestroy();
-        FMLCommonHandler.instance().bus().unregister(this);
     }
 
     @Override
@@ -115,22 +99,6 @@ public class ExpandTab extends MultiChildWidget implements Interactable, IWidget
         }
     }
 
-    @SubscribeEvent
-    public void onRenderTick(TickEvent.RenderTickEvent event) {
-        ticktime = event.renderTickTime;
-    }
-
-    @Override
-    public void onFrameUpdate() {
-        if (this.animating) {
-            if (expanded) {
-                this.openAnimator.update(ticktime);
-            } else {
-                this.closeAnimator.update(ticktime);
-            }
-        }
-    }
-
     @Override
     @SideOnly(Side.CLIENT)
     public void drawBackground(float partialTicks) {
@@ -209,11 +177,13 @@ public class ExpandTab extends MultiChildWidget implements Interactable, IWidget
                 for (Widget widget : getChildren()) {
                     widget.setEnabled(true);
                 }
-                openAnimator.forward();
+                closeAnimator.stop();
+                getContext().getAnimations().start(openAnimator.forward());
                 super.setSize(expandedSize);
                 super.setPos(expandedPos);
             } else {
-                closeAnimator.forward();
+                openAnimator.stop();
+                getContext().getAnimations().start(closeAnimator.forward());
                 super.setSize(normalSize);
                 super.setPos(normalPos);
             }
@@ -0,0 +1,218 @@
+package com.gtnewhorizons.modularui.common.widget;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraftforge.fluids.FluidStack;
+
+import org.lwjgl.opengl.GL11;
+
+import com.gtnewhorizons.modularui.api.GlStateManager;
+import com.gtnewhorizons.modularui.api.drawable.GuiHelper;
+import com.gtnewhorizons.modularui.api.drawable.IDrawable;
+import com.gtnewhorizons.modularui.api.math.Pos2d;
+import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.widget.Widget;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * Collects the fluid quads of {@link FluidSlotWidget}s while a window draws its widgets and renders all of them with a
+ * single block atlas bind and tessellator draw. Everything a fluid slot draws on top of its fluid is deferred as well
+ * and drawn after the quads.
+ * <p>
+ * Quads are transformed with the model view matrix they were submitted with, so they can be drawn without touching the
+ * matrix stack. Like in {@link ItemRenderBatch} the matrix is tracked in software instead of being read back per quad.
+ * The batch is flushed at the same points as {@link ItemRenderBatch}.
+ */
+@SideOnly(Side.CLIENT)
+public class FluidRenderBatch {
+
+    private static final int FLOATS_PER_QUAD = 4 * 5;
+
+    private static FluidRenderBatch current;
+
+    /**
+     * @return the batch fluid slots should submit to or null if fluids should be rendered immediately
+     */
+    public static FluidRenderBatch getCurrent() {
+        return current;
+    }
+
+    /**
+     * Renders everything the current batch has collected so far.
+     */
+    public static void flushCurrent() {
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    /**
+     * Flushes the current batch if the widget would draw over one of its pending fluid slots.
+     */
+    public static void flushCurrentIfCovered(Widget widget) {
+        if (current != null && !current.isEmpty() && !(widget instanceof FluidSlotWidget)) {
+            Pos2d pos = widget.getAbsolutePos();
+            Size size = widget.getSize();
+            if (pos.x < current.maxX && pos.x + size.width > current.minX
+                    && pos.y < current.maxY
+                    && pos.y + size.height > current.minY) {
+                current.flush();
+            }
+        }
+    }
+
+    private final GlStateManager.ModelViewTracker modelView = new GlStateManager.ModelViewTracker();
+    private final float[] matrix = new float[16];
+    private final List<Entry> entries = new ArrayList<>();
+    private float[] quads = new float[FLOATS_PER_QUAD * 16];
+    private GuiHelper.FluidRenderInfo[] quadInfos = new GuiHelper.FluidRenderInfo[16];
+    private int quadCount = 0;
+    private int size = 0;
+    private int minX, minY, maxX, maxY;
+    private FluidRenderBatch previous;
+
+    /**
+     * Makes this the current batch. Must be paired with {@link #end()}.
+     */
+    public void begin() {
+        flushCurrent();
+        this.modelView.invalidate();
+        this.previous = current;
+        current = this;
+    }
+
+    /**
+     * Renders all pending fluids and stops collecting.
+     */
+    public void end() {
+        flush();
+        if (current == this) {
+            current = previous;
+        }
+        this.previous = null;
+    }
+
+    public boolean isEmpty() {
+        return size == 0 && quadCount == 0;
+    }
+
+    /**
+     * Adds a fluid quad in the current model view space.
+     */
+    public void submitFluid(FluidStack content, float x0, float y0, float width, float height, float z) {
+        if (content == null) return;
+        GuiHelper.FluidRenderInfo info = GuiHelper.getFluidRenderInfo(content);
+        if (info.icon == null) return;
+        if (quadCount == quadInfos.length) {
+            quadInfos = Arrays.copyOf(quadInfos, quadCount * 2);
+            quads = Arrays.copyOf(quads, quads.length * 2);
+        }
+        modelView.get(matrix);
+        float x1 = x0 + width, y1 = y0 + height;
+        int i = quadCount * FLOATS_PER_QUAD;
+        i = putVertex(i, x0, y1, z, info.icon.getMinU(), info.icon.getMaxV());
+        i = putVertex(i, x1, y1, z, info.icon.getMaxU(), info.icon.getMaxV());
+        i = putVertex(i, x1, y0, z, info.icon.getMaxU(), info.icon.getMinV());
+        putVertex(i, x0, y0, z, info.icon.getMinU(), info.icon.getMinV());
+        quadInfos[quadCount++] = info;
+    }
+
+    /**
+     * Defers drawing everything the widget puts on top of its fluid until the quads are drawn.
+     */
+    public void submitOverlay(FluidSlotWidget widget, float partialTicks) {
+        if (size == entries.size()) {
+            entries.add(new Entry());
+        }
+        Entry entry = entries.get(size++);
+        entry.widget = widget;
+        entry.partialTicks = partialTicks;
+        modelView.get(entry.matrix);
+
+        Pos2d pos = widget.getAbsolutePos();
+        Size widgetSize = widget.getSize();
+        if (size == 1) {
+            minX = pos.x;
+            minY = pos.y;
+            maxX = pos.x + widgetSize.width;
+            maxY = pos.y + widgetSize.height;
+        } else {
+            minX = Math.min(minX, pos.x);
+            minY = Math.min(minY, pos.y);
+            maxX = Math.max(maxX, pos.x + widgetSize.width);
+            maxY = Math.max(maxY, pos.y + widgetSize.height);
+        }
+    }
+
+    private int putVertex(int i, float x, float y, float z, float u, float v) {
+        float[] m = matrix;
+        quads[i++] = m[0] * x + m[4] * y + m[8] * z + m[12];
+        quads[i++] = m[1] * x + m[5] * y + m[9] * z + m[13];
+        quads[i++] = m[2] * x + m[6] * y + m[10] * z + m[14];
+        quads[i++] = u;
+        quads[i++] = v;
+        return i;
+    }
+
+    /**
+     * Renders all pending quads and overlays.
+     */
+    public void flush() {
+        if (isEmpty()) return;
+        try {
+            if (quadCount > 0) {
+                GlStateManager.pushMatrix();
+                GL11.glLoadIdentity();
+                GlStateManager.disableLighting();
+                GlStateManager.enableBlend();
+                GlStateManager.bindTexture(TextureMap.locationBlocksTexture);
+                Tessellator tessellator = Tessellator.instance;
+                tessellator.startDrawingQuads();
+                for (int q = 0; q < quadCount; q++) {
+                    GuiHelper.FluidRenderInfo info = quadInfos[q];
+                    tessellator.setColorRGBA_F(info.red, info.green, info.blue, info.alpha);
+                    int i = q * FLOATS_PER_QUAD;
+                    for (int k = 0; k < 4; k++, i += 5) {
+                        tessellator.setTextureUV(quads[i + 3], quads[i + 4]);
+                        tessellator.addVertex(quads[i], quads[i + 1], quads[i + 2]);
+                    }
+                }
+                tessellator.draw();
+                GlStateManager.resetColor();
+                GlStateManager.disableBlend();
+                GlStateManager.popMatrix();
+            }
+
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                GlStateManager.pushMatrix();
+                GlStateManager.loadMatrix(entry.matrix);
+                IDrawable.applyTintColor(entry.widget.getWindow().getGuiTint());
+                GlStateManager.enableBlend();
+                entry.widget.drawFluidOverlay(entry.partialTicks);
+                GlStateManager.popMatrix();
+                GlStateManager.invalidateIfForeign(entry.widget);
+            }
+        } finally {
+            Arrays.fill(quadInfos, 0, quadCount, null);
+            for (int i = 0; i < size; i++) {
+                entries.get(i).widget = null;
+            }
+            quadCount = 0;
+            size = 0;
+        }
+    }
+
+    private static class Entry {
+
+        private final float[] matrix = new float[16];
+        private FluidSlotWidget widget;
+        private float partialTicks;
+    }
+}
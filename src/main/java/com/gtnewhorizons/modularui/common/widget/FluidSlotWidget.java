@@ -22,7 +22,6 @@ import net.minecraftforge.fluids.IFluidTank;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.lwjgl.opengl.GL11;
 
 import com.gtnewhorizons.modularui.ModularUI;
 import com.gtnewhorizons.modularui.api.GlStateManager;
@@ -41,6 +40,8 @@ import com.gtnewhorizons.modularui.api.math.Alignment;
 import com.gtnewhorizons.modularui.api.math.Color;
 import com.gtnewhorizons.modularui.api.math.Pos2d;
 import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.screen.ModularUIContext;
+import com.gtnewhorizons.modularui.api.screen.WindowPrototypes;
 import com.gtnewhorizons.modularui.api.widget.FluidInteractionUtil;
 import com.gtnewhorizons.modularui.api.widget.IDragAndDropHandler;
 import com.gtnewhorizons.modularui.api.widget.IHasStackUnderMouse;
@@ -50,6 +51,8 @@ import com.gtnewhorizons.modularui.common.internal.Theme;
 import com.gtnewhorizons.modularui.common.internal.network.NetworkUtils;
 import com.gtnewhorizons.modularui.common.internal.wrapper.ModularGui;
 
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
 import gregtech.api.util.GTUtility;
 
 @SuppressWarnings("unused")
@@ -64,7 +67,9 @@ public class FluidSlotWidget extends SyncedWidget
     private IDrawable overlayTexture;
 
     private final TextRenderer textRenderer = new TextRenderer();
-    private final IFluidTanksHandler handler;
+    private IFluidTanksHandler handler;
+    @Nullable
+    private Function<ModularUIContext, ? extends IFluidTanksHandler> handlerBinding;
     private final int tank;
 
     @Nullable
@@ -75,6 +80,7 @@ public class FluidSlotWidget extends SyncedWidget
     private boolean alwaysShowFull = true;
     private boolean canDrainSlot = true;
     private boolean canFillSlot = true;
+    private boolean fillAnyTank = false;
     private boolean phantom = false;
     private boolean controlsAmount = false;
     private boolean lastShift = false;
@@ -119,8 +125,20 @@ public class FluidSlotWidget extends SyncedWidget
         return handler.getFluidStackInTank(tank);
     }
 
+    /**
+     * Looks up the handler of this slot each time the window is opened, which lets {@link WindowPrototypes} reuse the
+     * window for another tile. The handler must have the same tanks every time.
+     */
+    public FluidSlotWidget bindHandler(Function<ModularUIContext, ? extends IFluidTanksHandler> handlerBinding) {
+        this.handlerBinding = handlerBinding;
+        return this;
+    }
+
     @Override
     public void onInit() {
+        if (this.handlerBinding != null) {
+            this.handler = this.handlerBinding.apply(getContext());
+        }
         if (isClient()) {
             this.textRenderer.setShadow(true);
             this.textRenderer.setScale(0.5f);
@@ -130,6 +148,17 @@ public class FluidSlotWidget extends SyncedWidget
         }
     }
 
+    @Override
+    public void onRecycle() {
+        this.lastStoredFluid = null;
+        this.lastStoredPhantomFluid = null;
+    }
+
+    @Override
+    public boolean canRecycle() {
+        return this.handlerBinding != null;
+    }
+
     @Override
     protected @NotNull Size determineSize(int maxWidth, int maxHeight) {
         return SIZE;
@@ -182,6 +211,12 @@ public class FluidSlotWidget extends SyncedWidget
                                 "modularui.fluid.amount",
                                 handler.getTankStoredAmount(tank),
                                 handler.getRealTankCapacity(tank)));
+                if (handler.getTanks() > 1) {
+                    long total = handler.totalAmount(fluid.getFluid());
+                    if (total > handler.getTankStoredAmount(tank)) {
+                        tooltip.add(Text.localised("modularui.fluid.total", total));
+                    }
+                }
                 addAdditionalFluidInfo(tooltip, fluid);
             } else {
                 tooltip.add(Text.localised("modularui.fluid.empty").format(EnumChatFormatting.WHITE));
@@ -212,6 +247,7 @@ public class FluidSlotWidget extends SyncedWidget
     @Override
     public void draw(float partialTicks) {
         FluidStack content = handler.getFluidStackInTank(tank);
+        FluidRenderBatch batch = FluidRenderBatch.getCurrent();
         if (content != null) {
             float y = contentOffset.y;
             float height = size.height - contentOffset.y * 2;
@@ -220,11 +256,29 @@ public class FluidSlotWidget extends SyncedWidget
                 y += height - newHeight;
                 height = newHeight;
             }
-            GuiHelper.drawFluidTexture(content, contentOffset.x, y, size.width - contentOffset.x * 2, height, 0);
+            if (batch != null) {
+                batch.submitFluid(content, contentOffset.x, y, size.width - contentOffset.x * 2, height, 0);
+            } else {
+                GuiHelper.drawFluidTexture(content, contentOffset.x, y, size.width - contentOffset.x * 2, height, 0);
+            }
+        }
+        if (batch != null) {
+            batch.submitOverlay(this, partialTicks);
+        } else {
+            drawFluidOverlay(partialTicks);
         }
+    }
+
+    /**
+     * Draws everything on top of the fluid. Called by {@link FluidRenderBatch} after all fluids of the window are
+     * drawn.
+     */
+    @SideOnly(Side.CLIENT)
+    protected void drawFluidOverlay(float partialTicks) {
         if (overlayTexture != null) {
             overlayTexture.draw(Pos2d.ZERO, size, partialTicks);
         }
+        FluidStack content = handler.getFluidStackInTank(tank);
         if (content != null && (!phantom || controlsAmount)) {
             String s = numberFormat.formatWithSuffix(handler.getTankStoredAmount(tank), new StringBuffer()).append('L')
                     .toString();
@@ -233,12 +287,12 @@ public class FluidSlotWidget extends SyncedWidget
             textRenderer.draw(s);
         }
         if (isHovering() && !getContext().getCursor().hasDraggable()) {
-            GL11.glDisable(GL11.GL_LIGHTING);
-            GL11.glEnable(GL11.GL_BLEND);
+            GlStateManager.disableLighting();
+            GlStateManager.enableBlend();
             GlStateManager.colorMask(true, true, true, false);
             ModularGui.drawSolidRect(1, 1, 16, 16, Theme.INSTANCE.getSlotHighlight());
             GlStateManager.colorMask(true, true, true, true);
-            GL11.glDisable(GL11.GL_BLEND);
+            GlStateManager.disableBlend();
         }
     }
 
@@ -384,7 +438,8 @@ public class FluidSlotWidget extends SyncedWidget
         }
 
         // tank not empty, both action possible
-        if (heldFluid != null && handler.getTankStoredAmount(tank) < handler.getTankCapacity(tank)) {
+        int fillTank = heldFluid != null ? getFillTank(heldFluid) : tank;
+        if (heldFluid != null && handler.getTankStoredAmount(fillTank) < handler.getTankCapacity(fillTank)) {
             // both nonnull and have space left for filling.
             if (canFillSlot)
                 // actually both pickup and fill is reasonable, but I'll go with fill here
@@ -450,12 +505,13 @@ public class FluidSlotWidget extends SyncedWidget
 
         ItemStack heldItemSizedOne = heldItem.copy();
         heldItemSizedOne.stackSize = 1;
-        FluidStack currentFluid = handler.getFluidStackInTank(tank);
+        int fillTank = getFillTank(heldFluid);
+        FluidStack currentFluid = handler.getFluidStackInTank(fillTank);
         // we are not using aMachine.fill() here anymore, so we need to check for fluid type here ourselves
         if (currentFluid != null && !currentFluid.isFluidEqual(heldFluid)) return null;
         if (!filter.apply(heldFluid.getFluid())) return null;
 
-        long freeSpace = handler.getTankCapacity(tank) - handler.getTankStoredAmount(tank);
+        long freeSpace = handler.getTankCapacity(fillTank) - handler.getTankStoredAmount(fillTank);
         if (freeSpace <= 0)
             // no space left
             return null;
@@ -489,7 +545,7 @@ public class FluidSlotWidget extends SyncedWidget
         // however here the fluid stack is not changed at all, so the exact code will slightly differ
         long parallel = processFullStack ? Math.min(freeSpace / fluidAmountTaken, heldItem.stackSize) : 1;
         FluidStack copiedFluidStack = heldFluid.copy();
-        handler.fill(tank, copiedFluidStack.getFluid(), fluidAmountTaken * parallel, false);
+        handler.fill(fillTank, copiedFluidStack.getFluid(), fluidAmountTaken * parallel, false);
 
         itemStackEmptied.stackSize = saturatedCast(parallel);
         replaceCursorItemStack(itemStackEmptied);
@@ -497,6 +553,22 @@ public class FluidSlotWidget extends SyncedWidget
         return itemStackEmptied;
     }
 
+    /**
+     * @return tank to fill the fluid into. This is the tank of this slot unless it can't take the fluid and
+     *         {@link #setFillAnyTank(boolean)} is enabled, then it's the tank found by
+     *         {@link IFluidTanksHandler#findTankFor}.
+     */
+    protected int getFillTank(@NotNull FluidStack fluid) {
+        if (!fillAnyTank) return tank;
+        FluidStack currentFluid = handler.getFluidStackInTank(tank);
+        if ((currentFluid == null || currentFluid.isFluidEqual(fluid))
+                && handler.getTankStoredAmount(tank) < handler.getTankCapacity(tank)) {
+            return tank;
+        }
+        int other = handler.findTankFor(fluid.getFluid());
+        return other >= 0 ? other : tank;
+    }
+
     protected void replaceCursorItemStack(ItemStack resultStack) {
         EntityPlayer player = getContext().getPlayer();
         int resultStackMaxStackSize = resultStack.getMaxStackSize();
@@ -654,6 +726,15 @@ public class FluidSlotWidget extends SyncedWidget
         return this;
     }
 
+    /**
+     * If enabled, fluid containers clicked on this slot fill another tank of the handler when the slot's own tank is
+     * full or holds a different fluid.
+     */
+    public FluidSlotWidget setFillAnyTank(boolean fillAnyTank) {
+        this.fillAnyTank = fillAnyTank;
+        return this;
+    }
+
     public FluidSlotWidget setAlwaysShowFull(boolean alwaysShowFull) {
         this.alwaysShowFull = alwaysShowFull;
         return this;
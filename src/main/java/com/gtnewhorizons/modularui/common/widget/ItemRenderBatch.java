@@ -0,0 +1,312 @@
+package com.gtnewhorizons.modularui.common.widget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.RenderHelper;
+import net.minecraft.inventory.Slot;
+import net.minecraft.item.ItemStack;
+
+import org.lwjgl.opengl.GL11;
+
+import com.gtnewhorizons.modularui.api.GlStateManager;
+import com.gtnewhorizons.modularui.api.drawable.GuiHelper;
+import com.gtnewhorizons.modularui.api.drawable.TextRenderer;
+import com.gtnewhorizons.modularui.api.math.Alignment;
+import com.gtnewhorizons.modularui.api.math.Color;
+import com.gtnewhorizons.modularui.api.math.Pos2d;
+import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.widget.Widget;
+import com.gtnewhorizons.modularui.common.internal.Theme;
+import com.gtnewhorizons.modularui.common.internal.wrapper.ModularGui;
+
+import cpw.mods.fml.relauncher.Side;
+import cpw.mods.fml.relauncher.SideOnly;
+
+/**
+ * Collects the items of {@link SlotWidget}s while a window draws its widgets and renders them together, so that the
+ * item lighting and depth state is set up once per batch instead of once per slot. Items are drawn first, then the
+ * amount texts, the vanilla and NEI overlays and finally the hover highlights.
+ * <p>
+ * Each entry remembers the model view matrix it was submitted with, so slots inside translated parents render at the
+ * right place. The matrix is tracked in software and only read back from the driver once per batch unless something
+ * else than a translation changed it. The batch is flushed when the window is done drawing, when a scissor frame is
+ * pushed or popped and when a widget is about to draw over a pending slot.
+ */
+@SideOnly(Side.CLIENT)
+public class ItemRenderBatch {
+
+    private static ItemRenderBatch current;
+
+    /**
+     * @return the batch slots should submit to or null if items should be rendered immediately
+     */
+    public static ItemRenderBatch getCurrent() {
+        return current;
+    }
+
+    /**
+     * Renders everything the current batch has collected so far.
+     */
+    public static void flushCurrent() {
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    /**
+     * Flushes the current batch if the widget would draw over one of its pending slots.
+     */
+    public static void flushCurrentIfCovered(Widget widget) {
+        if (current != null && current.size > 0 && !(widget instanceof SlotWidget)) {
+            Pos2d pos = widget.getAbsolutePos();
+            Size size = widget.getSize();
+            if (pos.x < current.maxX && pos.x + size.width > current.minX
+                    && pos.y < current.maxY
+                    && pos.y + size.height > current.minY) {
+                current.flush();
+            }
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final TextRenderer textRenderer = new TextRenderer();
+    private final GlStateManager.ModelViewTracker modelView = new GlStateManager.ModelViewTracker();
+    private ModularGui screen;
+    private ItemRenderBatch previous;
+    private int size = 0;
+    private int minX, minY, maxX, maxY;
+
+    /**
+     * Makes this the current batch. Must be paired with {@link #end()}.
+     */
+    public void begin(ModularGui screen) {
+        flushCurrent();
+        this.modelView.invalidate();
+        this.screen = screen;
+        this.previous = current;
+        current = this;
+    }
+
+    /**
+     * Renders all pending items and stops collecting.
+     */
+    public void end() {
+        flush();
+        if (current == this) {
+            current = previous;
+        }
+        this.previous = null;
+        this.screen = null;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds an item to the batch. The current model view matrix is used as origin.
+     *
+     * @param widget     the widget drawing the item
+     * @param slot       slot of the item, used for NEI overlays
+     * @param stack      stack to render or null if only the overlays should be drawn
+     * @param amountText amount text to draw in the bottom right or null
+     * @param layer      window layer, used to order the item z levels
+     */
+    public void submit(SlotWidget widget, Slot slot, ItemStack stack, String amountText, int layer) {
+        Entry entry = nextEntry(widget);
+        entry.slot = slot;
+        entry.stack = stack;
+        entry.amountText = amountText;
+        entry.layer = layer;
+        entry.overlays = true;
+    }
+
+    /**
+     * Adds the hover highlight of a slot. Merges with the entry of the same widget if it was the last one submitted.
+     */
+    public void submitHighlight(SlotWidget widget) {
+        if (size > 0 && entries.get(size - 1).widget == widget) {
+            entries.get(size - 1).highlight = true;
+            return;
+        }
+        Entry entry = nextEntry(widget);
+        entry.highlight = true;
+    }
+
+    private Entry nextEntry(SlotWidget widget) {
+        if (size == entries.size()) {
+            entries.add(new Entry());
+        }
+        Entry entry = entries.get(size++);
+        entry.widget = widget;
+        entry.slot = null;
+        entry.stack = null;
+        entry.amountText = null;
+        entry.overlays = false;
+        entry.highlight = false;
+        entry.layer = 0;
+        modelView.get(entry.matrix);
+
+        Pos2d pos = widget.getAbsolutePos();
+        Size widgetSize = widget.getSize();
+        if (size == 1) {
+            minX = pos.x;
+            minY = pos.y;
+            maxX = pos.x + widgetSize.width;
+            maxY = pos.y + widgetSize.height;
+        } else {
+            minX = Math.min(minX, pos.x);
+            minY = Math.min(minY, pos.y);
+            maxX = Math.max(maxX, pos.x + widgetSize.width);
+            maxY = Math.max(maxY, pos.y + widgetSize.height);
+        }
+        return entry;
+    }
+
+    /**
+     * Renders all pending entries.
+     */
+    public void flush() {
+        if (size == 0) return;
+        ModularGui screen = this.screen != null ? this.screen : entries.get(0).widget.getContext().getScreen();
+        Minecraft mc = Minecraft.getMinecraft();
+        GL11.glPushAttrib(GL11.GL_ALL_ATTRIB_BITS);
+        GlStateManager.pushMatrix();
+        try {
+            screen.setZ(100f);
+            ModularGui.getItemRenderer().zLevel = 100.0F;
+            GlStateManager.color(1.0F, 1.0F, 1.0F, 1.0F);
+            GlStateManager.enableTexture2D();
+            GlStateManager.disableBlend();
+
+            // items
+            GlStateManager.enableRescaleNormal();
+            GlStateManager.enableLighting();
+            RenderHelper.enableGUIStandardItemLighting();
+            GlStateManager.invalidateStateCache();
+            GlStateManager.enableDepth();
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                if (entry.stack == null) continue;
+                entry.load();
+                // so that item z levels are properly ordered
+                GL11.glTranslatef(0, 0, 150 * entry.layer);
+                ModularGui.getItemRenderer().renderItemAndEffectIntoGUI(
+                        screen.getFontRenderer(),
+                        mc.getTextureManager(),
+                        entry.stack,
+                        1,
+                        1);
+                GuiHelper.afterRenderItemAndEffectIntoGUI(entry.stack);
+            }
+            GlStateManager.disableRescaleNormal();
+
+            // amount texts
+            GlStateManager.disableLighting();
+            GlStateManager.disableDepth();
+            GlStateManager.disableBlend();
+            textRenderer.setShadow(true);
+            textRenderer.setColor(Color.WHITE.normal);
+            textRenderer.setPos(1, 1);
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                if (entry.amountText == null) continue;
+                entry.load();
+                textRenderer.setScale(getAmountScale(entry.amountText));
+                Size widgetSize = entry.widget.getSize();
+                textRenderer.setAlignment(Alignment.BottomRight, widgetSize.width - 1, widgetSize.height - 1);
+                textRenderer.draw(entry.amountText);
+            }
+
+            // other overlays like durability bar
+            GlStateManager.enableLighting();
+            GlStateManager.enableDepth();
+            GlStateManager.enableBlend();
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                if (entry.stack == null) continue;
+                entry.load();
+                int cachedCount = entry.stack.stackSize;
+                entry.stack.stackSize = 1; // required to not render the amount overlay
+                ModularGui.getItemRenderer().renderItemOverlayIntoGUI(
+                        screen.getFontRenderer(),
+                        mc.getTextureManager(),
+                        entry.stack,
+                        1,
+                        1,
+                        null);
+                entry.stack.stackSize = cachedCount;
+            }
+            GlStateManager.invalidateStateCache();
+            GlStateManager.disableDepth();
+
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                if (!entry.overlays) continue;
+                entry.load();
+                entry.widget.renderSlotOverlayNEI(entry.slot);
+            }
+            GlStateManager.invalidateStateCache();
+
+            // hover highlights
+            GlStateManager.disableLighting();
+            GlStateManager.enableBlend();
+            GlStateManager.colorMask(true, true, true, false);
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                if (!entry.highlight) continue;
+                entry.load();
+                ModularGui.drawSolidRect(1, 1, 16, 16, Theme.INSTANCE.getSlotHighlight());
+            }
+            GlStateManager.colorMask(true, true, true, true);
+            GlStateManager.disableBlend();
+
+            ModularGui.getItemRenderer().zLevel = 0.0F;
+            screen.setZ(0f);
+        } finally {
+            GlStateManager.popMatrix();
+            GL11.glPopAttrib();
+            GlStateManager.invalidateStateCache();
+            for (int i = 0; i < size; i++) {
+                entries.get(i).release();
+            }
+            size = 0;
+        }
+    }
+
+    public static float getAmountScale(String amountText) {
+        if (amountText.length() == 3) {
+            return 0.8f;
+        } else if (amountText.length() == 4) {
+            return 0.6f;
+        } else if (amountText.length() > 4) {
+            return 0.5f;
+        }
+        return 1f;
+    }
+
+    private static class Entry {
+
+        private final float[] matrix = new float[16];
+        private SlotWidget widget;
+        private Slot slot;
+        private ItemStack stack;
+        private String amountText;
+        private boolean overlays;
+        private boolean highlight;
+        private int layer;
+
+        private void load() {
+            GlStateManager.loadMatrix(matrix);
+        }
+
+        private void release() {
+            widget = null;
+            slot = null;
+            stack = null;
+            amountText = null;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.gtnewhorizons.modularui.common.widget;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import net.minecraft.network.PacketBuffer;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.widget.ISyncedWidget;
+import com.gtnewhorizons.modularui.api.widget.IWidgetParent;
+import com.gtnewhorizons.modularui.api.widget.Widget;
+import com.gtnewhorizons.modularui.common.internal.network.NetworkUtils;
+
+/**
+ * Page of a {@link PageControlWidget} which is only built when it's activated the first time. See
+ * {@link PageControlWidget#addLazyPage(Supplier)}.
+ * <p>
+ * The page itself is a synced widget, so it has the same id on both sides. Synced widgets in the page are registered
+ * as dynamic synced widgets of the page in the order they appear, so the factory must build the same widgets on both
+ * sides. The client builds the page first and then tells the server to do the same.
+ */
+public class LazyPage extends Widget implements ISyncedWidget, IWidgetParent {
+
+    private static final int BUILD = 0;
+    private static final int EVICT = 1;
+
+    private final Supplier<Widget> factory;
+    private final List<Widget> child = new ArrayList<>();
+    private int evictAfterTicks = -1;
+    private int inactiveTicks = 0;
+    private boolean firstTick = true;
+    private boolean evicting = false;
+    private boolean needsUpdate;
+
+    public LazyPage(Supplier<Widget> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Destroys the page after it was not active for the given amount of ticks. It's built again on the next activation.
+     *
+     * @param ticks ticks after which the page is evicted or -1 to never evict it
+     */
+    public LazyPage setEvictAfter(int ticks) {
+        this.evictAfterTicks = ticks;
+        return this;
+    }
+
+    public boolean isBuilt() {
+        return !child.isEmpty();
+    }
+
+    @Override
+    public void onPostInit() {
+        // the initial page is known on both sides
+        if (isEnabled()) {
+            build();
+        }
+    }
+
+    /**
+     * Called by {@link PageControlWidget} when this page becomes the active page.
+     */
+    protected void activate() {
+        this.inactiveTicks = 0;
+        if (isBuilt() || !isInitialised()) return;
+        build();
+        if (getWindow().isClientOnly()) return;
+        if (isClient()) {
+            syncToServer(BUILD, NetworkUtils.EMPTY_PACKET);
+        } else {
+            syncToClient(BUILD, NetworkUtils.EMPTY_PACKET);
+        }
+    }
+
+    private void build() {
+        if (isBuilt()) return;
+        Widget widget = factory.get();
+        if (widget == null) return;
+        this.evicting = false;
+        Consumer<Widget> initChildren = w -> {
+            if (w instanceof IWidgetParent) {
+                ((IWidgetParent) w).initChildren();
+            }
+        };
+        initChildren.accept(widget);
+        IWidgetParent.forEachByLayer(widget, initChildren);
+        AtomicInteger syncId = new AtomicInteger(1);
+        Consumer<Widget> addSynced = w -> {
+            if (w instanceof ISyncedWidget) {
+                getWindow().addDynamicSyncedWidget(syncId.getAndIncrement(), (ISyncedWidget) w, this);
+            }
+        };
+        // forEachByLayer already visits the widget itself if it's not a parent
+        if (widget instanceof IWidgetParent) addSynced.accept(widget);
+        IWidgetParent.forEachByLayer(widget, addSynced);
+        widget.initialize(getWindow(), this, getLayer() + 1);
+        this.child.add(widget);
+        this.firstTick = true;
+        checkNeedsRebuild();
+    }
+
+    private void evict() {
+        if (!isBuilt()) return;
+        Widget widget = this.child.get(0);
+        if (widget instanceof IWidgetParent) {
+            widget.onPause();
+            widget.onDestroy();
+        }
+        IWidgetParent.forEachByLayer(widget, Widget::onPause);
+        IWidgetParent.forEachByLayer(widget, Widget::onDestroy);
+        this.child.clear();
+        this.evicting = false;
+        checkNeedsRebuild();
+    }
+
+    @Override
+    public void onScreenUpdate() {
+        if (isEnabled() || evictAfterTicks < 0 || !isBuilt() || evicting) return;
+        if (++inactiveTicks >= evictAfterTicks) {
+            if (getWindow().isClientOnly()) {
+                evict();
+            } else {
+                // the server evicts first, so it doesn't send changes of widgets the client no longer has
+                this.evicting = true;
+                syncToServer(EVICT, NetworkUtils.EMPTY_PACKET);
+            }
+        }
+    }
+
+    @Override
+    public void detectAndSendChanges(boolean init) {
+        if (!isBuilt()) return;
+        Consumer<Widget> detectAndSendChanges = widget -> {
+            if (widget instanceof ISyncedWidget) {
+                ((ISyncedWidget) widget).detectAndSendChanges(firstTick);
+            }
+        };
+        Widget widget = this.child.get(0);
+        if (widget instanceof IWidgetParent) detectAndSendChanges.accept(widget);
+        IWidgetParent.forEachByLayer(widget, detectAndSendChanges);
+        this.firstTick = false;
+    }
+
+    @Override
+    public void readOnClient(int id, PacketBuffer buf) throws IOException {
+        if (id == BUILD) {
+            build();
+        } else if (id == EVICT) {
+            evict();
+            if (isEnabled()) {
+                // activated again while the server evicted the page
+                build();
+                syncToServer(BUILD, NetworkUtils.EMPTY_PACKET);
+            }
+        }
+    }
+
+    @Override
+    public void readOnServer(int id, PacketBuffer buf) throws IOException {
+        if (id == BUILD) {
+            build();
+        } else if (id == EVICT) {
+            evict();
+            syncToClient(EVICT, NetworkUtils.EMPTY_PACKET);
+        }
+    }
+
+    @Override
+    protected @NotNull Size determineSize(int maxWidth, int maxHeight) {
+        if (this.child.isEmpty()) {
+            return Size.ZERO;
+        }
+        return this.child.get(0).getSize();
+    }
+
+    @Override
+    public void markForUpdate() {
+        needsUpdate = true;
+    }
+
+    @Override
+    public void unMarkForUpdate() {
+        needsUpdate = false;
+    }
+
+    @Override
+    public boolean isMarkedForUpdate() {
+        return needsUpdate;
+    }
+
+    @Override
+    public List<Widget> getChildren() {
+        return this.child;
+    }
+}
@@ -3,6 +3,7 @@ package com.gtnewhorizons.modularui.common.widget;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -85,6 +86,9 @@ public class PageControlWidget extends Widget implements IWidgetParent {
         widget.setEnabled(active);
         setEnabledAllChildren(active, widget);
         if (active) {
+            if (widget instanceof LazyPage) {
+                ((LazyPage) widget).activate();
+            }
             for (Widget pageWidget : pages) {
                 if (pageWidget != widget) {
                     pageWidget.setEnabled(false);
@@ -115,4 +119,20 @@ public class PageControlWidget extends Widget implements IWidgetParent {
         }
         return this;
     }
+
+    /**
+     * Adds a page which is only built when it's activated the first time. The factory must build the same widgets on
+     * client and server.
+     */
+    public PageControlWidget addLazyPage(Supplier<Widget> factory) {
+        return addPage(new LazyPage(factory));
+    }
+
+    /**
+     * Adds a page which is only built when it's activated and destroyed again after it was not active for the given
+     * amount of ticks.
+     */
+    public PageControlWidget addLazyPage(Supplier<Widget> factory, int evictAfterTicks) {
+        return addPage(new LazyPage(factory).setEvictAfter(evictAfterTicks));
+    }
 }
@@ -10,6 +10,7 @@ import org.jetbrains.annotations.NotNull;
 import com.gtnewhorizons.modularui.api.drawable.UITexture;
 import com.gtnewhorizons.modularui.api.math.Pos2d;
 import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.property.ObjectProperty;
 import com.gtnewhorizons.modularui.config.Config;
 
 import codechicken.lib.math.MathHelper;
@@ -17,6 +18,8 @@ import codechicken.lib.math.MathHelper;
 public class ProgressBar extends SyncedWidget {
 
     private Supplier<Float> progress;
+    private ObjectProperty<Float> progressProperty;
+    private int progressVersion;
     private UITexture emptyTexture;
     private final UITexture[] fullTexture = new UITexture[4];
     private Direction direction = Direction.RIGHT;
@@ -156,6 +159,10 @@ public class ProgressBar extends SyncedWidget {
     @Override
     public void detectAndSendChanges(boolean init) {
         if (!syncsToClient()) return;
+        if (progressProperty != null) {
+            if (!init && progressProperty.getVersion() == progressVersion) return;
+            progressVersion = progressProperty.getVersion();
+        }
         float newProgress = progress.get();
         if (init || newProgress != lastProgress) {
             lastProgress = newProgress;
@@ -177,11 +184,25 @@ public class ProgressBar extends SyncedWidget {
 
     public ProgressBar setProgress(Supplier<Float> progress) {
         this.progress = progress;
+        this.progressProperty = null;
+        return this;
+    }
+
+    /**
+     * Binds the progress to the property. Changes are only synced when the property changes.
+     */
+    public ProgressBar setProgress(ObjectProperty<Float> progress) {
+        this.progressProperty = progress;
+        this.progress = () -> {
+            Float value = progress.get();
+            return value == null ? 0f : value;
+        };
         return this;
     }
 
     public ProgressBar setProgress(float progress) {
         this.progress = () -> progress;
+        this.progressProperty = null;
         return this;
     }
 
@@ -10,6 +10,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraftforge.fluids.IFluidTank;
 
 import com.gtnewhorizons.modularui.ModularUI;
@@ -22,6 +23,8 @@ import com.gtnewhorizons.modularui.api.forge.PlayerMainInvWrapper;
 import com.gtnewhorizons.modularui.api.math.Alignment;
 import com.gtnewhorizons.modularui.api.math.Pos2d;
 import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.screen.ModularUIContext;
+import com.gtnewhorizons.modularui.api.screen.WindowPrototypes;
 import com.gtnewhorizons.modularui.api.widget.Widget;
 import com.gtnewhorizons.modularui.common.internal.wrapper.BaseSlot;
 
@@ -37,13 +40,18 @@ public class SlotGroup extends MultiChildWidget {
         return playerInventoryGroup(player, null);
     }
 
+    /**
+     * The slots are bound to the inventory of the player the window is opened for, so windows with a player inventory
+     * can be reused by {@link WindowPrototypes}.
+     */
     public static SlotGroup playerInventoryGroup(EntityPlayer player, IDrawable background) {
-        PlayerMainInvWrapper wrapper = new PlayerMainInvWrapper(player.inventory);
+        PlayerInventoryBinding binding = new PlayerInventoryBinding(new PlayerMainInvWrapper(player.inventory));
+        PlayerMainInvWrapper wrapper = binding.wrapper;
         SlotGroup slotGroup = new SlotGroup();
 
         for (int row = 0; row < 3; row++) {
             for (int col = 0; col < 9; col++) {
-                SlotWidget slot = new SlotWidget(new BaseSlot(wrapper, col + (row + 1) * 9))
+                SlotWidget slot = new SlotWidget(new BaseSlot(wrapper, col + (row + 1) * 9)).bindHandler(binding)
                         .setPos(new Pos2d(col * 18, row * 18));
                 slotGroup.addSlot(slot);
                 if (background != null) {
@@ -53,7 +61,8 @@ public class SlotGroup extends MultiChildWidget {
         }
 
         for (int i = 0; i < 9; i++) {
-            SlotWidget slot = new SlotWidget(new BaseSlot(wrapper, i)).setPos(new Pos2d(i * 18, 58));
+            SlotWidget slot = new SlotWidget(new BaseSlot(wrapper, i)).bindHandler(binding)
+                    .setPos(new Pos2d(i * 18, 58));
             slotGroup.addSlot(slot);
             if (background != null) {
                 slot.setBackground(background);
@@ -402,4 +411,26 @@ public class SlotGroup extends MultiChildWidget {
             return slotGroup;
         }
     }
+
+    /**
+     * Shares one wrapper between all slots of the player inventory, so they still count as the same handler for shift
+     * clicks after the window was opened for another player.
+     */
+    private static class PlayerInventoryBinding implements Function<ModularUIContext, PlayerMainInvWrapper> {
+
+        private PlayerMainInvWrapper wrapper;
+
+        private PlayerInventoryBinding(PlayerMainInvWrapper wrapper) {
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public PlayerMainInvWrapper apply(ModularUIContext context) {
+            InventoryPlayer inventory = context.getPlayer().inventory;
+            if (this.wrapper.getInventoryPlayer() != inventory) {
+                this.wrapper = new PlayerMainInvWrapper(inventory);
+            }
+            return this.wrapper;
+        }
+    }
 }
@@ -9,8 +9,6 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-import net.minecraft.client.Minecraft;
-import net.minecraft.client.renderer.RenderHelper;
 import net.minecraft.client.resources.I18n;
 import net.minecraft.inventory.Container;
 import net.minecraft.inventory.Slot;
@@ -20,20 +18,17 @@ import net.minecraft.util.EnumChatFormatting;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.lwjgl.opengl.GL11;
-import org.lwjgl.opengl.GL12;
 
 import com.gtnewhorizons.modularui.api.GlStateManager;
 import com.gtnewhorizons.modularui.api.ModularUITextures;
 import com.gtnewhorizons.modularui.api.NumberFormatMUI;
-import com.gtnewhorizons.modularui.api.drawable.GuiHelper;
 import com.gtnewhorizons.modularui.api.drawable.Text;
-import com.gtnewhorizons.modularui.api.drawable.TextRenderer;
+import com.gtnewhorizons.modularui.api.forge.IItemHandlerLong;
 import com.gtnewhorizons.modularui.api.forge.IItemHandlerModifiable;
-import com.gtnewhorizons.modularui.api.math.Alignment;
-import com.gtnewhorizons.modularui.api.math.Color;
 import com.gtnewhorizons.modularui.api.math.Pos2d;
 import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.screen.ModularUIContext;
+import com.gtnewhorizons.modularui.api.screen.WindowPrototypes;
 import com.gtnewhorizons.modularui.api.widget.IDragAndDropHandler;
 import com.gtnewhorizons.modularui.api.widget.ISyncedWidget;
 import com.gtnewhorizons.modularui.api.widget.IVanillaSlot;
@@ -55,7 +50,6 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
 
     public static final Size SIZE = new Size(18, 18);
 
-    private final TextRenderer textRenderer = new TextRenderer();
     private final BaseSlot slot;
     private ItemStack lastStoredPhantomItem = null;
 
@@ -68,10 +62,18 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
 
     protected Consumer<Widget> onDragAndDropComplete;
     private static final NumberFormatMUI numberFormat = new NumberFormatMUI();
+    @SideOnly(Side.CLIENT)
+    private static ItemRenderBatch immediateBatch;
 
     @Nullable
     private String sortAreaName = null;
 
+    // amount of slots of IItemHandlerLong, last sent on server and last received on client
+    private long amountLong = -1;
+
+    @Nullable
+    private Function<ModularUIContext, ? extends IItemHandlerModifiable> handlerBinding;
+
     public SlotWidget(BaseSlot slot) {
         this.slot = slot;
         slot.setParentWidget(this);
@@ -89,9 +91,27 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
         return new SlotWidget(BaseSlot.empty());
     }
 
+    /**
+     * Looks up the handler of this slot each time the window is opened, which lets {@link WindowPrototypes} reuse the
+     * window for another tile or player. The handler must have the same slots every time.
+     */
+    public SlotWidget bindHandler(Function<ModularUIContext, ? extends IItemHandlerModifiable> handlerBinding) {
+        this.handlerBinding = handlerBinding;
+        return this;
+    }
+
     @Override
     public void onInit() {
+        if (this.handlerBinding != null) {
+            IItemHandlerModifiable handler = this.handlerBinding.apply(getContext());
+            if (handler != this.slot.getItemHandler()) {
+                this.slot.setItemHandler(handler);
+            }
+        }
         getContext().getContainer().addSlotToContainer(this.slot);
+        if (this.sortAreaName != null) {
+            getContext().getContainer().setSlotSortable(this.sortAreaName, this.slot);
+        }
         if (getBackground() == null) {
             setBackground(ModularUITextures.ITEM_SLOT);
         }
@@ -105,6 +125,17 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
         getContext().getContainer().removeSlot(this.slot);
     }
 
+    @Override
+    public void onRecycle() {
+        this.lastStoredPhantomItem = null;
+        this.amountLong = -1;
+    }
+
+    @Override
+    public boolean canRecycle() {
+        return this.handlerBinding != null;
+    }
+
     @Override
     public BaseSlot getMcSlot() {
         return this.slot;
@@ -127,17 +158,20 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
 
     @Override
     public void draw(float partialTicks) {
-        RenderHelper.enableGUIStandardItemLighting();
+        // the item is submitted to a batch, which only restores the attributes once it is flushed
         drawSlot(this.slot);
-        RenderHelper.enableStandardItemLighting();
-        GlStateManager.disableLighting();
         if (isHovering() && !getContext().getCursor().hasDraggable()) {
-            GL11.glDisable(GL11.GL_LIGHTING);
-            GL11.glEnable(GL11.GL_BLEND);
+            ItemRenderBatch batch = ItemRenderBatch.getCurrent();
+            if (batch != null) {
+                batch.submitHighlight(this);
+                return;
+            }
+            GlStateManager.disableLighting();
+            GlStateManager.enableBlend();
             GlStateManager.colorMask(true, true, true, false);
             ModularGui.drawSolidRect(1, 1, 16, 16, Theme.INSTANCE.getSlotHighlight());
             GlStateManager.colorMask(true, true, true, true);
-            GL11.glDisable(GL11.GL_BLEND);
+            GlStateManager.disableBlend();
         }
     }
 
@@ -152,15 +186,27 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
 
     @Override
     public void detectAndSendChanges(boolean init) {
-        if (init || this.slot.isNeedsSyncing()) {
-            getContext().syncSlotContent(this.slot);
-            if (this.slot.isNeedsSyncing()) {
-                markForUpdate();
+        // the stack itself is synced by the container
+        if (this.slot.getItemHandler() instanceof IItemHandlerLong) {
+            long amount = ((IItemHandlerLong) this.slot.getItemHandler()).getAmountLong(this.slot.getSlotIndex());
+            if (init || amount != this.amountLong) {
+                this.amountLong = amount;
+                syncToClient(1, buffer -> NetworkUtils.writeVarLong(buffer, amount));
             }
-            this.slot.resetNeedsSyncing();
         }
     }
 
+    /**
+     * @return the amount of the stack in this slot, which can exceed int for {@link IItemHandlerLong}
+     */
+    public long getAmountLong(ItemStack stack) {
+        if (stack == null) return 0;
+        if (this.amountLong >= 0 && this.slot.getItemHandler() instanceof IItemHandlerLong) {
+            return this.amountLong;
+        }
+        return stack.stackSize;
+    }
+
     @Override
     public void buildTooltip(List<Text> tooltip) {
         super.buildTooltip(tooltip);
@@ -174,8 +220,9 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
     @Override
     public List<String> getExtraTooltip() {
         List<String> extraLines = new ArrayList<>();
-        if (slot.getStack().stackSize >= 1000) {
-            extraLines.add(I18n.format("modularui.amount", slot.getStack().stackSize));
+        long amount = getAmountLong(slot.getStack());
+        if (amount >= 1000) {
+            extraLines.add(I18n.format("modularui.amount", amount));
         }
         if (isPhantom()) {
             if (canControlAmount()) {
@@ -262,6 +309,9 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
         return this;
     }
 
+    /**
+     * Adds the slot to a sorting area of the container. Middle clicking any slot of the area sorts it.
+     */
     public SlotWidget setSortable(String areaName) {
         if (this.sortAreaName == null ^ areaName == null) {
             this.sortAreaName = areaName;
@@ -307,7 +357,12 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
     }
 
     @Override
-    public void readOnClient(int id, PacketBuffer buf) {}
+    public void readOnClient(int id, PacketBuffer buf) {
+        if (id == 1) {
+            this.amountLong = NetworkUtils.readVarLong(buf);
+            notifyTooltipChange();
+        }
+    }
 
     @Override
     public void readOnServer(int id, PacketBuffer buf) throws IOException {
@@ -357,6 +412,13 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
             }
             return ClickResult.SUCCESS;
         }
+        if (buttonId == 2 && this.sortAreaName != null
+                && !getContext().getPlayer().capabilities.isCreativeMode
+                && getContext().getPlayer().inventory.getItemStack() == null) {
+            // middle click sorts the area, creative mode keeps it for picking items
+            getContext().getContainer().requestSort(this.sortAreaName);
+            return ClickResult.SUCCESS;
+        }
         return ClickResult.DELEGATE;
     }
 
@@ -477,21 +539,17 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
     }
 
     /**
-     * Copied from {@link net.minecraft.client.gui.inventory.GuiContainer} and removed the bad parts
+     * Copied from {@link net.minecraft.client.gui.inventory.GuiContainer} and removed the bad parts. The item and its
+     * overlays are submitted to the current {@link ItemRenderBatch} or rendered right away if there is none.
      */
     @SideOnly(Side.CLIENT)
     protected void drawSlot(Slot slotIn, boolean drawStackSize) {
-        GL11.glPushAttrib(GL11.GL_ALL_ATTRIB_BITS); // Сохраняем все состояния OpenGL
-        try {
-            GL11.glColor4f(1.0F, 1.0F, 1.0F, 1.0F); // Сбрасываем цвет
-            GL11.glEnable(GL11.GL_TEXTURE_2D);
-            GL11.glDisable(GL11.GL_BLEND);
         ItemStack itemstack = getItemStackForRendering(slotIn);
         boolean flag = false;
         boolean flag1 = slotIn == getGuiAccessor().getClickedSlot() && getGuiAccessor().getDraggedStack() != null
                 && !getGuiAccessor().getIsRightMouseClick();
         ItemStack itemstack1 = getContext().getPlayer().inventory.getItemStack();
-        int amount = -1;
+        long amount = -1;
         String format = null;
 
         if (slotIn == this.getGuiAccessor().getClickedSlot() && getGuiAccessor().getDraggedStack() != null
@@ -528,89 +586,38 @@ public class SlotWidget extends Widget implements IVanillaSlot, Interactable, IS
             }
         }
 
-        getScreen().setZ(100f);
-        ModularGui.getItemRenderer().zLevel = 100.0F;
+        if (flag1) {
+            return;
+        }
 
-        if (!flag1) {
-            if (flag) {
-                ModularGui.drawSolidRect(1, 1, 16, 16, -2130706433);
-            }
+        if (flag) {
+            GlStateManager.disableLighting();
+            ModularGui.drawSolidRect(1, 1, 16, 16, -2130706433);
+        }
 
-            renderSlotUnderlayNEI(slotIn);
-
-            if (itemstack != null) {
-                GlStateManager.enableRescaleNormal();
-                GlStateManager.enableLighting();
-                RenderHelper.enableGUIStandardItemLighting();
-                GlStateManager.enableDepth();
-                GL11.glEnable(GL12.GL_RESCALE_NORMAL);
-                GlStateManager.pushMatrix();
-                // so that item z levels are properly ordered
-                GlStateManager.translate(0, 0, 150 * getWindowLayer());
-                // render the item itself
-                ModularGui.getItemRenderer().renderItemAndEffectIntoGUI(
-                        getScreen().getFontRenderer(),
-                        Minecraft.getMinecraft().getTextureManager(),
-                        itemstack,
-                        1,
-                        1);
-                GuiHelper.afterRenderItemAndEffectIntoGUI(itemstack);
-                GL11.glDisable(GL12.GL_RESCALE_NORMAL);
-                GlStateManager.popMatrix();
-
-                if (drawStackSize) {
-                    if (amount < 0) {
-                        amount = itemstack.stackSize;
-                    }
-                    // render the amount overlay
-                    if (amount > 1 || format != null) {
-                        String amountText = numberFormat
-                                .formatWithSuffix(amount, new StringBuffer(format == null ? "" : format)).toString();
-                        float scale = 1f;
-                        if (amountText.length() == 3) {
-                            scale = 0.8f;
-                        } else if (amountText.length() == 4) {
-                            scale = 0.6f;
-                        } else if (amountText.length() > 4) {
-                            scale = 0.5f;
-                        }
-                        textRenderer.setShadow(true);
-                        textRenderer.setScale(scale);
-                        textRenderer.setColor(Color.WHITE.normal);
-                        textRenderer.setAlignment(Alignment.BottomRight, size.width - 1, size.height - 1);
-                        textRenderer.setPos(1, 1);
-                        GlStateManager.disableLighting();
-                        GlStateManager.disableDepth();
-                        GlStateManager.disableBlend();
-                        textRenderer.draw(amountText);
-                        GlStateManager.enableLighting();
-                        GlStateManager.enableDepth();
-                        GlStateManager.enableBlend();
-                    }
-                }
+        renderSlotUnderlayNEI(slotIn);
+        GlStateManager.invalidateStateCache();
 
-                int cachedCount = itemstack.stackSize;
-                itemstack.stackSize = 1; // required to not render the amount overlay
-                // render other overlays like durability bar
-                ModularGui.getItemRenderer().renderItemOverlayIntoGUI(
-                        getScreen().getFontRenderer(),
-                        Minecraft.getMinecraft().getTextureManager(),
-                        itemstack,
-                        1,
-                        1,
-                        null);
-                itemstack.stackSize = cachedCount;
-                GlStateManager.disableDepth();
+        String amountText = null;
+        if (itemstack != null && drawStackSize) {
+            if (amount < 0) {
+                amount = itemstack == slotIn.getStack() ? getAmountLong(itemstack) : itemstack.stackSize;
+            }
+            if (amount > 1 || format != null) {
+                amountText = numberFormat.formatWithSuffix(amount, new StringBuffer(format == null ? "" : format))
+                        .toString();
             }
-
-            renderSlotOverlayNEI(slotIn);
         }
 
-        GL11.glDisable(GL11.GL_BLEND);
-        ModularGui.getItemRenderer().zLevel = 0.0F;
-        getScreen().setZ(0f);
-        } finally {
-            GL11.glPopAttrib(); // Восстанавливаем состояния OpenGL
+        ItemRenderBatch batch = ItemRenderBatch.getCurrent();
+        if (batch != null) {
+            batch.submit(this, slotIn, itemstack, amountText, getWindowLayer());
+        } else {
+            if (immediateBatch == null) {
+                immediateBatch = new ItemRenderBatch();
+            }
+            immediateBatch.submit(this, slotIn, itemstack, amountText, getWindowLayer());
+            immediateBatch.flush();
         }
     }
 
@@ -1,5 +1,7 @@
 package com.gtnewhorizons.modularui.common.widget;
 
+import java.util.function.Consumer;
+
 import com.google.gson.JsonObject;
 import com.gtnewhorizons.modularui.api.widget.ISyncedWidget;
 import com.gtnewhorizons.modularui.api.widget.Widget;
@@ -16,10 +18,13 @@ public abstract class SyncedWidget extends Widget implements ISyncedWidget {
     private boolean syncsToClient = true;
 
     @Override
-    public void readJson(JsonObject json, String type) {
-        super.readJson(json, type);
-        this.syncsToServer = JsonHelper.getBoolean(json, true, "syncToClient", "handlesServer");
-        this.syncsToClient = JsonHelper.getBoolean(json, true, "syncToServer", "handlesClient");
+    public Consumer<Widget> compileJson(JsonObject json, String type) {
+        boolean syncsToServer = JsonHelper.getBoolean(json, true, "syncToClient", "handlesServer");
+        boolean syncsToClient = JsonHelper.getBoolean(json, true, "syncToServer", "handlesClient");
+        return super.compileJson(json, type).andThen(widget -> {
+            ((SyncedWidget) widget).syncsToServer = syncsToServer;
+            ((SyncedWidget) widget).syncsToClient = syncsToClient;
+        });
     }
 
     /**
@@ -6,13 +6,14 @@ import net.minecraft.util.EnumChatFormatting;
 
 import org.jetbrains.annotations.NotNull;
 
-import com.google.gson.JsonObject;
 import com.gtnewhorizons.modularui.api.drawable.Text;
 import com.gtnewhorizons.modularui.api.drawable.TextRenderer;
 import com.gtnewhorizons.modularui.api.math.Alignment;
 import com.gtnewhorizons.modularui.api.math.Size;
+import com.gtnewhorizons.modularui.api.property.ObjectProperty;
 import com.gtnewhorizons.modularui.api.widget.Widget;
 import com.gtnewhorizons.modularui.common.internal.Theme;
+import com.gtnewhorizons.modularui.config.Config;
 
 /**
  * Draws text. Accepts some text formatting rules. See also {@link Text}
@@ -22,6 +23,8 @@ public class TextWidget extends Widget {
     private Text text;
     protected String localised;
     protected Supplier<Text> textSupplier = null;
+    private ObjectProperty<String> stringProperty;
+    private int stringVersion;
     protected Integer defaultColor;
     protected EnumChatFormatting defaultFormat;
     private int maxWidth = -1;
@@ -54,11 +57,6 @@ public class TextWidget extends Widget {
         return new TextWidget(Text.localised(key, data));
     }
 
-    @Override
-    public void readJson(JsonObject json, String type) {
-        super.readJson(json, type);
-    }
-
     @Override
     public void onRebuild() {
         if (localised == null) {
@@ -79,6 +77,13 @@ public class TextWidget extends Widget {
 
     @Override
     public void onScreenUpdate() {
+        if (stringProperty != null) {
+            if (stringProperty.getVersion() != stringVersion) {
+                stringVersion = stringProperty.getVersion();
+                setTextFromProperty();
+            }
+            return;
+        }
         if (textSupplier != null) {
             text = textSupplier.get();
             if (defaultColor != null) {
@@ -107,6 +112,7 @@ public class TextWidget extends Widget {
         textRenderer.setShadow(text.hasShadow());
         textRenderer.setAlignment(textAlignment, size.width, size.height);
         textRenderer.setColor(text.hasColor() ? text.getColor() : Theme.INSTANCE.getText());
+        textRenderer.setBatched(Config.batchTextRendering);
         textRenderer.draw(localised);
     }
 
@@ -138,15 +144,48 @@ public class TextWidget extends Widget {
         return this;
     }
 
+    /**
+     * Binds the text to the property. The text is only updated and laid out again when the property changes.
+     */
+    public TextWidget setStringProperty(ObjectProperty<String> stringProperty) {
+        this.stringProperty = stringProperty;
+        this.textSupplier = null;
+        this.isDynamic = false;
+        if (stringProperty != null) {
+            this.stringVersion = stringProperty.getVersion();
+            setTextFromProperty();
+        }
+        return this;
+    }
+
+    private void setTextFromProperty() {
+        String string = stringProperty.get();
+        text = new Text(string == null ? "" : string);
+        if (defaultColor != null) {
+            text.color(defaultColor);
+        }
+        if (defaultFormat != null) {
+            text.format(defaultFormat);
+        }
+        localised = text.getFormatted();
+        checkNeedsRebuild();
+    }
+
     public TextWidget setDefaultColor(int color) {
         this.defaultColor = color;
         this.text.color(color);
+        if (stringProperty != null) {
+            setTextFromProperty();
+        }
         return this;
     }
 
     public TextWidget setDefaultColor(EnumChatFormatting color) {
         this.defaultFormat = color;
         this.text.format(color);
+        if (stringProperty != null) {
+            setTextFromProperty();
+        }
         return this;
     }
 
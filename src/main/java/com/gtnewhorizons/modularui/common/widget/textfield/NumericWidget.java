@@ -20,8 +20,12 @@ import com.gtnewhorizons.modularui.api.GlStateManager;
 import com.gtnewhorizons.modularui.api.NumberFormatMUI;
 import com.gtnewhorizons.modularui.api.drawable.GuiHelper;
 import com.gtnewhorizons.modularui.api.math.Alignment;
+import com.gtnewhorizons.modularui.api.property.IntProperty;
+import com.gtnewhorizons.modularui.api.property.LongProperty;
+import com.gtnewhorizons.modularui.api.property.ObservableProperty;
 import com.gtnewhorizons.modularui.api.widget.ISyncedWidget;
 import com.gtnewhorizons.modularui.api.widget.Interactable;
+import com.gtnewhorizons.modularui.api.widget.SyncPrediction;
 
 /**
  * A widget that allows the user to enter a numeric value. Synced between client and server. Automatically handles
@@ -33,8 +37,12 @@ public class NumericWidget extends BaseTextFieldWidget implements ISyncedWidget
 
     private double value = 0;
     private DoubleSupplier getter;
+    private ObservableProperty property;
+    private int propertyVersion;
     private DoubleConsumer setter;
     private DoubleUnaryOperator validator;
+    private final SyncPrediction prediction = new SyncPrediction();
+    private boolean needsCorrection;
 
     private double minValue = 0;
     private double maxValue = Double.POSITIVE_INFINITY;
@@ -273,6 +281,27 @@ public class NumericWidget extends BaseTextFieldWidget implements ISyncedWidget
      */
     public NumericWidget setGetter(DoubleSupplier getter) {
         this.getter = getter;
+        this.property = null;
+        return this;
+    }
+
+    /**
+     * Binds getter and setter to the property. Changes are only synced when the property changes.
+     */
+    public NumericWidget setProperty(IntProperty property) {
+        setSetter(value -> property.set((int) value));
+        this.getter = property::get;
+        this.property = property;
+        return this;
+    }
+
+    /**
+     * Binds getter and setter to the property. Changes are only synced when the property changes.
+     */
+    public NumericWidget setProperty(LongProperty property) {
+        setSetter(value -> property.set((long) value));
+        this.getter = property::get;
+        this.property = property;
         return this;
     }
 
@@ -305,7 +334,7 @@ public class NumericWidget extends BaseTextFieldWidget implements ISyncedWidget
                 setter.accept(value);
             }
             if (syncsToServer()) {
-                syncToServer(1, buffer -> buffer.writeDouble(value));
+                sendValueToServer();
             }
         }
     }
@@ -325,7 +354,7 @@ public class NumericWidget extends BaseTextFieldWidget implements ISyncedWidget
                 setter.accept(value);
             }
             if (syncsToServer()) {
-                syncToServer(1, buffer -> buffer.writeDouble(value));
+                sendValueToServer();
             }
         }
         return true;
@@ -333,6 +362,14 @@ public class NumericWidget extends BaseTextFieldWidget implements ISyncedWidget
 
     /* ISyncedWidget implementation. */
 
+    private void sendValueToServer() {
+        int sequence = prediction.next();
+        syncToServer(1, buffer -> {
+            buffer.writeVarIntToBuffer(sequence);
+            buffer.writeDouble(value);
+        });
+    }
+
     private boolean needsUpdate;
     private boolean syncsToServer = true;
     private boolean syncsToClient = true;
@@ -366,13 +403,20 @@ public class NumericWidget extends BaseTextFieldWidget implements ISyncedWidget
     @Override
     public void detectAndSendChanges(boolean init) {
         if (syncsToClient() && getter != null) {
+            if (property != null) {
+                // a correction has to be sent even if the property didn't change
+                if (!init && !needsCorrection && property.getVersion() == propertyVersion) return;
+                propertyVersion = property.getVersion();
+            }
             double newValue = getter.getAsDouble();
 
             // Order matters here, validateAndSetValue() has side effects, it needs to be evaluated first so that it
             // does not get short-circuited.
-            if (validateAndSetValue(newValue) || init) {
+            if (validateAndSetValue(newValue) || init || needsCorrection) {
+                needsCorrection = false;
                 syncToClient(1, buffer -> {
                     buffer.writeBoolean(init);
+                    buffer.writeVarIntToBuffer(prediction.getReceived());
                     buffer.writeDouble(value);
                 });
                 markForUpdate();
@@ -384,8 +428,11 @@ public class NumericWidget extends BaseTextFieldWidget implements ISyncedWidget
     public void readOnClient(int id, PacketBuffer buf) {
         if (id == 1) {
             boolean init = buf.readBoolean();
-            if (init || !isFocused()) {
-                validateAndSetValue(buf.readDouble());
+            int received = buf.readVarIntFromBuffer();
+            double newValue = buf.readDouble();
+            // values sent before the server got the last change are outdated
+            if (init || (!isFocused() && prediction.isCurrent(received))) {
+                validateAndSetValue(newValue);
                 if (init) {
                     lastText = new ArrayList<>(handler.getText());
                     if (focusOnGuiOpen) {
@@ -402,12 +449,18 @@ public class NumericWidget extends BaseTextFieldWidget implements ISyncedWidget
     @Override
     public void readOnServer(int id, PacketBuffer buf) {
         if (id == 1) {
-            if (validateAndSetValue(buf.readDouble())) {
+            prediction.receive(buf.readVarIntFromBuffer());
+            double received = buf.readDouble();
+            if (validateAndSetValue(received)) {
                 if (this.setter != null) {
                     this.setter.accept(value);
                 }
                 markForUpdate();
             }
+            if (value != received) {
+                // the client shows a value the server didn't accept
+                needsCorrection = true;
+            }
         }
     }
 
@@ -8,7 +8,6 @@ import java.util.List;
 import net.minecraft.client.renderer.Tessellator;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.lwjgl.opengl.GL11;
 
 import com.gtnewhorizons.modularui.api.GlStateManager;
 import com.gtnewhorizons.modularui.api.drawable.TextRenderer;
@@ -121,7 +120,7 @@ public class TextFieldRenderer extends TextRenderer {
         Pair<String, Float> line = measuredLines.get(cursorPos.y);
         String sub = line.getKey().substring(0, Math.min(line.getKey().length(), cursorPos.x));
         return new Point2D.Float(
-                getStartX(line.getRight()) + getFontRenderer().getStringWidth(sub) * scale,
+                getStartX(line.getRight()) + getStringWidth(sub) * scale,
                 getStartY(measuredLines.size()) + cursorPos.y * getFontHeight());
     }
 
@@ -135,8 +134,8 @@ public class TextFieldRenderer extends TextRenderer {
         float alpha = Color.getAlphaF(markedColor);
         if (alpha == 0) alpha = 1f;
         Tessellator tessellator = Tessellator.instance;
-        GL11.glEnable(GL11.GL_LIGHT0);
-        GL11.glEnable(GL11.GL_COLOR_MATERIAL);
+        GlStateManager.enableLight(0);
+        GlStateManager.enableColorMaterial();
         GlStateManager.color(red, green, blue, alpha);
         GlStateManager.disableTexture2D();
         tessellator.startDrawingQuads();
@@ -19,9 +19,15 @@ public class Config {
     public static boolean openCloseScale = false;
     public static boolean openCloseTranslateFromBottom = false;
     public static boolean openCloseRotateFast = false;
+    public static boolean disableAnimations = false;
+    public static int maxActiveAnimations = 0;
 
     public static boolean smoothProgressbar = true;
     public static String textCursor = "underscore";
+    public static boolean batchItemRendering = true;
+    public static boolean batchTextRendering = true;
+
+    public static int slotPollInterval = 20;
 
     public static boolean escRestoreLastText = false;
     public static boolean closeWindowsAtOnce = false;
@@ -29,12 +35,15 @@ public class Config {
     public static Locale locale = Locale.getDefault();
 
     public static boolean useJson = false;
+    public static int jsonLoaderThreads = 4;
+    public static boolean cacheJsonIndex = true;
 
     public static boolean debug = false;
     public static boolean forceEnableDebugBlock = false;
 
     public static final String CATEGORY_ANIMATIONS = "animations";
     public static final String CATEGORY_RENDERING = "rendering";
+    public static final String CATEGORY_SYNC = "sync";
     public static final String CATEGORY_KEYBOARD = "keyboard";
     public static final String CATEGORY_LOCALIZATION = "localization";
     public static final String CATEGORY_JSON = "json";
@@ -42,8 +51,8 @@ public class Config {
 
     private static final String LANG_PREFIX = ModularUI.MODID + ".config.";
 
-    public static final String[] CATEGORIES = new String[] { CATEGORY_ANIMATIONS, CATEGORY_RENDERING, CATEGORY_KEYBOARD,
-            CATEGORY_LOCALIZATION, CATEGORY_JSON, CATEGORY_DEBUG, };
+    public static final String[] CATEGORIES = new String[] { CATEGORY_ANIMATIONS, CATEGORY_RENDERING, CATEGORY_SYNC,
+            CATEGORY_KEYBOARD, CATEGORY_LOCALIZATION, CATEGORY_JSON, CATEGORY_DEBUG, };
 
     public static void init(File configFile) {
         config = new Configuration(configFile);
@@ -55,6 +64,8 @@ public class Config {
         config.setCategoryLanguageKey(CATEGORY_ANIMATIONS, LANG_PREFIX + CATEGORY_ANIMATIONS);
         config.setCategoryComment(CATEGORY_RENDERING, "Rendering");
         config.setCategoryLanguageKey(CATEGORY_RENDERING, LANG_PREFIX + CATEGORY_RENDERING);
+        config.setCategoryComment(CATEGORY_SYNC, "Sync");
+        config.setCategoryLanguageKey(CATEGORY_SYNC, LANG_PREFIX + CATEGORY_SYNC);
         config.setCategoryComment(CATEGORY_KEYBOARD, "Keyboard");
         config.setCategoryLanguageKey(CATEGORY_KEYBOARD, LANG_PREFIX + CATEGORY_KEYBOARD);
         config.setCategoryComment(CATEGORY_LOCALIZATION, "Localization");
@@ -106,6 +117,22 @@ public class Config {
                         "Whether to draw GUI rotating fast on GUI open/close")
                 .setLanguageKey(LANG_PREFIX + CATEGORY_ANIMATIONS + ".openCloseRotateFast").getBoolean();
 
+        disableAnimations = config
+                .get(
+                        CATEGORY_ANIMATIONS,
+                        "disableAnimations",
+                        false,
+                        "Skip all GUI animations. Useful for low-end clients.")
+                .setLanguageKey(LANG_PREFIX + CATEGORY_ANIMATIONS + ".disableAnimations").getBoolean();
+
+        maxActiveAnimations = config.get(
+                CATEGORY_ANIMATIONS,
+                "maxActiveAnimations",
+                0,
+                "How many animations can run at the same time. Animations above this limit end instantly. 0 means no limit.",
+                0,
+                1000).setLanguageKey(LANG_PREFIX + CATEGORY_ANIMATIONS + ".maxActiveAnimations").getInt();
+
         // === Rendering ===
 
         smoothProgressbar = config.get(CATEGORY_RENDERING, "smoothProgressbar", true, "Draw progress bar smoothly")
@@ -120,6 +147,32 @@ public class Config {
                         new String[] { "underscore", "vertical" })
                 .setLanguageKey(LANG_PREFIX + CATEGORY_RENDERING + ".textCursor").getString();
 
+        batchItemRendering = config
+                .get(
+                        CATEGORY_RENDERING,
+                        "batchItemRendering",
+                        true,
+                        "Render the items and fluids of all slots in a window together. Disable if items render in the wrong order.")
+                .setLanguageKey(LANG_PREFIX + CATEGORY_RENDERING + ".batchItemRendering").getBoolean();
+
+        batchTextRendering = config
+                .get(
+                        CATEGORY_RENDERING,
+                        "batchTextRendering",
+                        true,
+                        "Draw the text widgets of a window together. Disable if text renders in the wrong order.")
+                .setLanguageKey(LANG_PREFIX + CATEGORY_RENDERING + ".batchTextRendering").getBoolean();
+
+        // === Sync ===
+
+        slotPollInterval = config.get(
+                CATEGORY_SYNC,
+                "slotPollInterval",
+                20,
+                "Every how many ticks all slots of an open GUI are checked for changes made without notifying their inventory. Other changes are sent right away. 1 checks every slot every tick.",
+                1,
+                1200).setLanguageKey(LANG_PREFIX + CATEGORY_SYNC + ".slotPollInterval").getInt();
+
         // === Keyboard ===
 
         escRestoreLastText = config
@@ -161,6 +214,20 @@ public class Config {
                         false,
                         "Whether to enable Json. Enabling this will increase loading time.")
                 .setLanguageKey(LANG_PREFIX + CATEGORY_JSON + ".useJson").getBoolean();
+        jsonLoaderThreads = config.get(
+                CATEGORY_JSON,
+                "jsonLoaderThreads",
+                4,
+                "How many threads search the mods for json guis at once.",
+                1,
+                16).setLanguageKey(LANG_PREFIX + CATEGORY_JSON + ".jsonLoaderThreads").getInt();
+        cacheJsonIndex = config
+                .get(
+                        CATEGORY_JSON,
+                        "cacheJsonIndex",
+                        true,
+                        "Whether to remember the json guis of each mod jar, so unchanged jars are not opened again on the next start.")
+                .setLanguageKey(LANG_PREFIX + CATEGORY_JSON + ".cacheJsonIndex").getBoolean();
 
         // === Debug ===
 
@@ -20,6 +20,7 @@ public enum Mixin {
     // Replace with your own mixins:
     GuiContainerAccessor("GuiContainerAccessor", Side.CLIENT, VANILLA),
     NetHandlerPlayClientMixin("NetHandlerPlayClientMixin", Side.CLIENT, VANILLA),
+    SlotAccessor("SlotAccessor", VANILLA),
     NEIControllerMixin("NEIControllerMixin", Side.CLIENT, NOTENOUGHITEMS);
 
     public final String mixinClass;
@@ -0,0 +1,16 @@
+package com.gtnewhorizons.modularui.mixins;
+
+import net.minecraft.inventory.IInventory;
+import net.minecraft.inventory.Slot;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Mutable;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(Slot.class)
+public interface SlotAccessor {
+
+    @Mutable
+    @Accessor("inventory")
+    void setInventory(IInventory inventory);
+}
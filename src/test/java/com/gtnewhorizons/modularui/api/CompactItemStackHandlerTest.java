@@ -0,0 +1,130 @@
+package com.gtnewhorizons.modularui.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.gtnewhorizons.modularui.api.forge.CompactItemStackHandler;
+import com.gtnewhorizons.modularui.api.forge.ItemStackHandler;
+
+class CompactItemStackHandlerTest {
+
+    @BeforeAll
+    static void registerItems() {
+        Bootstrap.func_151354_b();
+    }
+
+    private static ItemStack taggedStack() {
+        ItemStack stack = new ItemStack(Items.diamond_sword, 1, 7);
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setString("Name", "test");
+        stack.setTagCompound(tag);
+        return stack;
+    }
+
+    private static void assertSameStack(ItemStack expected, ItemStack actual) {
+        assertTrue(
+                ItemStack.areItemStacksEqual(expected, actual),
+                () -> "expected " + expected + " with " + (expected == null ? null : expected.getTagCompound())
+                        + " but was " + actual + " with " + (actual == null ? null : actual.getTagCompound()));
+    }
+
+    @Test
+    void roundTrip_Test() {
+        CompactItemStackHandler handler = new CompactItemStackHandler(100);
+        handler.setStackInSlot(0, new ItemStack(Items.apple, 12));
+        handler.setStackInSlot(42, taggedStack());
+        handler.setStackInSlot(99, new ItemStack(Items.dye, 64, 4));
+
+        NBTTagCompound nbt = handler.serializeNBT();
+        assertEquals(100, nbt.getInteger("Size"));
+        assertArrayEquals(new int[] { 0, 42, 99 }, nbt.getIntArray("Slots"));
+        assertFalse(nbt.hasKey("Items"));
+
+        CompactItemStackHandler loaded = new CompactItemStackHandler();
+        loaded.deserializeNBT(nbt);
+        assertEquals(100, loaded.getSlots());
+        assertSameStack(new ItemStack(Items.apple, 12), loaded.getStackInSlot(0));
+        assertSameStack(taggedStack(), loaded.getStackInSlot(42));
+        assertSameStack(new ItemStack(Items.dye, 64, 4), loaded.getStackInSlot(99));
+        for (int i = 1; i < 99; i++) {
+            if (i != 42) {
+                assertTrue(loaded.isSlotEmpty(i));
+                assertNull(loaded.getStackInSlot(i));
+            }
+        }
+    }
+
+    @Test
+    void viewChangesAreSaved_Test() {
+        CompactItemStackHandler handler = new CompactItemStackHandler(2);
+        handler.insertItem(0, new ItemStack(Items.apple, 10), false);
+        handler.insertItem(1, taggedStack(), false);
+
+        // callers may modify the returned stacks directly
+        handler.getStackInSlot(0).stackSize = 3;
+        handler.getStackInSlot(1).getTagCompound().setString("Name", "renamed");
+
+        CompactItemStackHandler loaded = new CompactItemStackHandler();
+        loaded.deserializeNBT(handler.serializeNBT());
+        assertEquals(3, loaded.getAmount(0));
+        assertEquals("renamed", loaded.getStackInSlot(1).getTagCompound().getString("Name"));
+
+        // stacks handed out before the save are still views of their slot
+        ItemStack view = handler.getStackInSlot(1);
+        handler.serializeNBT();
+        assertSame(view, handler.getStackInSlot(1));
+        view.stackSize = 0;
+        loaded.deserializeNBT(handler.serializeNBT());
+        assertTrue(loaded.isSlotEmpty(1));
+    }
+
+    @Test
+    void bulkReadDoesNotCreateViews_Test() {
+        CompactItemStackHandler handler = new CompactItemStackHandler(3);
+        handler.insertItem(1, new ItemStack(Items.apple, 10), false);
+        handler.flushViews();
+
+        ItemStack[] first = new ItemStack[3];
+        ItemStack[] second = new ItemStack[3];
+        handler.copyStacks(0, 3, first, 0);
+        handler.copyStacks(0, 3, second, 0);
+        assertNull(first[0]);
+        assertSameStack(new ItemStack(Items.apple, 10), first[1]);
+        // a new stack every time, so none is kept
+        assertNotSame(first[1], second[1]);
+
+        // existing views are returned
+        ItemStack view = handler.getStackInSlot(1);
+        handler.copyStacks(1, 2, first, 0);
+        assertSame(view, first[0]);
+    }
+
+    @Test
+    void migrateFromItemStackHandler_Test() {
+        ItemStackHandler old = new ItemStackHandler(5);
+        old.setStackInSlot(1, new ItemStack(Items.apple, 12));
+        old.setStackInSlot(3, taggedStack());
+
+        CompactItemStackHandler migrated = new CompactItemStackHandler();
+        migrated.deserializeNBT(old.serializeNBT());
+        assertEquals(5, migrated.getSlots());
+        assertNull(migrated.getStackInSlot(0));
+        assertSameStack(new ItemStack(Items.apple, 12), migrated.getStackInSlot(1));
+        assertNull(migrated.getStackInSlot(2));
+        assertSameStack(taggedStack(), migrated.getStackInSlot(3));
+        assertNull(migrated.getStackInSlot(4));
+
+        // saved again in the compact format
+        CompactItemStackHandler loaded = new CompactItemStackHandler();
+        loaded.deserializeNBT(migrated.serializeNBT());
+        assertSameStack(new ItemStack(Items.apple, 12), loaded.getStackInSlot(1));
+        assertSameStack(taggedStack(), loaded.getStackInSlot(3));
+    }
+}
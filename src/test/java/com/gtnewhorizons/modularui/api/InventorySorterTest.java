@@ -0,0 +1,140 @@
+package com.gtnewhorizons.modularui.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.gtnewhorizons.modularui.api.forge.ItemHandlerHelper;
+import com.gtnewhorizons.modularui.api.forge.ItemStackHandler;
+import com.gtnewhorizons.modularui.common.internal.wrapper.BaseSlot;
+import com.gtnewhorizons.modularui.common.internal.wrapper.InventorySorter;
+
+class InventorySorterTest {
+
+    @BeforeAll
+    static void registerItems() {
+        Bootstrap.func_151354_b();
+    }
+
+    private static List<BaseSlot> createArea(ItemStackHandler handler) {
+        List<BaseSlot> slots = new ArrayList<>();
+        for (int i = 0; i < handler.getSlots(); i++) {
+            slots.add(new BaseSlot(handler, i));
+        }
+        return slots;
+    }
+
+    @Test
+    void mergeAndSort_Test() {
+        ItemStackHandler handler = new ItemStackHandler(5);
+        handler.setStackInSlot(0, new ItemStack(Items.diamond, 10));
+        handler.setStackInSlot(1, new ItemStack(Items.apple, 40));
+        handler.setStackInSlot(3, new ItemStack(Items.apple, 40));
+        handler.setStackInSlot(4, new ItemStack(Items.diamond, 5));
+
+        ItemStack[] sorted = InventorySorter.sort(createArea(handler), InventorySorter.DEFAULT_COMPARATOR);
+        assertNotNull(sorted);
+        assertEquals(5, sorted.length);
+        // apple has a lower id than diamond
+        assertTrue(ItemStack.areItemStacksEqual(new ItemStack(Items.apple, 64), sorted[0]));
+        assertTrue(ItemStack.areItemStacksEqual(new ItemStack(Items.apple, 16), sorted[1]));
+        assertTrue(ItemStack.areItemStacksEqual(new ItemStack(Items.diamond, 15), sorted[2]));
+        assertNull(sorted[3]);
+        assertNull(sorted[4]);
+    }
+
+    @Test
+    void keepsDisabledSlots_Test() {
+        ItemStackHandler handler = new ItemStackHandler(3);
+        handler.setStackInSlot(0, new ItemStack(Items.diamond, 1));
+        handler.setStackInSlot(1, new ItemStack(Items.stick, 1));
+        handler.setStackInSlot(2, new ItemStack(Items.apple, 1));
+        List<BaseSlot> area = createArea(handler);
+        area.get(1).setEnabled(false);
+
+        ItemStack[] sorted = InventorySorter.sort(area, InventorySorter.DEFAULT_COMPARATOR);
+        assertNotNull(sorted);
+        assertTrue(ItemStack.areItemStacksEqual(new ItemStack(Items.apple, 1), sorted[0]));
+        assertSame(handler.getStackInSlot(1), sorted[1]);
+        assertTrue(ItemStack.areItemStacksEqual(new ItemStack(Items.diamond, 1), sorted[2]));
+    }
+
+    @Test
+    void mixedArea_Test() {
+        ItemStackHandler handler = new ItemStackHandler(4);
+        handler.setStackInSlot(0, new ItemStack(Items.diamond, 1));
+        handler.setStackInSlot(2, new ItemStack(Items.apple, 3));
+        handler.setStackInSlot(3, new ItemStack(Items.stick, 2));
+        List<BaseSlot> area = createArea(handler);
+        // output slot the player can't take from
+        area.get(0).setAccess(false, true);
+        area.get(1).setFilter(stack -> stack.getItem() == Items.stick);
+
+        ItemStack[] sorted = InventorySorter.sort(area, InventorySorter.DEFAULT_COMPARATOR);
+        assertNotNull(sorted);
+        assertSame(handler.getStackInSlot(0), sorted[0]);
+        // the filtered slot is skipped for apples
+        assertTrue(ItemStack.areItemStacksEqual(new ItemStack(Items.stick, 2), sorted[1]));
+        assertTrue(ItemStack.areItemStacksEqual(new ItemStack(Items.apple, 3), sorted[2]));
+        assertNull(sorted[3]);
+    }
+
+    @Test
+    void mergesTagsWithSameHash_Test() {
+        // "Aa" and "BB" have the same hash code
+        ItemStack aa = taggedApple("Aa");
+        ItemStack bb = taggedApple("BB");
+        assertEquals(aa.getTagCompound().hashCode(), bb.getTagCompound().hashCode());
+
+        ItemStackHandler handler = new ItemStackHandler(3);
+        handler.setStackInSlot(0, ItemHandlerHelper.copyStackWithSize(aa, 10));
+        handler.setStackInSlot(1, ItemHandlerHelper.copyStackWithSize(bb, 7));
+        handler.setStackInSlot(2, ItemHandlerHelper.copyStackWithSize(aa, 5));
+
+        ItemStack[] sorted = InventorySorter.sort(createArea(handler), InventorySorter.DEFAULT_COMPARATOR);
+        assertNotNull(sorted);
+        assertTrue(ItemStack.areItemStacksEqual(ItemHandlerHelper.copyStackWithSize(aa, 15), sorted[0]));
+        assertTrue(ItemStack.areItemStacksEqual(ItemHandlerHelper.copyStackWithSize(bb, 7), sorted[1]));
+        assertNull(sorted[2]);
+    }
+
+    private static ItemStack taggedApple(String key) {
+        ItemStack stack = new ItemStack(Items.apple, 1);
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setInteger(key, 1);
+        stack.setTagCompound(tag);
+        return stack;
+    }
+
+    @Test
+    void doesNotFit_Test() {
+        ItemStackHandler handler = new ItemStackHandler(2) {
+
+            @Override
+            public int getSlotLimit(int slot) {
+                return 16;
+            }
+        };
+        handler.setStackInSlot(0, new ItemStack(Items.apple, 20));
+        handler.setStackInSlot(1, new ItemStack(Items.diamond, 20));
+        // 20 apples need two slots with a limit of 16
+        assertNull(InventorySorter.sort(createArea(handler), InventorySorter.DEFAULT_COMPARATOR));
+    }
+
+    @Test
+    void emptyArea_Test() {
+        ItemStack[] sorted = InventorySorter
+                .sort(createArea(new ItemStackHandler(3)), InventorySorter.DEFAULT_COMPARATOR);
+        assertNotNull(sorted);
+        assertArrayEquals(new ItemStack[3], sorted);
+    }
+}
@@ -0,0 +1,94 @@
+package com.gtnewhorizons.modularui.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.inventory.InventoryBasic;
+import net.minecraft.item.ItemStack;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.gtnewhorizons.modularui.api.forge.CompactItemStackHandler;
+import com.gtnewhorizons.modularui.api.forge.IItemHandlerModifiable;
+import com.gtnewhorizons.modularui.api.forge.InvWrapper;
+import com.gtnewhorizons.modularui.api.forge.ItemStackHandler;
+import com.gtnewhorizons.modularui.api.forge.ListItemHandler;
+import com.gtnewhorizons.modularui.api.forge.RangedWrapper;
+
+class ItemHandlerRangeTest {
+
+    private static final int SIZE = 6;
+
+    @BeforeAll
+    static void registerItems() {
+        Bootstrap.func_151354_b();
+    }
+
+    private static List<IItemHandlerModifiable> createHandlers() {
+        List<IItemHandlerModifiable> handlers = new ArrayList<>();
+        handlers.add(new ItemStackHandler(SIZE));
+        handlers.add(new CompactItemStackHandler(SIZE));
+        handlers.add(new InvWrapper(new InventoryBasic("test", false, SIZE)));
+        handlers.add(new RangedWrapper(new ItemStackHandler(SIZE + 4), 2, SIZE + 2));
+        handlers.add(new ListItemHandler(Arrays.asList(new ItemStackHandler(2), new ItemStackHandler(SIZE - 2))));
+        for (IItemHandlerModifiable handler : handlers) {
+            for (int i = 0; i < SIZE; i += 2) {
+                handler.setStackInSlot(i, new ItemStack(Items.apple, i + 1));
+            }
+        }
+        return handlers;
+    }
+
+    @Test
+    void bulkAccessMatchesSingleAccess_Test() {
+        for (IItemHandlerModifiable handler : createHandlers()) {
+            String name = handler.getClass().getSimpleName();
+            ItemStack[] copied = new ItemStack[SIZE + 1];
+            handler.copyStacks(1, SIZE, copied, 1);
+            List<ItemStack> visited = new ArrayList<>();
+            handler.forEachStack(0, SIZE, (slot, stack) -> {
+                assertEquals(visited.size(), slot, name);
+                visited.add(stack);
+            });
+            assertEquals(SIZE, visited.size(), name);
+            for (int i = 0; i < SIZE; i++) {
+                ItemStack expected = handler.getStackInSlot(i);
+                assertTrue(ItemStack.areItemStacksEqual(expected, visited.get(i)), name + " slot " + i);
+                if (i > 0) {
+                    assertTrue(ItemStack.areItemStacksEqual(expected, copied[i]), name + " slot " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyRange_Test() {
+        for (IItemHandlerModifiable handler : createHandlers()) {
+            String name = handler.getClass().getSimpleName();
+            assertDoesNotThrow(() -> handler.copyStacks(SIZE, SIZE, new ItemStack[0], 0), name);
+            assertDoesNotThrow(() -> handler.forEachStack(0, 0, (slot, stack) -> fail(name)), name);
+        }
+    }
+
+    @Test
+    void outOfRangeThrows_Test() {
+        for (IItemHandlerModifiable handler : createHandlers()) {
+            String name = handler.getClass().getSimpleName();
+            ItemStack[] dst = new ItemStack[SIZE + 2];
+            assertThrows(RuntimeException.class, () -> handler.copyStacks(0, SIZE + 1, dst, 0), name);
+            assertThrows(RuntimeException.class, () -> handler.copyStacks(-1, 2, dst, 0), name);
+            assertThrows(RuntimeException.class, () -> handler.forEachStack(3, 2, (slot, stack) -> {}), name);
+            assertThrows(
+                    RuntimeException.class,
+                    () -> handler.collectChangedSlots(0, SIZE + 1, new long[SIZE + 1], new BitSet(), 0),
+                    name);
+        }
+    }
+}
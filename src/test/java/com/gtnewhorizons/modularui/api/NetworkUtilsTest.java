@@ -0,0 +1,109 @@
+package com.gtnewhorizons.modularui.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.PacketBuffer;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.gtnewhorizons.modularui.common.internal.network.NetworkUtils;
+
+import io.netty.buffer.Unpooled;
+
+class NetworkUtilsTest {
+
+    private static final long[] VAR_LONG_VALUES = { 0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE,
+            Integer.MAX_VALUE + 1L, Long.MAX_VALUE, -1, Long.MIN_VALUE };
+    private static final int[] STACK_SIZES = { 0, 1, 127, 128, 64, Integer.MAX_VALUE };
+
+    @BeforeAll
+    static void registerItems() {
+        Bootstrap.func_151354_b();
+    }
+
+    private static PacketBuffer newBuffer() {
+        return new PacketBuffer(Unpooled.buffer());
+    }
+
+    @Test
+    void varLongRoundTrip_Test() {
+        for (long value : VAR_LONG_VALUES) {
+            PacketBuffer buffer = newBuffer();
+            NetworkUtils.writeVarLong(buffer, value);
+            assertEquals(value, NetworkUtils.readVarLong(buffer), "value " + value);
+            assertEquals(0, buffer.readableBytes(), "value " + value);
+        }
+    }
+
+    @Test
+    void varLongSize_Test() {
+        long[] values = { 0, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1 };
+        int[] sizes = { 1, 1, 2, 2, 3, 5, 9, 10 };
+        for (int i = 0; i < values.length; i++) {
+            PacketBuffer buffer = newBuffer();
+            NetworkUtils.writeVarLong(buffer, values[i]);
+            assertEquals(sizes[i], buffer.readableBytes(), "value " + values[i]);
+        }
+    }
+
+    @Test
+    void varLongSequence_Test() {
+        PacketBuffer buffer = newBuffer();
+        for (long value : VAR_LONG_VALUES) {
+            NetworkUtils.writeVarLong(buffer, value);
+        }
+        for (long value : VAR_LONG_VALUES) {
+            assertEquals(value, NetworkUtils.readVarLong(buffer));
+        }
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    void varLongTooBig_Test() {
+        PacketBuffer buffer = newBuffer();
+        for (int i = 0; i < 11; i++) {
+            buffer.writeByte(0x80);
+        }
+        assertThrows(RuntimeException.class, () -> NetworkUtils.readVarLong(buffer));
+    }
+
+    @Test
+    void itemStackRoundTrip_Test() {
+        for (int size : STACK_SIZES) {
+            PacketBuffer buffer = newBuffer();
+            ItemStack stack = new ItemStack(Items.dye, size, 4);
+            NetworkUtils.writeItemStack(buffer, stack);
+            ItemStack read = NetworkUtils.readItemStack(buffer);
+            assertTrue(ItemStack.areItemStacksEqual(stack, read), "size " + size);
+            assertEquals(0, buffer.readableBytes(), "size " + size);
+        }
+    }
+
+    @Test
+    void itemStackWithTag_Test() {
+        PacketBuffer buffer = newBuffer();
+        ItemStack stack = new ItemStack(Items.diamond_sword, 1, 12);
+        NBTTagCompound tag = new NBTTagCompound();
+        tag.setLong("Value", Long.MAX_VALUE);
+        stack.setTagCompound(tag);
+        NetworkUtils.writeItemStack(buffer, stack);
+        ItemStack read = NetworkUtils.readItemStack(buffer);
+        assertTrue(ItemStack.areItemStacksEqual(stack, read));
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    void nullItemStack_Test() {
+        PacketBuffer buffer = newBuffer();
+        NetworkUtils.writeItemStack(buffer, null);
+        NetworkUtils.writeItemStack(buffer, new ItemStack(Items.apple, 128));
+        assertNull(NetworkUtils.readItemStack(buffer));
+        assertEquals(128, NetworkUtils.readItemStack(buffer).stackSize);
+        assertEquals(0, buffer.readableBytes());
+    }
+}
@@ -0,0 +1,77 @@
+package com.gtnewhorizons.modularui.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.gtnewhorizons.modularui.api.forge.IItemHandler;
+import com.gtnewhorizons.modularui.api.forge.SlotVersions;
+
+class SlotVersionsTest {
+
+    @Test
+    void markChanged_Test() {
+        SlotVersions versions = new SlotVersions();
+        long initial = versions.get(5);
+        versions.markChanged(5);
+        long changed = versions.get(5);
+        assertNotEquals(initial, changed);
+        assertEquals(initial, versions.get(4));
+        assertEquals(initial, versions.get(100));
+        versions.markChanged(5);
+        assertNotEquals(changed, versions.get(5));
+        assertEquals(IItemHandler.UNVERSIONED, versions.get(-1));
+    }
+
+    @Test
+    void versionsAreNeverReused_Test() {
+        SlotVersions versions = new SlotVersions();
+        versions.markChanged(0);
+        long first = versions.get(0);
+        versions.markAllChanged();
+        long all = versions.get(0);
+        assertNotEquals(first, all);
+        assertEquals(all, versions.get(1));
+        assertEquals(all, versions.get(1000));
+        versions.markChanged(1);
+        assertNotEquals(all, versions.get(1));
+        assertNotEquals(first, versions.get(1));
+    }
+
+    @Test
+    void collectChanged_Test() {
+        SlotVersions versions = new SlotVersions();
+        long[] known = new long[8];
+        BitSet changed = new BitSet();
+        versions.collectChanged(0, 4, known, changed, 2);
+        changed.clear();
+
+        versions.markChanged(1);
+        versions.markChanged(6);
+        versions.collectChanged(0, 4, known, changed, 2);
+        assertEquals(BitSet.valueOf(new long[] { 1L << 3 }), changed);
+        assertEquals(versions.get(1), known[3]);
+
+        changed.clear();
+        versions.collectChanged(0, 4, known, changed, 2);
+        assertTrue(changed.isEmpty());
+    }
+
+    @Test
+    void listeners_Test() {
+        SlotVersions versions = new SlotVersions();
+        List<Integer> notified = new ArrayList<>();
+        Runnable remover = versions.addListener(notified::add);
+        versions.markChanged(3);
+        versions.markAllChanged();
+        remover.run();
+        versions.markChanged(4);
+        assertEquals(2, notified.size());
+        assertEquals(3, notified.get(0));
+        assertEquals(-1, notified.get(1));
+    }
+}